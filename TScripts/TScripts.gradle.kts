@@ -5,6 +5,7 @@ version = "4.16.15"
 
 plugins {
     id("java")
+    id("me.champeau.jmh") version "0.6.8"
 }
 
 project.extra["PluginName"] = "TScripts"
@@ -30,11 +31,28 @@ dependencies {
 
     compileOnly(group = "com.fifesoft", name = "rsyntaxtextarea", version = "3.1.2")
     compileOnly(group = "com.fifesoft", name = "autocomplete", version = "3.1.1")
+
+    testImplementation(group = "org.junit.jupiter", name = "junit-jupiter", version = "5.8.2")
+}
+
+configurations {
+    testImplementation.get().extendsFrom(compileOnly.get())
+    named("jmhImplementation") {
+        extendsFrom(compileOnly.get())
+    }
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    includeTests.set(true)
 }
 
 
 
 tasks {
+    test {
+        useJUnitPlatform()
+    }
     jar {
         duplicatesStrategy = DuplicatesStrategy.EXCLUDE
 
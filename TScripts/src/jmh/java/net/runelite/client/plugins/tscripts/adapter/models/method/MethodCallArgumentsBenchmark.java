@@ -0,0 +1,78 @@
+package net.runelite.client.plugins.tscripts.adapter.models.method;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways the runtime has turned the arguments of a call with constant arguments into the evaluated call:
+ * <ul>
+ *     <li>{@code constantCall}: the call evaluated once at bind time, as {@code Runtime.processMethodCallArguments}
+ *     now returns it.</li>
+ *     <li>{@code loop}: a new call per invocation with its arguments evaluated in a loop, the path calls with
+ *     variable arguments still take.</li>
+ *     <li>{@code stream}: a new call per invocation with its arguments evaluated through a stream, the path every
+ *     call took before.</li>
+ * </ul>
+ * Constants are evaluated by {@link #value(Object)}, which follows the constant rules of {@code Runtime.getValue},
+ * so no runtime or method manager is needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodCallArgumentsBenchmark
+{
+    @Param({"1", "4"})
+    private int arguments;
+
+    private MethodCall call;
+
+    @Setup
+    public void setup()
+    {
+        Object[] constants = {"\"Bank booth", 3, true, "\"Bank"};
+        call = new MethodCall("interact", Arrays.copyOf(constants, arguments), false);
+        call.bind(null);
+    }
+
+    @Benchmark
+    public MethodCall constantCall()
+    {
+        return call.getConstantCall();
+    }
+
+    @Benchmark
+    public MethodCall loop()
+    {
+        Object[] args = call.getArgs();
+        Object[] objects = new Object[args.length];
+        for (int i = 0; i < args.length; i++)
+        {
+            objects[i] = value(args[i]);
+        }
+        return new MethodCall(call.getName(), objects, call.isNegate());
+    }
+
+    @Benchmark
+    public MethodCall stream()
+    {
+        Object[] objects = Arrays.stream(call.getArgs())
+                .map(MethodCallArgumentsBenchmark::value)
+                .toArray();
+        return new MethodCall(call.getName(), objects, call.isNegate());
+    }
+
+    private static Object value(Object object)
+    {
+        if (object instanceof String)
+        {
+            String string = (String) object;
+            return string.startsWith("\"") ? string.substring(1) : string;
+        }
+        return object;
+    }
+}
@@ -0,0 +1,83 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares the reads of one statement made one client thread trip each, as {@code TGame.invoke} does, with the
+ * same reads made in a single trip, as {@code TGame.invokeAll} does for a {@link ReadBatch}.
+ * <p>
+ * A single threaded executor stands in for the client thread, so this measures the cost of the trips themselves.
+ * In the client each trip also waits for the client thread to pick up tasks, which is up to a frame, so the real
+ * gap per saved trip is larger.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadBatchBenchmark
+{
+    @Param({"2", "4"})
+    private int reads;
+
+    private ExecutorService clientThread;
+    private Supplier<?>[] suppliers;
+    private int state;
+
+    @Setup
+    public void setup()
+    {
+        clientThread = Executors.newSingleThreadExecutor();
+        suppliers = new Supplier<?>[reads];
+        for(int i = 0; i < reads; i++)
+        {
+            int offset = i;
+            suppliers[i] = () -> state + offset;
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        clientThread.shutdownNow();
+    }
+
+    @Benchmark
+    public Object[] unbatched()
+    {
+        Object[] results = new Object[suppliers.length];
+        for(int i = 0; i < suppliers.length; i++)
+        {
+            results[i] = invoke(suppliers[i]);
+        }
+        return results;
+    }
+
+    @Benchmark
+    public Object[] batched()
+    {
+        return invoke(() ->
+        {
+            Object[] results = new Object[suppliers.length];
+            for(int i = 0; i < suppliers.length; i++)
+            {
+                results[i] = suppliers[i].get();
+            }
+            return results;
+        });
+    }
+
+    private <T> T invoke(Supplier<T> supplier)
+    {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        clientThread.execute(() -> future.complete(supplier.get()));
+        return future.join();
+    }
+}
@@ -0,0 +1,71 @@
+package net.runelite.client.plugins.tscripts.sevices.localpathfinder;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BFSCache} on its own: filling it with a search's worth of parents, and walking a path of a given
+ * length back to the start, both into the reused trace buffer and into a list of steps.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BFSCacheBenchmark
+{
+    private static final int SCENE = 104;
+
+    @Param({"32", "256"})
+    private int length;
+
+    private final BFSCache cache = new BFSCache();
+    private int[] chain;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(1);
+        cache.setCollision(SyntheticGrids.grid(random, SCENE, 0.1));
+        chain = new int[length];
+        for(int i = 0; i < length; i++)
+        {
+            chain[i] = WorldPointUtil.fromCord(SyntheticGrids.BASE_X + i % SCENE, SyntheticGrids.BASE_Y + i / SCENE);
+        }
+        fill();
+    }
+
+    private void fill()
+    {
+        cache.clear();
+        cache.put(chain[0], -1);
+        for(int i = 1; i < chain.length; i++)
+        {
+            cache.put(chain[i], chain[i - 1]);
+        }
+    }
+
+    @Benchmark
+    public int put()
+    {
+        fill();
+        return cache.size();
+    }
+
+    @Benchmark
+    public int trace()
+    {
+        int length = cache.trace(chain[chain.length - 1]);
+        return cache.traced(length - 1);
+    }
+
+    @Benchmark
+    public List<Step> path()
+    {
+        return cache.path(chain[chain.length - 1]);
+    }
+}
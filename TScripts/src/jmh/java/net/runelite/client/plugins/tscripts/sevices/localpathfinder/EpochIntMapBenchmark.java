@@ -0,0 +1,74 @@
+package net.runelite.client.plugins.tscripts.sevices.localpathfinder;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays the parent map traffic of one search against {@link EpochIntMap} and a boxed {@link HashMap}: clear,
+ * a put-if-absent per tile reached, with every third tile already present, then a lookup per tile. Keys are packed
+ * tiles of a scene, as the pathfinder stores them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EpochIntMapBenchmark
+{
+    private static final int SCENE = 104;
+
+    @Param({"1024", "8192"})
+    private int visited;
+
+    private int[] keys;
+    private final EpochIntMap epochMap = new EpochIntMap(16);
+    private final Map<Integer, Integer> hashMap = new HashMap<>();
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(1);
+        keys = new int[visited];
+        for(int i = 0; i < keys.length; i++)
+        {
+            keys[i] = i % 3 == 2 ? keys[random.nextInt(i)] : SyntheticGrids.tile(random, SCENE);
+        }
+    }
+
+    @Benchmark
+    public int epochIntMap()
+    {
+        epochMap.clear();
+        for(int i = 0; i < keys.length; i++)
+        {
+            epochMap.putIfAbsent(keys[i], i);
+        }
+        int sum = 0;
+        for(int key : keys)
+        {
+            sum += epochMap.get(key);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int hashMap()
+    {
+        hashMap.clear();
+        for(int i = 0; i < keys.length; i++)
+        {
+            hashMap.putIfAbsent(keys[i], i);
+        }
+        int sum = 0;
+        for(int key : keys)
+        {
+            sum += hashMap.get(key);
+        }
+        return sum;
+    }
+}
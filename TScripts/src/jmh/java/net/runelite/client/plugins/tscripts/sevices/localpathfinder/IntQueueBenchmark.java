@@ -0,0 +1,64 @@
+package net.runelite.client.plugins.tscripts.sevices.localpathfinder;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes a breadth first frontier through {@link IntQueue} and through a boxed {@link ArrayDeque}: every node
+ * taken off the queue adds two more until a search's worth of nodes has been seen. Both queues are reused between
+ * invocations, the way the pathfinder reuses its queue between searches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IntQueueBenchmark
+{
+    @Param({"1024", "16384"})
+    private int nodes;
+
+    private final IntQueue queue = new IntQueue(16);
+    private final ArrayDeque<Integer> deque = new ArrayDeque<>(16);
+
+    @Benchmark
+    public int intQueue()
+    {
+        queue.clear();
+        queue.enqueue(0);
+        int seen = 1;
+        int sum = 0;
+        while(!queue.isEmpty())
+        {
+            int node = queue.dequeue();
+            sum += node;
+            for(int i = 0; i < 2 && seen < nodes; i++)
+            {
+                queue.enqueue(seen++);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int arrayDeque()
+    {
+        deque.clear();
+        deque.add(0);
+        int seen = 1;
+        int sum = 0;
+        while(!deque.isEmpty())
+        {
+            int node = deque.poll();
+            sum += node;
+            for(int i = 0; i < 2 && seen < nodes; i++)
+            {
+                deque.add(seen++);
+            }
+        }
+        return sum;
+    }
+}
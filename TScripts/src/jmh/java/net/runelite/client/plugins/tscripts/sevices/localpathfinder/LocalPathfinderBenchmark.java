@@ -0,0 +1,54 @@
+package net.runelite.client.plugins.tscripts.sevices.localpathfinder;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the search modes of {@link LocalPathfinder} on scene sized grids from {@link SyntheticGrids}, the same
+ * generator {@code LocalPathfinderTest} checks the modes against each other with. Each invocation searches the
+ * next of a fixed set of grids and endpoints, so every mode sees the same searches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalPathfinderBenchmark
+{
+    private static final int SCENE = 104;
+    private static final int SEARCHES = 64;
+
+    @Param({"BFS", "A_STAR", "JUMP_POINT"})
+    private SearchMode mode;
+
+    @Param({"0.05", "0.2"})
+    private double density;
+
+    private final CollisionUtil[] grids = new CollisionUtil[SEARCHES];
+    private final int[] starts = new int[SEARCHES];
+    private final int[] ends = new int[SEARCHES];
+    private int next;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(1);
+        for(int i = 0; i < SEARCHES; i++)
+        {
+            grids[i] = SyntheticGrids.grid(random, SCENE, density);
+            starts[i] = SyntheticGrids.tile(random, SCENE);
+            ends[i] = SyntheticGrids.tile(random, SCENE);
+        }
+    }
+
+    @Benchmark
+    public int findPath()
+    {
+        int i = next;
+        next = (i + 1) % SEARCHES;
+        return LocalPathfinder.get().findPath(grids[i], starts[i], ends[i], mode).size();
+    }
+}
@@ -58,6 +58,16 @@ public interface TScriptsConfig extends Config {
     )
     void setMelog(boolean paramString);
 
+    @ConfigItem(
+            keyName = "actionGap",
+            name = "Action Gap (ms)",
+            description = "Minimum time between two script actions in the same game tick",
+            position = 3
+    )
+    default int actionGap() {
+        return 20;
+    }
+
     @ConfigItem(
             keyName = "keybindsEnabled",
             name = "Keybinds Enabled",
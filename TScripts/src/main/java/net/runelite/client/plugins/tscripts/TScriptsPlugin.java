@@ -1,6 +1,7 @@
 package net.runelite.client.plugins.tscripts;
 
 import com.google.inject.Provides;
+import io.netty.buffer.Unpooled;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -11,6 +12,7 @@ import net.runelite.api.events.MenuOptionClicked;
 import net.runelite.client.RuneLite;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
+import net.runelite.client.events.ConfigChanged;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.input.KeyListener;
 import net.runelite.client.input.KeyManager;
@@ -18,12 +20,14 @@ import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.plugins.tscripts.api.MethodManager;
 import net.runelite.client.plugins.tscripts.api.library.TWorldPoint;
+import net.runelite.client.plugins.tscripts.sevices.ActionPacer;
 import net.runelite.client.plugins.tscripts.sevices.ScriptEventService;
 import net.runelite.client.plugins.tscripts.sevices.ipc.MulticastReceiver;
 import net.runelite.client.plugins.tscripts.sevices.localpathfinder.*;
 import net.runelite.client.plugins.tscripts.ui.TScriptsPanel;
 import net.runelite.client.plugins.tscripts.util.*;
 import net.runelite.client.plugins.tscripts.sevices.cache.GameCache;
+import net.runelite.client.plugins.tscripts.sevices.cache.ScriptCache;
 import net.runelite.client.plugins.tscripts.util.BaseClientUI;
 import net.runelite.client.plugins.tscripts.util.packets.PacketBuffer;
 import net.runelite.client.plugins.tscripts.types.PacketDefinition;
@@ -109,6 +113,7 @@ public class TScriptsPlugin  extends Plugin {
         configHandler = new ConfigHandler(getProfilePath(profile));
         configHandler.validateConfig();
         ScriptEventService.init(this);
+        ActionPacer.get().setMinimumGap(config.actionGap());
         new MethodManager(this);
         this.baseCompletion = CompletionSupplier.createBaseCompletionProvider();
         sidePanel(true);
@@ -136,6 +141,7 @@ public class TScriptsPlugin  extends Plugin {
         sidePanel(false);
         unregAllKeyListeners();
         multicastReceiver.shutdown();
+        ScriptCache.get().shutdown();
     }
 
     /**
@@ -231,6 +237,12 @@ public class TScriptsPlugin  extends Plugin {
 
     //events
 
+    @Subscribe
+    public void onConfigChanged(ConfigChanged event) {
+        if(event.getGroup().equals("HPQFlooder") && event.getKey().equals("actionGap"))
+            ActionPacer.get().setMinimumGap(config.actionGap());
+    }
+
     @Subscribe
     public void onPacketSent(PacketSent event) {
         if(!config.packetLogger() || event.getPacketBufferNode().getClientPacket() == null)
@@ -242,13 +254,13 @@ public class TScriptsPlugin  extends Plugin {
                 1, event.getPacketBufferNode().getPacketBuffer().getOffset()
         );
 
-        PacketBuffer pb = new PacketBuffer(id, payload);
+        PacketBuffer pb = new PacketBuffer(id, Unpooled.wrappedBuffer(payload), 0);
         PacketDefinition pd = null;
         String out;
         try
         {
             pd = PacketMapReader.analyze(pb);
-            out = PacketMapReader.prettify(pb);
+            out = PacketMapReader.prettify(pb, pd);
         }
         catch (Exception e)
         {
@@ -437,14 +437,16 @@ public class Adapter
 
         MethodCall methodCall = new MethodCall(name, objects.toArray(), negated);
 
-        MethodManager.CHECK_RESPONSE resp = MethodManager.getInstance().check(methodCall);
+        MethodManager methodManager = MethodManager.getInstance();
+        MethodManager.CHECK_RESPONSE resp = methodManager.check(methodCall);
 
         if(resp != MethodManager.CHECK_RESPONSE.OK)
         {
             Logging.errorLog(new RuntimeException("Method call " + name + " failed check: " + resp));
         }
 
-        return new MethodCall(name, objects.toArray(), negated);
+        methodCall.bind(methodManager.resolve(name));
+        return methodCall;
     }
 
     private static Element flushReferenceFunctionCall(TScriptParser.RefferanceFunctionCallContext ctx, boolean negated)
@@ -458,7 +460,9 @@ public class Adapter
                 objects.add(flushExpression(arg));
             }
         }
-        return new MethodCall(name, objects.toArray(), negated);
+        MethodCall methodCall = new MethodCall(name, objects.toArray(), negated);
+        methodCall.bind(null);
+        return methodCall;
     }
 
     private static ArrayAccess flushArrayAccess(TScriptParser.ArrayContext ctx, boolean negated)
@@ -9,7 +9,6 @@ import net.runelite.client.plugins.tscripts.adapter.models.ElementType;
 import net.runelite.client.plugins.tscripts.adapter.models.Element;
 
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * Represents a scope of elements
@@ -23,8 +22,7 @@ public class Scope extends Element
      */
     public Scope(Map<Integer, Element> elements)
     {
-        this.elements = elements;
-        setType(net.runelite.client.plugins.tscripts.adapter.models.ElementType.SCOPE);
+        this(elements, null);
     }
 
     /**
@@ -33,10 +31,16 @@ public class Scope extends Element
      * @param conditions The conditions of the scope
      */
     public Scope(Map<Integer, Element> elements, Conditions conditions)
+    {
+        this(elements, conditions, ScopeId.next());
+    }
+
+    private Scope(Map<Integer, Element> elements, Conditions conditions, int hash)
     {
         this.elements = elements;
         setType(ElementType.SCOPE);
         this.conditions = conditions;
+        this.hash = hash;
     }
 
     private final Map<Integer, Element> elements;
@@ -44,16 +48,19 @@ public class Scope extends Element
     private Map<Integer, Element> elseElements = null;
     @Setter
     private Conditions conditions = null;
+    /**
+     * The scope id, see {@link ScopeId}
+     */
     @Getter
-    private String hash = UUID.randomUUID().toString();
+    private final int hash;
 
     /**
-     * Clones the scope
+     * Clones the scope, the clone gets an id from the clone range
      * @return The cloned scope
      */
     public Scope clone()
     {
-        return new Scope(elements, conditions);
+        return new Scope(elements, conditions, ScopeId.nextClone());
     }
 
     /**
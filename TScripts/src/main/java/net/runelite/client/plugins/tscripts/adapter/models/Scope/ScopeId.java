@@ -0,0 +1,113 @@
+package net.runelite.client.plugins.tscripts.adapter.models.Scope;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out scope identifiers. Parsed scopes get ids from the non-negative range, and clones made for
+ * user function calls and event handlers get ids from the reserved negative range, so a clone never
+ * collides with a parsed scope. Clone ids wrap around, which is fine as clones only live for one call.
+ * <p>
+ * Readable labels are only kept while the debug tools are open.
+ */
+public class ScopeId
+{
+    private static final AtomicInteger nextId = new AtomicInteger();
+    private static final AtomicInteger nextCloneId = new AtomicInteger(-1);
+    private static final Map<Integer, String> labels = new ConcurrentHashMap<>();
+    private static volatile boolean labelling = false;
+
+    /**
+     * Gets a new id for a parsed scope.
+     *
+     * @return The id.
+     */
+    public static int next()
+    {
+        return nextId.getAndIncrement() & Integer.MAX_VALUE;
+    }
+
+    /**
+     * Gets a new id for a cloned scope.
+     *
+     * @return The id.
+     */
+    public static int nextClone()
+    {
+        return nextCloneId.getAndDecrement() | Integer.MIN_VALUE;
+    }
+
+    /**
+     * Checks if an id belongs to a cloned scope.
+     *
+     * @param id The id.
+     * @return Whether the id is in the clone range.
+     */
+    public static boolean isClone(int id)
+    {
+        return id < 0;
+    }
+
+    /**
+     * Turns label tracking on or off, clearing any labels when turned off.
+     *
+     * @param enabled Whether labels are tracked.
+     */
+    public static void setLabelling(boolean enabled)
+    {
+        labelling = enabled;
+        if (!enabled)
+        {
+            labels.clear();
+        }
+    }
+
+    public static boolean isLabelling()
+    {
+        return labelling;
+    }
+
+    /**
+     * Records a readable label for an id, does nothing unless labels are tracked.
+     *
+     * @param id The id.
+     * @param label The label.
+     */
+    public static void label(int id, String label)
+    {
+        if (labelling)
+        {
+            labels.put(id, label);
+        }
+    }
+
+    /**
+     * Forgets the label of an id.
+     *
+     * @param id The id.
+     */
+    public static void forget(int id)
+    {
+        if (labelling)
+        {
+            labels.remove(id);
+        }
+    }
+
+    /**
+     * Gets a readable label for an id.
+     *
+     * @param id The id.
+     * @return The recorded label, or a generic one.
+     */
+    public static String describe(int id)
+    {
+        String label = labels.get(id);
+        if (label != null)
+        {
+            return label;
+        }
+        return isClone(id) ? "clone " + (id & Integer.MAX_VALUE) : "scope " + id;
+    }
+}
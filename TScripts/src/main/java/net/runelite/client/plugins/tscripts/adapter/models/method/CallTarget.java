@@ -0,0 +1,63 @@
+package net.runelite.client.plugins.tscripts.adapter.models.method;
+
+/**
+ * What a method call was resolved to when the script was parsed
+ */
+public enum CallTarget
+{
+    DIE,
+    BREAK,
+    CONTINUE,
+    BREAKPOINT,
+    RETURN,
+    EVAL,
+    /**
+     * A builtin from the method manager, unless a user function of the same name is defined when it runs
+     */
+    BUILTIN,
+    /**
+     * A call through a variable holding a lambda
+     */
+    USER_FUNCTION,
+    /**
+     * Neither a keyword nor a builtin, so most likely a user function that is defined when the script runs
+     */
+    UNKNOWN;
+
+    /**
+     * Resolves the target of a call by name
+     * @param name the name of the call
+     * @param builtin whether the name matches a builtin
+     * @return the target
+     */
+    public static CallTarget of(String name, boolean builtin)
+    {
+        switch (name)
+        {
+            case "die":
+                return DIE;
+            case "break":
+                return BREAK;
+            case "continue":
+                return CONTINUE;
+            case "breakpoint":
+                return BREAKPOINT;
+            case "return":
+                return RETURN;
+            case "eval":
+                return EVAL;
+        }
+        if (name.startsWith("$"))
+            return USER_FUNCTION;
+        return builtin ? BUILTIN : UNKNOWN;
+    }
+
+    /**
+     * Whether the target is a control keyword, only handled as such when the call is a statement
+     * @return whether the target is a control keyword
+     */
+    public boolean isControl()
+    {
+        return ordinal() <= EVAL.ordinal();
+    }
+}
@@ -1,10 +1,12 @@
 package net.runelite.client.plugins.tscripts.adapter.models.method;
 
 import lombok.Getter;
+import lombok.Setter;
 import net.runelite.client.plugins.tscripts.adapter.models.ElementType;
 import net.runelite.client.plugins.tscripts.api.MethodManager;
 import net.runelite.client.plugins.tscripts.adapter.models.Element;
-import net.runelite.client.plugins.tscripts.runtime.Runtime;
+import net.runelite.client.plugins.tscripts.runtime.UserFunctionTable;
+import net.runelite.client.plugins.tscripts.types.MethodDefinition;
 
 /**
  * Represents a method call in the script
@@ -46,9 +48,57 @@ public class MethodCall extends Element
         return (T) args[index];
     }
 
+    /**
+     * Binds the call to what its name resolves to, done once when the script is parsed
+     * @param method the builtin with this name, or null if there is none
+     */
+    public void bind(MethodDefinition method)
+    {
+        this.method = method;
+        this.target = CallTarget.of(name, method != null);
+        this.constantCall = evaluateConstants();
+    }
+
+    /**
+     * Evaluates the arguments up front if they are all constants, the same way the runtime evaluates them
+     * @return the call with evaluated arguments, or null if any argument has to be evaluated at runtime
+     */
+    private MethodCall evaluateConstants()
+    {
+        Object[] values = new Object[args.length];
+        for (int i = 0; i < args.length; i++)
+        {
+            Object arg = args[i];
+            if (arg instanceof Integer || arg instanceof Boolean)
+            {
+                values[i] = arg;
+                continue;
+            }
+            if (!(arg instanceof String))
+                return null;
+            String string = (String) arg;
+            if (string.startsWith("$") || string.startsWith("!$"))
+                return null;
+            values[i] = string.startsWith("\"") ? string.substring(1) : string;
+        }
+        return new MethodCall(name, values, negate);
+    }
+
     private final boolean negate;
     private final String name;
     private final Object[] args;
+    private CallTarget target = CallTarget.UNKNOWN;
+    private MethodDefinition method = null;
+    /**
+     * The call with its arguments already evaluated, when every argument is a constant. It is shared between
+     * invocations, so builtins must not modify its arguments
+     */
+    private MethodCall constantCall = null;
+    /**
+     * The user function this call last resolved to, owned by {@link UserFunctionTable}
+     */
+    @Setter
+    private volatile UserFunctionTable.Binding binding = null;
 
     @Override
     public String toString()
@@ -4,7 +4,8 @@ import com.google.common.reflect.ClassPath;
 import lombok.Getter;
 import net.runelite.api.GameState;
 import net.runelite.client.plugins.tscripts.TScriptsPlugin;
-import net.runelite.client.plugins.tscripts.api.library.TDelay;
+import net.runelite.client.plugins.tscripts.runtime.ScriptCancelledException;
+import net.runelite.client.plugins.tscripts.sevices.ActionPacer;
 import net.runelite.client.plugins.tscripts.types.*;
 import net.runelite.client.plugins.tscripts.adapter.models.method.MethodCall;
 import net.runelite.client.plugins.tscripts.util.Logging;
@@ -44,39 +45,61 @@ public class MethodManager
     }
 
     /**
-     * Calls a method
+     * Resolves a builtin by name
+     * @param name the name of the method
+     * @return the method, or null if there is no builtin with that name
+     */
+    public MethodDefinition resolve(String name)
+    {
+        return methods.get(name.toLowerCase());
+    }
+
+    /**
+     * Calls a method, resolving it by name
      * @param methodCall the method call
      * @return the result of the method
      */
     public Object call(MethodCall methodCall)
+    {
+        MethodDefinition method = resolve(methodCall.getName());
+        if (method == null)
+        {
+            Logging.errorLog(new NotImplementedException("Method " + methodCall.getName() + " not found"));
+            return "null";
+        }
+        return call(method, methodCall);
+    }
+
+    /**
+     * Calls an already resolved method
+     * @param method the method definition
+     * @param methodCall the method call with evaluated arguments
+     * @return the result of the method
+     */
+    public Object call(MethodDefinition method, MethodCall methodCall)
     {
         Object out = null;
         try
         {
-            if (methods.containsKey(methodCall.getName().toLowerCase()))
+            if (!shouldProcess(method))
+                return "null";
+            if (method.getKind() == MethodKind.ACTION)
+                ActionPacer.get().pace();
+            out = method.getFunction().apply(methodCall);
+            if(methodCall.isNegate() && out instanceof Boolean)
             {
-                MethodDefinition method = methods.getOrDefault(methodCall.getName().toLowerCase(), null);
-                if (method == null || !shouldProcess(method))
-                    return "null";
-                out = method.getFunction().apply(methodCall);
-                if(methodCall.isNegate() && out instanceof Boolean)
-                {
-                    out = !(boolean) out;
-                }
-            }
-            else
-            {
-                Logging.errorLog(new NotImplementedException("Method " + methodCall.getName() + " not found"));
+                out = !(boolean) out;
             }
         }
+        catch(ScriptCancelledException e)
+        {
+            throw e;
+        }
         catch(Exception e)
         {
             Logging.errorLog(e);
         }
 
-        //bc menuactions
-        TDelay.sleep(20);
-
         return out == null ? "null" : out;
     }
 
@@ -9,6 +9,7 @@ import net.runelite.client.plugins.tscripts.api.library.TInventory;
 import net.runelite.client.plugins.tscripts.api.library.TWorldPoint;
 import net.runelite.client.plugins.tscripts.types.GroupDefinition;
 import net.runelite.client.plugins.tscripts.types.MethodDefinition;
+import net.runelite.client.plugins.tscripts.types.MethodKind;
 import net.runelite.client.plugins.tscripts.types.Pair;
 import net.runelite.client.plugins.tscripts.types.Type;
 import net.unethicalite.client.Static;
@@ -79,19 +80,19 @@ public class GDelay implements GroupDefinition
                 function ->
                 {
                     int count = TInventory.count(function.getArgs());
-                    int current = count;
-                    while (count == current)
-                    {
+                    TDelay.waitUntil(() -> {
                         if(!Static.getClient().getGameState().equals(GameState.LOGGED_IN) && !Static.getClient().getGameState().equals(GameState.LOADING) && !Static.getClient().getGameState().equals(GameState.HOPPING))
                         {
-                            return;
+                            return true;
                         }
-                        TDelay.tick(1);
-                        count = TInventory.count(function.getArgs());
-                    }
+                        return TInventory.count(function.getArgs()) != count;
+                    });
                 },
                 "Pauses script until th inventory has gained one of the chosen item(s)"
         );
+
+        //waits never send input, so they skip action pacing
+        methods.forEach(method -> method.setKind(MethodKind.QUERY));
         return methods;
     }
 }
@@ -27,15 +27,15 @@ public class GGame implements GroupDefinition
         addMethod(methods, "getVarbit", Type.INT, ImmutableMap.of(0, Pair.of("id", Type.INT)),
                 function -> TGame.invoke(() -> Static.getClient().getVarbitValue(Static.getClient().getVarps(), function.getArg(0, manager))),
                 "fetches a varbit value"
-        );
+        ).setClientThread(true);
         addMethod(methods, "getVarPlayer", Type.INT, ImmutableMap.of(0, Pair.of("id", Type.INT)),
                 function -> TGame.invoke(() -> Static.getClient().getVarpValue(Static.getClient().getVarps(),function.getArg(0, manager))),
                 "fetches a varplayer value"
-        );
+        ).setClientThread(true);
         addMethod(methods, "getGameState", Type.INT, ImmutableMap.of(),
                 function -> TGame.invoke(Static.getClient().getGameState()::getState),
                 "fetches the game state", false
-        );
+        ).setClientThread(true);
         addMethod(methods, "setUsername", ImmutableMap.of(0, Pair.of("username", Type.STRING)),
                 function -> Static.getClientThread().invoke(() -> Static.getClient().setUsername(function.getArg(0, manager))),
                 "sets the username", false
@@ -6,6 +6,7 @@ import net.runelite.client.plugins.tscripts.api.enums.GrandExchangeSlot;
 import net.runelite.client.plugins.tscripts.api.library.TGrandExchange;
 import net.runelite.client.plugins.tscripts.types.GroupDefinition;
 import net.runelite.client.plugins.tscripts.types.MethodDefinition;
+import net.runelite.client.plugins.tscripts.types.MethodKind;
 import net.runelite.client.plugins.tscripts.types.Pair;
 import net.runelite.client.plugins.tscripts.types.Type;
 import java.util.ArrayList;
@@ -44,7 +45,7 @@ public class GGrandExchange implements GroupDefinition {
                 "Purchase an item from the grand exchange. If price is -1, it will \n" +
                         "just bump price until it buys and collect for you. otherwise will \n" +
                         "return the slot number."
-        );
+        ).setKind(MethodKind.ACTION);
 
         addMethod(methods, "sellGE", Type.INT,
                 ImmutableMap.of(
@@ -67,7 +68,7 @@ public class GGrandExchange implements GroupDefinition {
                 "Purchase an item from the grand exchange. If price is -1, it will \n" +
                          "just bump price until it sells and collect for you. otherwise will \n" +
                         "return the slot number."
-        );
+        ).setKind(MethodKind.ACTION);
 
         addMethod(methods, "checkSlotGE", Type.BOOL,
                 ImmutableMap.of(
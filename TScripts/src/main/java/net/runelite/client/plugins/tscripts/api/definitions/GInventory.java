@@ -36,17 +36,17 @@ public class GInventory implements GroupDefinition
                     {
                         if (object instanceof Integer)
                         {
-                            if (Inventory.contains((int) object))
+                            if (TInventory.contains((int) object))
                                 return true;
                         }
                         else if (object instanceof String)
                         {
-                            if (Inventory.contains((String) object))
+                            if (TInventory.contains((String) object))
                                 return true;
                         }
                         else if (object instanceof Item)
                         {
-                            if (Inventory.contains(((Item) object).getName()))
+                            if (TInventory.contains(((Item) object).getName()))
                                 return true;
                         }
                     }
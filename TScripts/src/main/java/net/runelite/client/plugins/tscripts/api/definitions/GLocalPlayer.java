@@ -76,7 +76,7 @@ public class GLocalPlayer implements GroupDefinition
                 ImmutableMap.of(),
                 function -> TGame.invoke(() -> Static.getClient().getVarpValue(173)) == 1,
                 "Returns true if run is enabled"
-        );
+        ).setClientThread(true);
         addMethod(methods, "getInteracting", Type.OBJECT,
                 ImmutableMap.of(), function ->
                 {
@@ -95,12 +95,12 @@ public class GLocalPlayer implements GroupDefinition
                 ImmutableMap.of(),
                 function -> TGame.invoke(() -> Static.getClient().getVarpValue(VarPlayer.SPECIAL_ATTACK_PERCENT)),
                 "Gets special attack percent"
-        );
+        ).setClientThread(true);
         addMethod(methods, "isSpecialAttackEnabled", Type.INT,
                 ImmutableMap.of(),
                 function -> TGame.invoke(() -> Static.getClient().getVarpValue(VarPlayer.SPECIAL_ATTACK_ENABLED)) == 1,
                 "Returns true if special attack is enabled"
-        );
+        ).setClientThread(true);
         return methods;
     }
 }
@@ -5,9 +5,11 @@ import net.runelite.api.ChatMessageType;
 import net.runelite.api.GameState;
 import net.runelite.client.plugins.tscripts.api.MethodManager;
 import net.runelite.client.plugins.tscripts.api.library.TDelay;
+import net.runelite.client.plugins.tscripts.runtime.ScriptScheduler;
 import net.runelite.client.plugins.tscripts.sevices.cache.GameCache;
 import net.runelite.client.plugins.tscripts.types.GroupDefinition;
 import net.runelite.client.plugins.tscripts.types.MethodDefinition;
+import net.runelite.client.plugins.tscripts.types.MethodKind;
 import net.runelite.client.plugins.tscripts.types.Pair;
 import net.runelite.client.plugins.tscripts.types.Type;
 import net.runelite.client.plugins.tscripts.util.Logging;
@@ -64,7 +66,7 @@ public class GMisc implements GroupDefinition
                             Static.getClient().addChatMessage(ChatMessageType.GAMEMESSAGE, msg, msg, "", true);
                         Logging.logToEditor(msg, Color.WHITE);
                     });
-                }, "Prints the arguments to the console and chatbox", false);
+                }, "Prints the arguments to the console and chatbox", false).setKind(MethodKind.QUERY);
         addMethod(methods, "rand", Type.INT,
                 ImmutableMap.of(0, Pair.of("args", Type.VARARGS)),
                 function ->
@@ -89,6 +91,20 @@ public class GMisc implements GroupDefinition
                 function -> GameCache.get().getTickCount(),
                 "gets the game tick count since login", false
         );
+        addMethod(methods, "getSnapshotTick", Type.INT,
+                ImmutableMap.of(),
+                function -> GameCache.get().getSnapshot().getTick(),
+                "gets the tick count the cached npcs, players and objects were last updated on", false
+        );
+        addMethod(methods, "getClientThreadHops", Type.INT,
+                ImmutableMap.of(),
+                function ->
+                {
+                    ScriptScheduler.Stats stats = ScriptScheduler.current();
+                    return stats == null ? 0 : stats.getHopsLastTick();
+                },
+                "gets how many times this script waited on the client thread during the last game tick", false
+        );
         addMethod(methods, "array", Type.OBJECT,
                 ImmutableMap.of(
                         0, Pair.of("values", Type.VARARGS)
@@ -112,7 +128,7 @@ public class GMisc implements GroupDefinition
                 ),
                 function -> {},
                 "Evaluates the code.", false
-        );
+        ).setKind(MethodKind.QUERY);
 
         return methods;
     }
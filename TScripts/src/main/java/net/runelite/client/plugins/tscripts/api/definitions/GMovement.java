@@ -9,6 +9,7 @@ import net.runelite.client.plugins.tscripts.api.MethodManager;
 import net.runelite.client.plugins.tscripts.api.library.TDelay;
 import net.runelite.client.plugins.tscripts.api.library.TMovement;
 import net.runelite.client.plugins.tscripts.api.library.TWorldPoint;
+import net.runelite.client.plugins.tscripts.runtime.ScriptCancelledException;
 import net.runelite.client.plugins.tscripts.types.GroupDefinition;
 import net.runelite.client.plugins.tscripts.types.MethodDefinition;
 import net.runelite.client.plugins.tscripts.types.Pair;
@@ -75,10 +76,13 @@ public class GMovement implements GroupDefinition
                         while(!destination.equals(Static.getClient().getLocalPlayer().getWorldLocation()))
                         {
                             Movement.walkTo(destination);
-                            if(!TDelay.tick(Rand.nextInt(1, 3)))
-                                break;
+                            TDelay.tick(Rand.nextInt(1, 3));
                         }
                     }
+                    catch (ScriptCancelledException ex)
+                    {
+                        throw ex;
+                    }
                     catch (Exception ex)
                     {
                         Logging.errorLog(ex);
@@ -109,8 +109,8 @@ public class GPlayer implements GroupDefinition
                 function ->
                 {
                     int distance = function.getArg(0, manager);
-                    return TPlayer.getPlayer(TPlayer.withinDistance(distance));
-                }, "get a random player within a distance");
+                    return TPlayer.getPlayerWithin(distance);
+                }, "get the nearest player within a distance, ties go to the player listed first");
 
         addMethod(methods, "isPlayerWithin", Type.BOOL,
                 ImmutableMap.of(
@@ -119,7 +119,7 @@ public class GPlayer implements GroupDefinition
                 function ->
                 {
                     int distance = function.getArg(0, manager);
-                    Player player = TPlayer.getPlayer(TPlayer.withinDistance(distance));
+                    Player player = TPlayer.getPlayerWithin(distance);
                     if(player == null)
                     {
                         return false;
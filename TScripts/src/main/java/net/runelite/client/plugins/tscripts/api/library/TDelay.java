@@ -2,49 +2,76 @@ package net.runelite.client.plugins.tscripts.api.library;
 
 import net.runelite.api.GameState;
 import net.runelite.api.Player;
-import net.runelite.client.plugins.tscripts.runtime.Runtime;
+import net.runelite.client.plugins.tscripts.runtime.CancellationToken;
+import net.runelite.client.plugins.tscripts.runtime.ScriptCancelledException;
 import net.runelite.client.plugins.tscripts.sevices.cache.GameCache;
-import net.runelite.client.plugins.tscripts.util.Logging;
 import net.runelite.client.plugins.tscripts.util.ThreadPool;
 import net.unethicalite.client.Static;
 
+import java.util.function.BooleanSupplier;
+
 public class TDelay
 {
+    /**
+     * Sleeps, ending early with {@link ScriptCancelledException} if the script is killed.
+     *
+     * @param ms The time to sleep in milliseconds.
+     */
     public static void sleep(long ms)
     {
-        try
-        {
-            Thread.sleep(ms);
-        }
-        catch (Exception ex) {
-            Logging.errorLog(ex);
-        }
+        CancellationToken.current().sleep(ms);
     }
 
+    /**
+     * Waits for a number of game ticks, ending early with {@link ScriptCancelledException} if the script is killed.
+     *
+     * @param length The number of ticks.
+     * @return True, callers written against the old interrupt flag may still check it.
+     */
     public static boolean tick(int length)
     {
-        int original = GameCache.get().getTickCount();
-        int next = GameCache.get().getTickCount() + length;
-        while(GameCache.get().getTickCount() < next && GameCache.get().getTickCount() >= original)
+        GameCache cache = GameCache.get();
+        int original = cache.getTickCount();
+        int next = original + length;
+        return waitUntil(() -> {
+            int current = cache.getTickCount();
+            return current >= next || current < original;
+        });
+    }
+
+    /**
+     * Parks until a condition holds. The condition is checked again on every game tick, game state change
+     * and inventory change.
+     *
+     * @param condition The condition.
+     * @return True once the condition holds.
+     * @throws ScriptCancelledException If the script is killed first.
+     */
+    public static boolean waitUntil(BooleanSupplier condition)
+    {
+        GameCache cache = GameCache.get();
+        CancellationToken token = CancellationToken.current();
+        while(true)
         {
-            if(Runtime.isInterrupted())
-                return false;
-            sleep(50);
+            int signal = cache.getSignal();
+            if(condition.getAsBoolean())
+                return true;
+            token.throwIfCancelled();
+            cache.await(signal);
         }
-        return true;
     }
 
     public static void waitUntilIdle()
     {
         tick(1);
         Player player = Static.getClient().getLocalPlayer();
-        while(!TGame.invoke(player::isIdle) && tick(1));
+        waitUntil(() -> TGame.invoke(player::isIdle));
     }
 
     public static void waitUntilOnTile(int worldX, int worldY)
     {
         Player player = Static.getClient().getLocalPlayer();
-        while((player.getWorldLocation().getX() != worldX || player.getWorldLocation().getY() != worldY) && tick(1));
+        waitUntil(() -> player.getWorldLocation().getX() == worldX && player.getWorldLocation().getY() == worldY);
     }
 
     public static void invokeLater(Runnable runnable, int ticks)
@@ -1,6 +1,7 @@
 package net.runelite.client.plugins.tscripts.api.library;
 
 import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.plugins.tscripts.runtime.ScriptScheduler;
 import net.unethicalite.client.Static;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
@@ -19,6 +20,7 @@ public class TGame
             CompletableFuture<T> future = new CompletableFuture<>();
             Runnable runnable = () -> future.complete(supplier.get());
             Static.getClientThread().invoke(runnable);
+            ScriptScheduler.recordHop();
             return future.join();
         }
         else
@@ -27,6 +29,25 @@ public class TGame
         }
     }
 
+    /**
+     * Runs several reads in one client thread task, so they cost a single round trip and all see the same frame.
+     *
+     * @param suppliers The reads.
+     * @return The results in the same order, or null if the client is not available.
+     */
+    public static Object[] invokeAll(Supplier<?>... suppliers)
+    {
+        return invoke(() ->
+        {
+            Object[] results = new Object[suppliers.length];
+            for(int i = 0; i < suppliers.length; i++)
+            {
+                results[i] = suppliers[i].get();
+            }
+            return results;
+        });
+    }
+
     public static void invoke(Runnable runnable)
     {
         Static.getClientThread().invoke(runnable);
@@ -1,7 +1,10 @@
 package net.runelite.client.plugins.tscripts.api.library;
 
 import net.runelite.api.TileItem;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.tscripts.sevices.cache.GameCache;
 import net.unethicalite.api.entities.TileItems;
+import net.unethicalite.client.Static;
 
 import java.util.Arrays;
 
@@ -26,17 +29,16 @@ public class TGroundItem
         {
             return (TileItem) identifier;
         }
+        WorldPoint location = Static.getClient().getLocalPlayer().getWorldLocation();
         if(identifier instanceof Integer)
         {
-            return TileItems.query()
-                    .filter(o -> o.getId() == (int) identifier)
-                    .results().nearest();
+            return GameCache.get().getSnapshot().getItemGrid()
+                    .nearest(location, Integer.MAX_VALUE, o -> o.getId() == (int) identifier);
         }
         else if (identifier instanceof String)
         {
-            return TileItems.query()
-                    .filter(o -> o.getName().equals(identifier))
-                    .results().nearest();
+            return GameCache.get().getSnapshot().getItemGrid()
+                    .nearest(location, Integer.MAX_VALUE, o -> identifier.equals(o.getName()));
         }
         return null;
     }
@@ -5,6 +5,7 @@ import net.runelite.api.Item;
 import net.runelite.api.ItemContainer;
 import net.runelite.api.TileObject;
 import net.runelite.api.widgets.WidgetInfo;
+import net.runelite.client.plugins.tscripts.sevices.ItemContainerQuery;
 import net.unethicalite.api.items.Inventory;
 import net.unethicalite.client.Static;
 
@@ -70,41 +71,22 @@ public class TInventory
 
     public static int count(int itemId)
     {
-        Integer value = TGame.invoke(() -> {
-            ItemContainer inventory = Static.getClient().getItemContainer(InventoryID.INVENTORY);
-            if(inventory == null)
-                return 0;
-            int count = 0;
-            for(Item item : inventory.getItems())
-            {
-                if(item != null && item.getId() == itemId)
-                {
-                    count += item.getQuantity();
-                }
-            }
-            return count;
-        });
-        return value == null ? 0 : value;
+        return new ItemContainerQuery<>(InventoryID.INVENTORY).withId(itemId).getQuantity();
     }
 
     public static int count(String itemName)
     {
-        Integer value = TGame.invoke(() ->
-        {
-            ItemContainer inventory = Static.getClient().getItemContainer(InventoryID.INVENTORY);
-            if(inventory == null)
-                return 0;
-            int count = 0;
-            for(Item item : inventory.getItems())
-            {
-                if(item != null && item.getName().contains(itemName))
-                {
-                    count += item.getQuantity();
-                }
-            }
-            return count;
-        });
-        return value == null ? 0 : value;
+        return new ItemContainerQuery<>(InventoryID.INVENTORY).withPartialName(itemName).getQuantity();
+    }
+
+    public static boolean contains(int itemId)
+    {
+        return new ItemContainerQuery<>(InventoryID.INVENTORY).withId(itemId).findFirst() != null;
+    }
+
+    public static boolean contains(String itemName)
+    {
+        return new ItemContainerQuery<>(InventoryID.INVENTORY).withName(itemName).findFirst() != null;
     }
 
     public static Item getItem(Object identifier)
@@ -139,22 +121,6 @@ public class TInventory
 
     public static int emptySlots()
     {
-        Integer value = TGame.invoke(() -> {
-            ItemContainer inventory = Static.getClient().getItemContainer(InventoryID.INVENTORY);
-            if(inventory == null)
-                return 0;
-            int count = 0;
-
-            for(Item item : inventory.getItems())
-            {
-                if(item != null && item.getId() != -1 && item.getQuantity() != 0)
-                {
-                    count++;
-                }
-            }
-
-            return 28 - count;
-        });
-        return value == null ? 0 : value;
+        return 28 - new ItemContainerQuery<>(InventoryID.INVENTORY).keepIf(item -> item.getQuantity() != 0).collect().size();
     }
 }
@@ -1,10 +1,13 @@
 package net.runelite.client.plugins.tscripts.api.library;
 
 import net.runelite.api.NPC;
+import net.runelite.api.coords.WorldPoint;
 import net.runelite.api.queries.NPCQuery;
-import net.unethicalite.api.entities.NPCs;
+import net.runelite.client.plugins.tscripts.sevices.cache.GameCache;
 import net.unethicalite.client.Static;
 
+import java.util.function.Predicate;
+
 public class TNpc
 {
     public static NPC getNpc(Object identifier)
@@ -21,7 +24,7 @@ public class TNpc
                     .filter(n -> !n.isDead())
                     .result(Static.getClient())
                     .nearestTo(Static.getClient().getLocalPlayer());*/
-            npc = NPCs.getNearest(n -> n.getId() == (int)identifier && !n.isDead());
+            npc = nearest(n -> n.getId() == (int)identifier && !n.isDead());
         }
         else if (identifier instanceof String)
         {
@@ -30,8 +33,20 @@ public class TNpc
                     .filter(n -> !n.isDead())
                     .result(Static.getClient())
                     .nearestTo(Static.getClient().getLocalPlayer());*/
-            npc = NPCs.getNearest(n -> n.getName().equals(identifier) && !n.isDead());
+            npc = nearest(n -> identifier.equals(n.getName()) && !n.isDead());
         }
         return npc;
     }
+
+    /**
+     * Finds the nearest cached NPC on the local player's plane.
+     *
+     * @param filter The filter the NPC must pass.
+     * @return The NPC, or null if none pass.
+     */
+    public static NPC nearest(Predicate<NPC> filter)
+    {
+        WorldPoint location = Static.getClient().getLocalPlayer().getWorldLocation();
+        return GameCache.get().getSnapshot().getNpcGrid().nearest(location, Integer.MAX_VALUE, filter);
+    }
 }
@@ -44,15 +44,11 @@ public class TObjects
         }
         if(identifier instanceof Integer)
         {
-            return GameCache.get().objectStream()
-                    .filter(o -> o.getId() == (int) identifier)
-                    .min(Compare.DISTANCE).orElse(null);
+            return Compare.nearest(GameCache.get().objectsWithId((int) identifier), o -> true);
         }
         else if (identifier instanceof String)
         {
-            return GameCache.get().objectStream()
-                    .filter(o -> o.getName().equals(identifier))
-                    .min(Compare.DISTANCE).orElse(null);
+            return Compare.nearest(GameCache.get().objectsNamed((String) identifier), o -> o.getName().equals(identifier));
         }
         return null;
     }
@@ -64,17 +60,14 @@ public class TObjects
             TileObject object = (TileObject) identifier;
             return object.distanceTo(Static.getClient().getLocalPlayer()) <= distance ? object : null;
         }
+        WorldPoint location = Static.getClient().getLocalPlayer().getWorldLocation();
         if(identifier instanceof Integer)
         {
-            return GameCache.get().objectStream()
-                    .filter(o -> o.getId() == (int) identifier && o.distanceTo(Static.getClient().getLocalPlayer()) <= distance)
-                    .min(Compare.DISTANCE).orElse(null);
+            return Compare.nearestWithin(GameCache.get().objectsWithId((int) identifier), location, distance, o -> true);
         }
         else if (identifier instanceof String)
         {
-            return GameCache.get().objectStream()
-                    .filter(o -> o.getName().equals(identifier) && o.distanceTo(Static.getClient().getLocalPlayer()) <= distance)
-                    .min(Compare.DISTANCE).orElse(null);
+            return Compare.nearestWithin(GameCache.get().objectsNamed((String) identifier), location, distance, o -> identifier.equals(o.getName()));
         }
         return null;
     }
@@ -83,14 +76,14 @@ public class TObjects
     {
         if(identifier instanceof Integer)
         {
-            return GameCache.get().objectStream()
-                    .filter(o -> o.getId() == (int) identifier && o.getWorldLocation().getX() == x && o.getWorldLocation().getY() == y)
+            return GameCache.get().objectsAt(x, y).stream()
+                    .filter(o -> o.getId() == (int) identifier)
                     .findFirst().orElse(null);
         }
         else if (identifier instanceof String)
         {
-            return GameCache.get().objectStream()
-                    .filter(o -> o.getName().equals(identifier) && o.getWorldLocation().getX() == x && o.getWorldLocation().getY() == y)
+            return GameCache.get().objectsAt(x, y).stream()
+                    .filter(o -> o.getName().equals(identifier))
                     .findFirst().orElse(null);
         }
         return null;
@@ -98,8 +91,8 @@ public class TObjects
 
     public static TileObject getOpenableAt(int x, int y)
     {
-        return GameCache.get().objectStream()
-                .filter(o -> (o.getName().toLowerCase().contains("door") || o.getName().toLowerCase().contains("gate")) && o.hasAction("Open") && o.getWorldLocation().getX() == x && o.getWorldLocation().getY() == y)
+        return GameCache.get().objectsAt(x, y).stream()
+                .filter(o -> (o.getName().toLowerCase().contains("door") || o.getName().toLowerCase().contains("gate")) && o.hasAction("Open"))
                 .findFirst().orElse(null);
     }
 }
@@ -3,6 +3,7 @@ package net.runelite.client.plugins.tscripts.api.library;
 import net.runelite.api.packets.ClientPacket;
 import net.runelite.api.widgets.WidgetInfo;
 import net.runelite.client.plugins.tscripts.types.MapEntry;
+import net.runelite.client.plugins.tscripts.util.packets.PacketBuilder;
 import net.runelite.client.plugins.tscripts.util.packets.PacketMapReader;
 import net.unethicalite.client.Static;
 import java.util.HashMap;
@@ -13,6 +14,30 @@ import java.util.Map;
  */
 public class TPackets
 {
+    private static final PacketBuilder MOUSE_CLICK = PacketBuilder.of("OP_MOUSE_CLICK", "mouseInfo", "mouseX", "mouseY");
+    private static final PacketBuilder WALK = PacketBuilder.of("OP_WALK", "worldX", "worldY", "ctrl");
+    private static final PacketBuilder[] WIDGET_ACTION = PacketBuilder.family("OP_WIDGET_ACTION_", 10, "widgetId", "childId", "itemId");
+    private static final PacketBuilder RESUME_COUNTDIALOG = PacketBuilder.of("OP_RESUME_COUNTDIALOG", "count");
+    private static final PacketBuilder RESUME_PAUSEBUTTON = PacketBuilder.of("OP_RESUME_PAUSEBUTTON", "widgetID", "optionIndex");
+    private static final PacketBuilder RESUME_OBJDIALOG = PacketBuilder.of("OP_RESUME_OBJDIALOG", "id");
+    private static final PacketBuilder[] PLAYER_ACTION = PacketBuilder.family("OP_PLAYER_ACTION_", 8, "identifier", "ctrl");
+    private static final PacketBuilder[] NPC_ACTION = PacketBuilder.family("OP_NPC_ACTION_", 5, "identifier", "ctrl");
+    private static final PacketBuilder[] GAME_OBJECT_ACTION = PacketBuilder.family("OP_GAME_OBJECT_ACTION_", 5, "identifier", "ctrl", "worldX", "worldY");
+    private static final PacketBuilder[] GROUND_ITEM_ACTION = PacketBuilder.family("OP_GROUND_ITEM_ACTION_", 5, "identifier", "ctrl", "worldX", "worldY");
+    private static final PacketBuilder WIDGET_TARGET_ON_GAME_OBJECT = PacketBuilder.of("OP_WIDGET_TARGET_ON_GAME_OBJECT", "selectedWidgetId", "itemId", "slot", "identifier", "worldX", "worldY", "ctrl");
+    private static final PacketBuilder WIDGET_TARGET_ON_GROUND_ITEM = PacketBuilder.of("OP_WIDGET_TARGET_ON_GROUND_ITEM", "selectedWidgetId", "itemId", "slot", "identifier", "worldX", "worldY", "ctrl");
+    private static final PacketBuilder WIDGET_TARGET_ON_NPC = PacketBuilder.of("OP_WIDGET_TARGET_ON_NPC", "selectedWidgetId", "itemId", "slot", "identifier", "ctrl");
+    private static final PacketBuilder WIDGET_TARGET_ON_PLAYER = PacketBuilder.of("OP_WIDGET_TARGET_ON_PLAYER", "selectedWidgetId", "itemId", "slot", "identifier", "ctrl");
+    private static final PacketBuilder WIDGET_TARGET_ON_WIDGET = PacketBuilder.of("OP_WIDGET_TARGET_ON_WIDGET", "selectedWidgetId", "itemId", "slot", "targetWidgetID", "identifier2", "param0");
+    private static final PacketBuilder INTERFACE_CLOSE = PacketBuilder.of("OP_INTERFACE_CLOSE");
+
+    private static PacketBuilder member(PacketBuilder[] family, int type)
+    {
+        if(type < 0 || type >= family.length || !family[type].exists())
+            return null;
+        return family[type];
+    }
+
     public static void sendClickPacket()
     {
         sendClickPacket(-1, -1);
@@ -33,38 +58,22 @@ public class TPackets
         Static.getClient().setClientMouseLastPressedMillis(Static.getClient().getMouseLastPressedMillis());
         int mouseInfo = (mousePressedTime << 1);
 
-        MapEntry entry = PacketMapReader.get("OP_MOUSE_CLICK");
-        Map<String,Object> args = new HashMap<>();
-        args.put("mouseInfo", mouseInfo);
-        args.put("mouseX", mouseX);
-        args.put("mouseY", mouseY);
-
-        PacketMapReader.createBuffer(entry, args).send(Static.getClientPacket().EVENT_MOUSE_CLICK());
+        MOUSE_CLICK.send(Static.getClientPacket().EVENT_MOUSE_CLICK(), mouseInfo, mouseX, mouseY);
     }
 
     public static void sendWalkPacket(int worldX, int worldY, boolean ctrl)
     {
-        MapEntry entry = PacketMapReader.get("OP_WALK");
-        Map<String,Object> args = new HashMap<>();
-        args.put("worldX", worldX);
-        args.put("worldY", worldY);
-        args.put("ctrl", ctrl ? 1 : 0);
-        
-        PacketMapReader.createBuffer(entry, args).send(Static.getClientPacket().MOVE_GAMECLICK());
+        WALK.send(Static.getClientPacket().MOVE_GAMECLICK(), worldX, worldY, ctrl ? 1 : 0);
     }
     
     public static void sendWidgetActionPacket(int type, int widgetId, int childId, int itemId)
     {
-        MapEntry entry = PacketMapReader.get("OP_WIDGET_ACTION_" + type);
-        if(entry == null)
+        PacketBuilder builder = member(WIDGET_ACTION, type);
+        if(builder == null)
         {
             System.err.println("Packets::sendWidgetActionPacket invalid type [" + type + "]");
             return;
         }
-        Map<String,Object> args = new HashMap<>();
-        args.put("widgetId", widgetId);
-        args.put("childId", childId);
-        args.put("itemId", itemId);
         
         ClientPacket clientPacket = null;
         
@@ -104,32 +113,21 @@ public class TPackets
         if(clientPacket == null)
             return;
 
-        PacketMapReader.createBuffer(entry, args).send(clientPacket);
+        builder.send(clientPacket, widgetId, childId, itemId);
     }
     
     public static void sendResumeCountDialoguePacket(int count)
     {
-        MapEntry entry = PacketMapReader.get("OP_RESUME_COUNTDIALOG");
-        Map<String,Object> args = new HashMap<>();
-        args.put("count", count);
-
-        PacketMapReader.createBuffer(entry, args).send(Static.getClientPacket().RESUME_COUNTDIALOG());
+        RESUME_COUNTDIALOG.send(Static.getClientPacket().RESUME_COUNTDIALOG(), count);
     }
     
     public static void sendResumePauseWidgetPacket(int widgetID, int optionIndex)
     {
-        MapEntry entry = PacketMapReader.get("OP_RESUME_PAUSEBUTTON");
-        Map<String,Object> args = new HashMap<>();
-        args.put("widgetID", widgetID);
-        args.put("optionIndex", optionIndex);
-        PacketMapReader.createBuffer(entry, args).send(Static.getClientPacket().RESUME_PAUSEBUTTON());
+        RESUME_PAUSEBUTTON.send(Static.getClientPacket().RESUME_PAUSEBUTTON(), widgetID, optionIndex);
     }
     
     public static void sendResumeObjectDialoguePacket(int id) {
-        MapEntry entry = PacketMapReader.get("OP_RESUME_OBJDIALOG");
-        Map<String,Object> args = new HashMap<>();
-        args.put("id", id);
-        PacketMapReader.createBuffer(entry, args).send(Static.getClientPacket().RESUME_OBJDIALOG());
+        RESUME_OBJDIALOG.send(Static.getClientPacket().RESUME_OBJDIALOG(), id);
     }
     
     public static void sendResumeNameDialoguePacket(String text) {
@@ -142,16 +140,13 @@ public class TPackets
     
     public static void sendPlayerActionPacket(int type, int playerIndex, boolean ctrl)
     {
-        MapEntry entry = PacketMapReader.get("OP_PLAYER_ACTION_" + type);
-        if(entry == null)
+        PacketBuilder builder = member(PLAYER_ACTION, type);
+        if(builder == null)
         {
             System.err.println("Packets::sendPlayerActionPacket invalid type [" + type + "]");
             return;
         }
 
-        Map<String,Object> args = new HashMap<>();
-        args.put("identifier", playerIndex);
-        args.put("ctrl", ctrl ? 1 : 0);
 
         ClientPacket clientPacket = null;
 
@@ -185,20 +180,17 @@ public class TPackets
         if(clientPacket == null)
             return;
 
-        PacketMapReader.createBuffer(entry, args).send(clientPacket);
+        builder.send(clientPacket, playerIndex, ctrl ? 1 : 0);
     }
     
     public static void sendNpcActionPacket(int type, int npcIndex, boolean ctrl)
     {
-        MapEntry entry = PacketMapReader.get("OP_NPC_ACTION_" + type);
-        if(entry == null)
+        PacketBuilder builder = member(NPC_ACTION, type);
+        if(builder == null)
         {
             System.err.println("Packets::sendNpcActionPacket invalid type [" + type + "]");
             return;
         }
-        Map<String,Object> args = new HashMap<>();
-        args.put("identifier", npcIndex);
-        args.put("ctrl", ctrl ? 1 : 0);
 
         ClientPacket clientPacket = null;
         switch (type)
@@ -222,23 +214,18 @@ public class TPackets
         if(clientPacket == null)
             return;
 
-        PacketMapReader.createBuffer(entry, args).send(clientPacket);
+        builder.send(clientPacket, npcIndex, ctrl ? 1 : 0);
     }
 
     public static void sendObjectActionPacket(int type, int identifier, int worldX, int worldY, boolean ctrl)
     {
-        MapEntry entry = PacketMapReader.get("OP_GAME_OBJECT_ACTION_" + type);
-        if(entry == null)
+        PacketBuilder builder = member(GAME_OBJECT_ACTION, type);
+        if(builder == null)
         {
             System.err.println("Packets::sendObjectActionPacket invalid type [" + type + "]");
             return;
         }
 
-        Map<String,Object> args = new HashMap<>();
-        args.put("identifier", identifier);
-        args.put("ctrl", ctrl ? 1 : 0);
-        args.put("worldX", worldX);
-        args.put("worldY", worldY);
 
         ClientPacket clientPacket = null;
         switch (type)
@@ -262,23 +249,18 @@ public class TPackets
         if(clientPacket == null)
             return;
 
-        PacketMapReader.createBuffer(entry, args).send(clientPacket);
+        builder.send(clientPacket, identifier, ctrl ? 1 : 0, worldX, worldY);
     }
 
     public static void sendGroundItemActionPacket(int type, int identifier, int worldX, int worldY, boolean ctrl)
     {
-        MapEntry entry = PacketMapReader.get("OP_GROUND_ITEM_ACTION_" + type);
-        if(entry == null)
+        PacketBuilder builder = member(GROUND_ITEM_ACTION, type);
+        if(builder == null)
         {
             System.err.println("Packets::sendGroundItemActionPacket invalid type [" + type + "]");
             return;
         }
 
-        Map<String,Object> args = new HashMap<>();
-        args.put("identifier", identifier);
-        args.put("ctrl", ctrl ? 1 : 0);
-        args.put("worldX", worldX);
-        args.put("worldY", worldY);
 
         ClientPacket clientPacket = null;
         switch (type)
@@ -302,79 +284,37 @@ public class TPackets
         if(clientPacket == null)
             return;
 
-        PacketMapReader.createBuffer(entry, args).send(clientPacket);
+        builder.send(clientPacket, identifier, ctrl ? 1 : 0, worldX, worldY);
     }
 
     public static void sendWidgetOnObjectPacket(int selectedWidgetId, int itemId, int slot, int objectID, int worldX, int worldY, boolean ctrl)
     {
-        MapEntry entry = PacketMapReader.get("OP_WIDGET_TARGET_ON_GAME_OBJECT");
-        Map<String,Object> args = new HashMap<>();
-        args.put("selectedWidgetId", selectedWidgetId);
-        args.put("itemId", itemId);
-        args.put("slot", slot);
-        args.put("identifier", objectID);
-        args.put("worldX", worldX);
-        args.put("worldY", worldY);
-        args.put("ctrl", ctrl ? 0 : 1);
-        PacketMapReader.createBuffer(entry, args).send(Static.getClientPacket().OPLOCT());
+        WIDGET_TARGET_ON_GAME_OBJECT.send(Static.getClientPacket().OPLOCT(), selectedWidgetId, itemId, slot, objectID, worldX, worldY, ctrl ? 0 : 1);
     }
 
     public static void sendWidgetOnGroundItemPacket(int selectedWidgetId, int itemId, int slot, int groundItemID, int worldX, int worldY, boolean ctrl)
     {
-        MapEntry entry = PacketMapReader.get("OP_WIDGET_TARGET_ON_GROUND_ITEM");
-        Map<String,Object> args = new HashMap<>();
-        args.put("selectedWidgetId", selectedWidgetId);
-        args.put("itemId", itemId);
-        args.put("slot", slot);
-        args.put("identifier", groundItemID);
-        args.put("worldX", worldX);
-        args.put("worldY", worldY);
-        args.put("ctrl", ctrl ? 0 : 1);
-        PacketMapReader.createBuffer(entry, args).send(Static.getClientPacket().OPOBJT());
+        WIDGET_TARGET_ON_GROUND_ITEM.send(Static.getClientPacket().OPOBJT(), selectedWidgetId, itemId, slot, groundItemID, worldX, worldY, ctrl ? 0 : 1);
     }
 
     public static void sendWidgetOnNpcPacket(int selectedWidgetId, int itemId, int slot, int npcIndex, boolean ctrl)
     {
-        MapEntry entry = PacketMapReader.get("OP_WIDGET_TARGET_ON_NPC");
-        Map<String,Object> args = new HashMap<>();
-        args.put("selectedWidgetId", selectedWidgetId);
-        args.put("itemId", itemId);
-        args.put("slot", slot);
-        args.put("identifier", npcIndex);
-        args.put("ctrl", ctrl ? 0 : 1);
-        PacketMapReader.createBuffer(entry, args).send(Static.getClientPacket().OPNPCT());
+        WIDGET_TARGET_ON_NPC.send(Static.getClientPacket().OPNPCT(), selectedWidgetId, itemId, slot, npcIndex, ctrl ? 0 : 1);
     }
 
     public static void sendWidgetOnPlayerPacket(int selectedWidgetId, int itemId, int slot, int playerIndex, boolean ctrl)
     {
-        MapEntry entry = PacketMapReader.get("OP_WIDGET_TARGET_ON_PLAYER");
-        Map<String,Object> args = new HashMap<>();
-        args.put("selectedWidgetId", selectedWidgetId);
-        args.put("itemId", itemId);
-        args.put("slot", slot);
-        args.put("identifier", playerIndex);
-        args.put("ctrl", ctrl ? 0 : 1);
-        PacketMapReader.createBuffer(entry, args).send(Static.getClientPacket().OPPLAYERT());
+        WIDGET_TARGET_ON_PLAYER.send(Static.getClientPacket().OPPLAYERT(), selectedWidgetId, itemId, slot, playerIndex, ctrl ? 0 : 1);
     }
 
     public static void sendWidgetOnWidgetPacket(int selectedWidgetId, int itemId, int slot, int targetWidgetId, int itemId2, int slot2)
     {
-        MapEntry entry = PacketMapReader.get("OP_WIDGET_TARGET_ON_WIDGET");
-        Map<String,Object> args = new HashMap<>();
-        args.put("selectedWidgetId", selectedWidgetId);
-        args.put("itemId", itemId);
-        args.put("slot", slot);
-        args.put("targetWidgetID", targetWidgetId);
-        args.put("identifier2", itemId2);
-        args.put("param0", slot2);
-        PacketMapReader.createBuffer(entry, args).send(Static.getClientPacket().IF_BUTTONT());
+        WIDGET_TARGET_ON_WIDGET.send(Static.getClientPacket().IF_BUTTONT(), selectedWidgetId, itemId, slot, targetWidgetId, itemId2, slot2);
     }
 
     public static void sendInterfaceClosePacket()
     {
-        MapEntry entry = PacketMapReader.get("OP_INTERFACE_CLOSE");
-        Map<String,Object> args = new HashMap<>();
-        PacketMapReader.createBuffer(entry, args).send(Static.getClientPacket().CLOSE_MODAL());
+        INTERFACE_CLOSE.send(Static.getClientPacket().CLOSE_MODAL());
     }
 
     public static void sendItemActionPacket(int slot, int id, int action)
@@ -1,6 +1,7 @@
 package net.runelite.client.plugins.tscripts.api.library;
 
 import net.runelite.api.Player;
+import net.runelite.client.plugins.tscripts.sevices.cache.GameCache;
 import net.unethicalite.api.entities.Players;
 import net.unethicalite.client.Static;
 
@@ -41,4 +42,19 @@ public class TPlayer
                 .filter(player -> !player.equals(Static.getClient().getLocalPlayer()))
                 .findFirst().orElse(null));
     }
+
+    /**
+     * Finds the nearest other cached player within a distance of the local player, on the same plane. Ties go to the
+     * player that comes first in the client's player list. This used to return whichever match came first in the
+     * list, regardless of distance.
+     *
+     * @param distance The distance in tiles along either axis.
+     * @return The player, or null if there is none.
+     */
+    public static Player getPlayerWithin(int distance)
+    {
+        Player local = Static.getClient().getLocalPlayer();
+        return GameCache.get().getSnapshot().getPlayerGrid()
+                .nearest(local.getWorldLocation(), distance, player -> !player.equals(local));
+    }
 }
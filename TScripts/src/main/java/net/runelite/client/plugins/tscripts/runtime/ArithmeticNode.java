@@ -0,0 +1,45 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+import net.runelite.client.plugins.tscripts.adapter.models.OperatorType;
+
+/**
+ * A compiled arithmetic operation, the counterpart of {@code Runtime.flushOperationExpression}.
+ * The result is always an int, so nested operations and integer operands are never boxed.
+ */
+public class ArithmeticNode implements IntNode
+{
+    private final ValueNode left;
+    private final IntNode leftInt;
+    private final OperatorType operator;
+    private final ValueNode right;
+    private final IntNode rightInt;
+
+    public ArithmeticNode(ValueNode left, OperatorType operator, ValueNode right)
+    {
+        this.left = left;
+        this.leftInt = left instanceof IntNode ? (IntNode) left : null;
+        this.operator = operator;
+        this.right = right;
+        this.rightInt = right instanceof IntNode ? (IntNode) right : null;
+    }
+
+    @Override
+    public Object eval(Runtime runtime)
+    {
+        return evalInt(runtime);
+    }
+
+    @Override
+    public boolean isInt(Runtime runtime)
+    {
+        return true;
+    }
+
+    @Override
+    public int evalInt(Runtime runtime)
+    {
+        int leftValue = leftInt != null ? leftInt.evalInt(runtime) : Runtime.toInt(left.eval(runtime));
+        int rightValue = rightInt != null ? rightInt.evalInt(runtime) : Runtime.toInt(right.eval(runtime));
+        return OperatorType.compute(leftValue, operator, rightValue);
+    }
+}
@@ -11,6 +11,7 @@ import java.util.Map;
 public class ArrayVariable
 {
     private final String name;
-    private final String scopeHash;
+    private final int scopeId;
+    private final int slot;
     private final Map<Object,Object> values = new HashMap<>();
 }
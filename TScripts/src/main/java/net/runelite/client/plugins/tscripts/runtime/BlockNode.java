@@ -0,0 +1,29 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+/**
+ * A compiled list of statements, the counterpart of {@code Runtime.processElements}.
+ */
+public class BlockNode
+{
+    private final ExecNode[] statements;
+
+    public BlockNode(ExecNode[] statements)
+    {
+        this.statements = statements;
+    }
+
+    /**
+     * Runs the statements in order, stopping on any control flow flag.
+     *
+     * @param runtime The runtime.
+     */
+    public void run(Runtime runtime)
+    {
+        for (ExecNode statement : statements)
+        {
+            statement.exec(runtime);
+            runtime.postFlags();
+            if (runtime.isInterrupting()) break;
+        }
+    }
+}
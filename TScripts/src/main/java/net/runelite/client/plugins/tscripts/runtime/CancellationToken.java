@@ -0,0 +1,120 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+import net.runelite.client.plugins.tscripts.sevices.cache.GameCache;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Tells a running script that it was killed.
+ * <p>
+ * Each run of a {@link Runtime} gets its own token, bound to the thread that runs it. Blocking calls check the
+ * token of the calling thread, and cancelling it wakes them right away. Once cancelled, every blocking call on the
+ * thread throws {@link ScriptCancelledException} instead of waiting, so nothing keeps running on a killed script.
+ * Threads that are not running a script see a token that is never cancelled.
+ */
+public class CancellationToken
+{
+    private static final CancellationToken NONE = new CancellationToken();
+    private static final ThreadLocal<CancellationToken> bound = new ThreadLocal<>();
+
+    private volatile boolean cancelled = false;
+
+    /**
+     * Gets the token of the calling thread.
+     *
+     * @return The token.
+     */
+    public static CancellationToken current()
+    {
+        CancellationToken token = bound.get();
+        return token == null ? NONE : token;
+    }
+
+    static void bind(CancellationToken token)
+    {
+        if(token == null)
+            bound.remove();
+        else
+            bound.set(token);
+    }
+
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    /**
+     * @throws ScriptCancelledException If the token was cancelled.
+     */
+    public void throwIfCancelled()
+    {
+        if(cancelled)
+            throw new ScriptCancelledException();
+    }
+
+    /**
+     * Cancels the token, waking anything parked on it or on the tick barrier.
+     */
+    public void cancel()
+    {
+        cancelled = true;
+        wake();
+        GameCache.get().signal();
+    }
+
+    /**
+     * Wakes the thread parked in {@link #await(BooleanSupplier, long)} so it checks its condition again.
+     */
+    public synchronized void wake()
+    {
+        notifyAll();
+    }
+
+    /**
+     * Parks until a condition holds, the token is cancelled or the timeout passes.
+     * The condition is checked again whenever {@link #wake()} is called.
+     *
+     * @param condition The condition.
+     * @param timeout The timeout in milliseconds, or 0 to wait without one.
+     * @return Whether the condition holds.
+     */
+    public synchronized boolean await(BooleanSupplier condition, long timeout)
+    {
+        long deadline = System.currentTimeMillis() + timeout;
+        try
+        {
+            while(!cancelled && !condition.getAsBoolean())
+            {
+                if(timeout <= 0)
+                {
+                    wait();
+                    continue;
+                }
+
+                long remaining = deadline - System.currentTimeMillis();
+                if(remaining <= 0)
+                    break;
+                wait(remaining);
+            }
+        }
+        catch (InterruptedException ex)
+        {
+            Thread.currentThread().interrupt();
+        }
+        return condition.getAsBoolean();
+    }
+
+    /**
+     * Sleeps unless the token is cancelled first.
+     *
+     * @param ms The time to sleep in milliseconds.
+     * @throws ScriptCancelledException If the token was cancelled before or during the sleep.
+     */
+    public void sleep(long ms)
+    {
+        throwIfCancelled();
+        if(ms > 0)
+            await(() -> false, ms);
+        throwIfCancelled();
+    }
+}
@@ -0,0 +1,56 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+import lombok.Getter;
+import net.runelite.client.plugins.tscripts.adapter.models.Scope.Scope;
+import net.runelite.client.plugins.tscripts.api.MethodManager;
+
+/**
+ * A parsed script prepared for one {@link ExecutionMode}: its variable names resolved to slots and, when compiled,
+ * its {@link ExecNode} tree. It holds no runtime state, so every run of the script can share it instead of
+ * resolving and compiling again.
+ */
+@Getter
+public class CompiledScript
+{
+    private final Scope scope;
+    private final ExecutionMode executionMode;
+    private final VariableMap.Layout layout;
+    /**
+     * The compiler, or null when interpreted.
+     */
+    private final ScriptCompiler compiler;
+    /**
+     * The compiled root scope, or null when interpreted.
+     */
+    private final ExecNode root;
+
+    private CompiledScript(Scope scope, ExecutionMode executionMode)
+    {
+        this.scope = scope;
+        this.executionMode = executionMode;
+        this.layout = new VariableMap.Layout();
+        VariableResolver.resolve(scope, layout);
+        if (executionMode == ExecutionMode.COMPILED)
+        {
+            this.compiler = new ScriptCompiler(MethodManager.getInstance(), layout);
+            this.root = compiler.compile(scope);
+        }
+        else
+        {
+            this.compiler = null;
+            this.root = null;
+        }
+    }
+
+    /**
+     * Prepares a script.
+     *
+     * @param scope The parsed script.
+     * @param executionMode The engine it runs with.
+     * @return The prepared script.
+     */
+    public static CompiledScript of(Scope scope, ExecutionMode executionMode)
+    {
+        return new CompiledScript(scope, executionMode);
+    }
+}
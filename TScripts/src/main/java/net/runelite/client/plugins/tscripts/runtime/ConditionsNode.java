@@ -0,0 +1,56 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+import net.runelite.client.plugins.tscripts.adapter.models.condition.Glue;
+
+/**
+ * A compiled set of conditions, the counterpart of {@code Runtime.processConditions}.
+ * Every condition is evaluated, there is no short-circuiting.
+ */
+public class ConditionsNode implements TestNode
+{
+    private final TestNode[] conditions;
+    private final boolean[] first;
+    private final Glue[] glues;
+
+    /**
+     * @param conditions The conditions in evaluation order.
+     * @param first Whether the condition at the same index replaces the running result.
+     * @param glues The glue joining the condition at the same index to the running result, or null to ignore it.
+     */
+    public ConditionsNode(TestNode[] conditions, boolean[] first, Glue[] glues)
+    {
+        this.conditions = conditions;
+        this.first = first;
+        this.glues = glues;
+    }
+
+    @Override
+    public boolean test(Runtime runtime)
+    {
+        boolean result = true;
+        for (int i = 0; i < conditions.length; i++)
+        {
+            boolean conditionResult = conditions[i].test(runtime);
+            if (first[i])
+            {
+                result = conditionResult;
+                continue;
+            }
+
+            Glue glue = glues[i];
+            if (glue == null)
+                continue;
+
+            switch (glue)
+            {
+                case AND:
+                    result = result && conditionResult;
+                    break;
+                case OR:
+                    result = result || conditionResult;
+                    break;
+            }
+        }
+        return result;
+    }
+}
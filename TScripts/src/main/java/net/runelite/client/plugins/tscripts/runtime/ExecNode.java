@@ -0,0 +1,15 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+/**
+ * A compiled statement.
+ */
+@FunctionalInterface
+public interface ExecNode
+{
+    /**
+     * Executes the statement.
+     *
+     * @param runtime The runtime to execute against.
+     */
+    void exec(Runtime runtime);
+}
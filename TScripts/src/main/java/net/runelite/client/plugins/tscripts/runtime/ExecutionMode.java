@@ -0,0 +1,39 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+import lombok.AllArgsConstructor;
+
+/**
+ * The engine a {@link Runtime} uses to execute a script.
+ */
+@AllArgsConstructor
+public enum ExecutionMode
+{
+    /**
+     * Walks the parsed {@link net.runelite.client.plugins.tscripts.adapter.models.Scope.Scope} tree directly.
+     */
+    INTERPRETED("Interpreted"),
+    /**
+     * Lowers the parsed tree once into pre-resolved nodes via {@link ScriptCompiler} and runs those.
+     */
+    COMPILED("Compiled");
+
+    private final String value;
+
+    public static ExecutionMode of(String name)
+    {
+        for (ExecutionMode mode : values())
+        {
+            if (mode.name().equalsIgnoreCase(name) || mode.value.equalsIgnoreCase(name))
+            {
+                return mode;
+            }
+        }
+        return INTERPRETED;
+    }
+
+    @Override
+    public String toString()
+    {
+        return value;
+    }
+}
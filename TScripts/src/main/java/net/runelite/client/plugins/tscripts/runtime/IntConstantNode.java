@@ -0,0 +1,32 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+/**
+ * A compiled integer literal.
+ */
+public class IntConstantNode implements IntNode
+{
+    private final Integer value;
+
+    public IntConstantNode(Integer value)
+    {
+        this.value = value;
+    }
+
+    @Override
+    public Object eval(Runtime runtime)
+    {
+        return value;
+    }
+
+    @Override
+    public boolean isInt(Runtime runtime)
+    {
+        return true;
+    }
+
+    @Override
+    public int evalInt(Runtime runtime)
+    {
+        return value;
+    }
+}
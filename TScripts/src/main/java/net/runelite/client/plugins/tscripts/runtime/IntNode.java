@@ -0,0 +1,23 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+/**
+ * A compiled expression that can produce its value as an unboxed int.
+ */
+public interface IntNode extends ValueNode
+{
+    /**
+     * Checks if the value is currently an integer.
+     *
+     * @param runtime The runtime to evaluate against.
+     * @return Whether {@link #evalInt(Runtime)} gives the exact value.
+     */
+    boolean isInt(Runtime runtime);
+
+    /**
+     * Evaluates the expression as an int, booleans count as 0/1 and anything else as 0.
+     *
+     * @param runtime The runtime to evaluate against.
+     * @return The value.
+     */
+    int evalInt(Runtime runtime);
+}
@@ -0,0 +1,156 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+import net.runelite.client.plugins.tscripts.adapter.models.method.MethodCall;
+import net.runelite.client.plugins.tscripts.api.MethodManager;
+import net.runelite.client.plugins.tscripts.api.library.TGame;
+import net.runelite.client.plugins.tscripts.types.MethodDefinition;
+
+import java.util.function.Supplier;
+
+/**
+ * The client thread reads of one statement or condition, found by {@link ScriptCompiler}.
+ * <p>
+ * Before the statement runs, every read is made in a single client thread task and the results are kept in a
+ * {@link Frame} on the runtime. The compiled calls take their result from the frame instead of going to the client
+ * thread one at a time, so all of them see the same client frame as well.
+ */
+public class ReadBatch
+{
+    /**
+     * Returned by {@link #prefetched} when a call was not read ahead.
+     */
+    static final Object MISSING = new Object();
+
+    private final MethodManager methodManager;
+    private final MethodCall[] calls;
+    private final MethodDefinition[] methods;
+
+    /**
+     * @param methodManager The method manager.
+     * @param calls The reads as parsed. Each must have a constant call.
+     * @param methods The builtin each read resolves to, at the same index.
+     */
+    public ReadBatch(MethodManager methodManager, MethodCall[] calls, MethodDefinition[] methods)
+    {
+        this.methodManager = methodManager;
+        this.calls = calls;
+        this.methods = methods;
+    }
+
+    /**
+     * Wraps a compiled statement so its reads are made up front.
+     */
+    public ExecNode wrap(ExecNode node)
+    {
+        return runtime ->
+        {
+            Frame frame = begin(runtime);
+            try
+            {
+                node.exec(runtime);
+            }
+            finally
+            {
+                runtime.setReadFrame(frame.parent);
+            }
+        };
+    }
+
+    /**
+     * Wraps a compiled condition so its reads are made up front, each time it is tested.
+     */
+    public TestNode wrap(TestNode node)
+    {
+        return runtime ->
+        {
+            Frame frame = begin(runtime);
+            try
+            {
+                return node.test(runtime);
+            }
+            finally
+            {
+                runtime.setReadFrame(frame.parent);
+            }
+        };
+    }
+
+    /**
+     * Gets the result of a call read ahead by the innermost batch.
+     *
+     * @param runtime The runtime.
+     * @param call The call.
+     * @return The result, or {@link #MISSING}.
+     */
+    static Object prefetched(Runtime runtime, MethodCall call)
+    {
+        Frame frame = runtime.getReadFrame();
+        if (frame == null)
+        {
+            return MISSING;
+        }
+        for (int i = 0; i < frame.calls.length; i++)
+        {
+            if (frame.calls[i] == call)
+            {
+                return frame.values[i];
+            }
+        }
+        return MISSING;
+    }
+
+    private Frame begin(Runtime runtime)
+    {
+        Object[] values = new Object[calls.length];
+        Supplier<?>[] reads = new Supplier<?>[calls.length];
+        int[] indexes = new int[calls.length];
+        int count = 0;
+        for (int i = 0; i < calls.length; i++)
+        {
+            values[i] = MISSING;
+            if (runtime.getUserDefinedFunction(calls[i]) != null)
+            {
+                continue;
+            }
+            MethodDefinition method = methods[i];
+            MethodCall call = calls[i].getConstantCall();
+            reads[count] = () -> methodManager.call(method, call);
+            indexes[count++] = i;
+        }
+
+        if (count > 1)
+        {
+            Supplier<?>[] batch = new Supplier<?>[count];
+            System.arraycopy(reads, 0, batch, 0, count);
+            Object[] results = TGame.invokeAll(batch);
+            if (results != null)
+            {
+                for (int i = 0; i < count; i++)
+                {
+                    values[indexes[i]] = results[i];
+                }
+            }
+        }
+
+        Frame frame = new Frame(calls, values, runtime.getReadFrame());
+        runtime.setReadFrame(frame);
+        return frame;
+    }
+
+    /**
+     * The results of one run of a batch, linked to the batch that was running when it started.
+     */
+    static final class Frame
+    {
+        private final MethodCall[] calls;
+        private final Object[] values;
+        private final Frame parent;
+
+        private Frame(MethodCall[] calls, Object[] values, Frame parent)
+        {
+            this.calls = calls;
+            this.values = values;
+            this.parent = parent;
+        }
+    }
+}
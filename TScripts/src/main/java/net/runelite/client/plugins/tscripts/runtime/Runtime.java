@@ -11,51 +11,41 @@ import net.runelite.client.plugins.tscripts.adapter.models.shorthand.NullCheckEx
 import net.runelite.client.plugins.tscripts.adapter.models.shorthand.NullCoalescingExpression;
 import net.runelite.client.plugins.tscripts.adapter.models.shorthand.TernaryExpression;
 import net.runelite.client.plugins.tscripts.api.MethodManager;
-import net.runelite.client.plugins.tscripts.api.library.TDelay;
 import net.runelite.client.plugins.tscripts.api.library.TGame;
 import net.runelite.client.plugins.tscripts.adapter.models.method.MethodCall;
 import net.runelite.client.plugins.tscripts.adapter.models.Scope.Scope;
+import net.runelite.client.plugins.tscripts.adapter.models.Scope.ScopeId;
+import net.runelite.client.plugins.tscripts.adapter.models.condition.Comparator;
 import net.runelite.client.plugins.tscripts.adapter.models.condition.Condition;
 import net.runelite.client.plugins.tscripts.adapter.models.condition.ConditionType;
 import net.runelite.client.plugins.tscripts.adapter.models.condition.Conditions;
 import net.runelite.client.plugins.tscripts.adapter.models.condition.Glue;
 import net.runelite.client.plugins.tscripts.adapter.models.Element;
 import net.runelite.client.plugins.tscripts.adapter.models.variable.ArrayAccess;
+import net.runelite.client.plugins.tscripts.adapter.models.variable.AssignmentType;
 import net.runelite.client.plugins.tscripts.adapter.models.variable.VariableAssignment;
+import net.runelite.client.plugins.tscripts.sevices.ActionPacer;
+import net.runelite.client.plugins.tscripts.sevices.DebugTelemetry;
 import net.runelite.client.plugins.tscripts.sevices.eventbus.events.*;
 import net.runelite.client.plugins.tscripts.sevices.ipc.MulticastSender;
 import net.runelite.client.plugins.tscripts.sevices.ipc.packets.IPCPacket;
 import net.runelite.client.plugins.tscripts.types.Pair;
 import net.runelite.client.plugins.tscripts.util.Logging;
-import net.runelite.client.plugins.tscripts.util.ThreadPool;
 import net.runelite.client.plugins.tscripts.sevices.eventbus.TEventBus;
 import net.runelite.client.plugins.tscripts.sevices.eventbus._Subscribe;
 import org.antlr.v4.runtime.tree.ParseTree;
 
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Responsible for executing scripts.
  */
 public class Runtime
 {
-    private final static CopyOnWriteArrayList<String> interrupted = new CopyOnWriteArrayList<>();
-
-    public static boolean isInterrupted()
-    {
-        if(interrupted.contains(Thread.currentThread().getName()))
-        {
-            interrupted.remove(Thread.currentThread().getName());
-            return true;
-        }
-        return false;
-    }
-
     @Getter
     private final VariableMap variableMap;
     private final List<EventBus.Subscriber> subscribers = new ArrayList<>();
-    private final Map<String, UserDefinedFunction> userDefinedFunctions = new HashMap<>();
+    private final UserFunctionTable userDefinedFunctions = new UserFunctionTable();
     private Pair<String, Map<String,Object>> globalArrays;
     @Getter
     private final MethodManager methodManager;
@@ -70,7 +60,25 @@ public class Runtime
     @Getter
     @Setter
     private boolean anonymous = false;
+    @Getter
+    @Setter
+    private ExecutionMode executionMode = ExecutionMode.INTERPRETED;
+    private ScriptCompiler compiler;
+    /**
+     * The compiled root scope of the script being run, or null if it is compiled on the fly or interpreted.
+     */
+    private ExecNode compiledRoot;
+    private ReadBatch.Frame readFrame;
     private ScriptThread scriptThread;
+    /**
+     * The profile and script an event handler runtime runs for, used to schedule and time it.
+     */
+    private String ownerProfile, ownerScript;
+    /**
+     * The event subscriber an event handler runtime runs for. Runs of one subscriber never overlap.
+     */
+    @Setter
+    private Object subscriber;
 
     /**
      * Creates a new instance of the Runtime class.
@@ -93,16 +101,57 @@ public class Runtime
     {
         Runtime runtime = new Runtime(variableMap);
         runtime.child = true;
+        runtime.executionMode = executionMode;
+        runtime.compiler = compiler;
+        runtime.setOwner(getOwnerProfile(), getOwnerScript());
         return runtime;
     }
 
     /**
-     * Executes the script.
+     * Sets the profile and script an event handler runtime runs for.
+     *
+     * @param profile The profile.
+     * @param script The script name.
+     */
+    public void setOwner(String profile, String script)
+    {
+        this.ownerProfile = profile;
+        this.ownerScript = script;
+    }
+
+    private String getOwnerProfile()
+    {
+        return ownerProfile != null ? ownerProfile : profile;
+    }
+
+    private String getOwnerScript()
+    {
+        return ownerScript != null ? ownerScript : scriptName;
+    }
+
+    /**
+     * Executes the script, resolving and compiling it for this run.
      *
      * @param scope The scope.
      * @param scriptName The script name.
      */
     public void execute(Scope scope, String scriptName, String profile)
+    {
+        start(child ? null : CompiledScript.of(scope, executionMode), scope, scriptName, profile);
+    }
+
+    /**
+     * Executes a script that was resolved and compiled ahead of time, usually one shared through the script cache.
+     *
+     * @param script The prepared script.
+     * @param scriptName The script name.
+     */
+    public void execute(CompiledScript script, String scriptName, String profile)
+    {
+        start(script, script.getScope(), scriptName, profile);
+    }
+
+    private void start(CompiledScript script, Scope scope, String scriptName, String profile)
     {
         this.rootScope = scope;
         this._done = false;
@@ -114,25 +163,61 @@ public class Runtime
         this.profile = profile;
         this.breakpointTripped = false;
         this.userDefinedFunctions.clear();
-        this.variableMap.clear();
+        if(script != null)
+        {
+            this.executionMode = script.getExecutionMode();
+            this.variableMap.clear(script.getLayout());
+            this.compiler = script.getCompiler();
+            this.compiledRoot = script.getRoot();
+        }
+        else
+        {
+            this.variableMap.clear();
+        }
         scriptThread = new ScriptThread(() ->
         {
             postFlags();
             try
             {
                 postScriptStateChanged(true);
-                processScope(scope);
+                if(compiledRoot != null)
+                    compiledRoot.exec(this);
+                else
+                    runScope(scope);
+            }
+            catch (ScriptCancelledException ex)
+            {
+                throw ex;
             }
             catch (Exception ex)
             {
                 Logging.errorLog(ex);
             }
-            TGame.unregister(subscribers);
-            _done = true;
-            postScriptStateChanged(false);
-            postFlags();
-        });
-        ThreadPool.submit(scriptThread);
+            finally
+            {
+                TGame.unregister(subscribers);
+                _done = true;
+                postScriptStateChanged(false);
+                postFlags();
+            }
+        }, new CancellationToken());
+        ScriptScheduler.get().submit(scriptThread, getOwnerProfile(), getOwnerScript(), child || anonymous,
+                subscriber != null ? subscriber : this, globalArrays == null);
+    }
+
+    /**
+     * Runs a scope with the engine selected for this runtime.
+     *
+     * @param scope The scope.
+     */
+    private void runScope(Scope scope)
+    {
+        if(compiler != null)
+        {
+            compiler.compile(scope).exec(this);
+            return;
+        }
+        processScope(scope);
     }
 
     /**
@@ -140,7 +225,7 @@ public class Runtime
      *
      * @param scope The scope.
      */
-    private void processScope(Scope scope) {
+    void processScope(Scope scope) {
         if(_die || _return) return;
         scope.setCurrent(true);
         postCurrentInstructionChanged();
@@ -252,27 +337,20 @@ public class Runtime
      * @param call The method call.
      */
     private void processFunctionCall(MethodCall call) {
-        switch (call.getName()) {
-            case "die":
+        switch (call.getTarget()) {
+            case DIE:
                 _die = true;
                 break;
-            case "break":
+            case BREAK:
                 _break = true;
                 break;
-            case "continue":
+            case CONTINUE:
                 _continue = true;
                 break;
-            case "breakpoint":
-                postBreakpointTripped();
-                breakpointTripped = true;
-                postFlags();
-                while (breakpointTripped)
-                {
-                    if(_done || _die) break;
-                    TDelay.sleep(100);
-                }
+            case BREAKPOINT:
+                breakpoint();
                 break;
-            case "return":
+            case RETURN:
                 if(currentFunction != null)
                 {
                     if(call.getArgs().length > 0)
@@ -282,7 +360,7 @@ public class Runtime
                     _return = true;
                 }
                 break;
-            case "eval":
+            case EVAL:
                 if(call.getArgs().length == 0) {
                     break;
                 }
@@ -291,16 +369,10 @@ public class Runtime
                 {
                     return;
                 }
-                Scope scope = Adapter.parse((String)code);
-                processScope(scope);
+                eval((String) code);
                 break;
             default:
-                if(userDefinedFunctions.containsKey(call.getName()))
-                {
-                    processUserFunction(userDefinedFunctions.get(call.getName()), call);
-                    break;
-                }
-                methodManager.call(processMethodCallArguments(call));
+                processCall(call);
                 break;
         }
     }
@@ -323,7 +395,7 @@ public class Runtime
                 return;
             }
             Object index = getValue(arrayAccess.getIndex());
-            processArrayIndexAssignment(name, index, variableAssignment);
+            processArrayIndexAssignment(name, index, variableAssignment.getAssignmentType(), runtime -> getValue(variableAssignment.getValues().get(0)));
             return;
         }
 
@@ -339,7 +411,18 @@ public class Runtime
                 return;
         }
 
-        Object value = getValue(variableAssignment.getValues().get(0));
+        assignVariable(name, variableAssignment.getAssignmentType(), getValue(variableAssignment.getValues().get(0)));
+    }
+
+    /**
+     * Assigns an already evaluated value to a variable.
+     *
+     * @param name The variable name.
+     * @param type The assignment type.
+     * @param value The value.
+     */
+    void assignVariable(String name, AssignmentType type, Object value)
+    {
         if(value instanceof Scope)
         {
             Scope scope = (Scope) value;
@@ -350,7 +433,7 @@ public class Runtime
             scope.getConditions().setUserFunctionName(name);
             addUserDefinedFunction(scope);
         }
-        switch (variableAssignment.getAssignmentType())
+        switch (type)
         {
             case ASSIGNMENT:
                 variableMap.put(name, value);
@@ -364,11 +447,19 @@ public class Runtime
         }
     }
 
-    private void processArrayIndexAssignment(String name, Object index, VariableAssignment variableAssignment)
+    /**
+     * Processes an assignment to an array index, or to the whole array when the index is null.
+     *
+     * @param name The array name.
+     * @param index The evaluated index.
+     * @param type The assignment type.
+     * @param valueNode Evaluates the assigned value, only called when the assignment needs it.
+     */
+    void processArrayIndexAssignment(String name, Object index, AssignmentType type, ValueNode valueNode)
     {
         if(index == null)
         {
-            Object value = getValue(variableAssignment.getValues().get(0));
+            Object value = valueNode.eval(this);
             if(value == null)
                 return;
             if (value.getClass().isArray())
@@ -397,7 +488,7 @@ public class Runtime
             return;
         }
 
-        switch (variableAssignment.getAssignmentType())
+        switch (type)
         {
             case ADD_ONE:
                 incrementVariable(name, index, 1);
@@ -407,8 +498,8 @@ public class Runtime
                 return;
         }
 
-        Object value = getValue(variableAssignment.getValues().get(0));
-        switch (variableAssignment.getAssignmentType())
+        Object value = valueNode.eval(this);
+        switch (type)
         {
             case ASSIGNMENT:
                 variableMap.put(name, index, value);
@@ -430,9 +521,16 @@ public class Runtime
      */
     private MethodCall processMethodCallArguments(MethodCall methodCall)
     {
-        Object[] objects = Arrays.stream(methodCall.getArgs())
-                .map(this::getValue)
-                .toArray();
+        if(methodCall.getConstantCall() != null)
+        {
+            return methodCall.getConstantCall();
+        }
+        Object[] args = methodCall.getArgs();
+        Object[] objects = new Object[args.length];
+        for (int i = 0; i < args.length; i++)
+        {
+            objects[i] = getValue(args[i]);
+        }
         return new MethodCall(methodCall.getName(), objects, methodCall.isNegate());
     }
 
@@ -489,8 +587,19 @@ public class Runtime
             return true;
         }
 
-        Object right = getValue(condition.getRight());
+        return compare(left, getValue(condition.getRight()), condition.getComparator());
+    }
 
+    /**
+     * Compares the evaluated sides of a condition.
+     *
+     * @param left The left value, never null.
+     * @param right The right value, null when the condition is a single value.
+     * @param comparator The comparator.
+     * @return Whether the condition is true.
+     */
+    static boolean compare(Object left, Object right, Comparator comparator)
+    {
         if(right == null)
         {
             if(left instanceof Boolean)
@@ -500,7 +609,7 @@ public class Runtime
             return !left.toString().equals("null");
         }
 
-        return condition.getComparator() != null && condition.getComparator().process(left, right);
+        return comparator != null && comparator.process(left, right);
     }
 
     /**
@@ -512,6 +621,7 @@ public class Runtime
     {
         Scope scope = function.getScope().clone();
         scope.setConditions(null);
+        ScopeId.label(scope.getHash(), function.getName() + "()");
         currentFunction = function;
         variableMap.pushScope(scope.getHash());
         for (int i = 0; i < call.getArgs().length; i++)
@@ -521,11 +631,40 @@ public class Runtime
         variableMap.popScope2();
 
         processScope(scope);
+        return finishUserFunction(function, call.isNegate());
+    }
+
+    /**
+     * Processes a user-defined function with compiled arguments.
+     * @param function The function.
+     * @param args The compiled arguments.
+     * @param negate Whether to negate a boolean result.
+     * @return The output of the function.
+     */
+    Object processUserFunction(UserDefinedFunction function, ValueNode[] args, boolean negate)
+    {
+        Scope scope = function.getScope().clone();
+        scope.setConditions(null);
+        ScopeId.label(scope.getHash(), function.getName() + "()");
+        currentFunction = function;
+        variableMap.pushScope(scope.getHash());
+        for (int i = 0; i < args.length; i++)
+        {
+            variableMap.put(function.getArguments().get(i), args[i].eval(this));
+        }
+        variableMap.popScope2();
+
+        compiler.compile(scope).exec(this);
+        return finishUserFunction(function, negate);
+    }
+
+    private Object finishUserFunction(UserDefinedFunction function, boolean negate)
+    {
         Object output = function.getReturnValue() == null ? "null" : function.getReturnValue();
         function.setReturnValue(null);
         currentFunction = null;
         _return = false;
-        if(call.isNegate() && output instanceof Boolean)
+        if(negate && output instanceof Boolean)
         {
             return !((Boolean) output);
         }
@@ -537,7 +676,7 @@ public class Runtime
      *
      * @return Whether the control flow was handled.
      */
-    private boolean handleControlFlow(boolean isWhileScope) {
+    boolean handleControlFlow(boolean isWhileScope) {
         if (_die || _return) return true;
 
         if (isWhileScope) {
@@ -560,7 +699,10 @@ public class Runtime
      * @param name The variable name.
      * @param value The value.
      */
-    private void incrementVariable(String name, Object value) {
+    void incrementVariable(String name, Object value) {
+        if (value instanceof Integer && variableMap.addInt(variableMap.slot(name), (int) value)) {
+            return;
+        }
         if (value instanceof Integer) {
             int integer = (int) value;
             int prev = variableMap.containsKey(name) ? (int) variableMap.get(name) : 0;
@@ -590,7 +732,10 @@ public class Runtime
      * @param name The variable name.
      * @param value The value.
      */
-    private void decrementVariable(String name, Object value) {
+    void decrementVariable(String name, Object value) {
+        if (value instanceof Integer && variableMap.addInt(variableMap.slot(name), -(int) value)) {
+            return;
+        }
         if (value instanceof Integer) {
             int integer = (int) value;
             int prev = variableMap.containsKey(name) ? (int) variableMap.get(name) : 0;
@@ -612,7 +757,7 @@ public class Runtime
      * @param object The object.
      * @return The value.
      */
-    private Object getValue(Object object)
+    Object getValue(Object object)
     {
         if(object instanceof Scope)
         {
@@ -623,11 +768,7 @@ public class Runtime
             String string = (String) object;
             if (string.startsWith("$"))
             {
-                if(!variableMap.containsKey(string))
-                {
-                    return null;
-                }
-                return variableMap.get(string);
+                return readVariable(string);
             }
             else if (string.startsWith("!$"))
             {
@@ -643,34 +784,11 @@ public class Runtime
         if(object instanceof ArrayAccess)
         {
             ArrayAccess arrayAccess = (ArrayAccess) object;
-            Object index = getValue(arrayAccess.getIndex());
-            if(index == null)
-            {
-                return null;
-            }
-            String name = arrayAccess.getVariable();
-
-            Object value;
-            if(globalArrays != null && globalArrays.getKey().equals(name))
-            {
-                value = globalArrays.getValue().get(index + "");
-            }
-            else
-            {
-                value = variableMap.get(name, index);
-            }
-            if(arrayAccess.isNegated())
-                return (value instanceof Boolean) ? !((Boolean) value) : value;
-            return value;
+            return readArray(arrayAccess.getVariable(), getValue(arrayAccess.getIndex()), arrayAccess.isNegated());
         }
         else if (object instanceof MethodCall)
         {
-            MethodCall methodCall = (MethodCall) object;
-            if(userDefinedFunctions.containsKey(methodCall.getName()))
-            {
-                return processUserFunction(userDefinedFunctions.get(methodCall.getName()), methodCall);
-            }
-            return methodManager.call(processMethodCallArguments((MethodCall) object));
+            return processCall((MethodCall) object);
         }
         else if(object instanceof TernaryExpression)
         {
@@ -696,37 +814,153 @@ public class Runtime
         return null;
     }
 
+    /**
+     * Reads a variable.
+     *
+     * @param name The variable name.
+     * @return The value, or null if the variable is not defined.
+     */
+    Object readVariable(String name)
+    {
+        return variableMap.get(variableMap.slot(name));
+    }
+
+    /**
+     * Reads an array index, from the event data array if the name refers to it.
+     *
+     * @param name The array name.
+     * @param index The evaluated index.
+     * @param negated Whether to negate a boolean value.
+     * @return The value, or null if the index is null.
+     */
+    Object readArray(String name, Object index, boolean negated)
+    {
+        if(index == null)
+        {
+            return null;
+        }
+
+        Object value;
+        if(isGlobalArray(name))
+        {
+            value = globalArrays.getValue().get(index + "");
+        }
+        else
+        {
+            value = variableMap.get(name, index);
+        }
+        if(negated)
+            return (value instanceof Boolean) ? !((Boolean) value) : value;
+        return value;
+    }
+
+    /**
+     * Checks if a name refers to the event data array of an event subscriber.
+     *
+     * @param name The array name.
+     * @return Whether it is the event data array.
+     */
+    boolean isGlobalArray(String name)
+    {
+        return globalArrays != null && globalArrays.getKey().equals(name);
+    }
+
     private Object flushOperationExpression(Expression expression)
     {
-        Object element = getValue(expression.getData().getLeft());
         OperatorType operator = expression.getData().getCenter();
         if(operator == null)
         {
-            return getValue(element);
+            return getValue(getValue(expression.getData().getLeft()));
         }
-        Object element2 = getValue(expression.getData().getRight());
+        return OperatorType.compute(getIntValue(expression.getData().getLeft()), operator, getIntValue(expression.getData().getRight()));
+    }
 
-        int left = 0;
-        if(element instanceof Integer)
+    /**
+     * Gets the value of an arithmetic operand as an int, without boxing nested operations or integer variables.
+     *
+     * @param object The operand.
+     * @return The value, booleans count as 0/1 and anything else as 0.
+     */
+    private int getIntValue(Object object)
+    {
+        if(object instanceof Integer)
         {
-            left = (int) element;
+            return (int) object;
         }
-        else if(element instanceof Boolean)
+        if(object instanceof Expression)
+        {
+            Expression expression = (Expression) object;
+            OperatorType operator = expression.getData().getCenter();
+            if(operator != null)
+            {
+                return OperatorType.compute(getIntValue(expression.getData().getLeft()), operator, getIntValue(expression.getData().getRight()));
+            }
+        }
+        else if(object instanceof String && ((String) object).startsWith("$"))
         {
-            left = (boolean) element ? 1 : 0;
+            return variableMap.getInt(variableMap.slot((String) object));
         }
+        return toInt(getValue(object));
+    }
 
-        int right = 0;
-        if(element2 instanceof Integer)
+    /**
+     * Converts an evaluated operand to an int, booleans count as 0/1 and anything else as 0.
+     *
+     * @param element The operand.
+     * @return The int.
+     */
+    static int toInt(Object element)
+    {
+        if(element instanceof Integer)
         {
-            right = (int) element2;
+            return (int) element;
         }
-        else if(element2 instanceof Boolean)
+        else if(element instanceof Boolean)
         {
-            right = (boolean) element2 ? 1 : 0;
+            return (boolean) element ? 1 : 0;
         }
+        return 0;
+    }
 
-        return OperatorType.compute(left, operator, right);
+    /**
+     * Calls a user-defined function if one with the call's name is defined, otherwise the builtin it was bound to.
+     *
+     * @param call The method call.
+     * @return The output of the call.
+     */
+    private Object processCall(MethodCall call)
+    {
+        UserDefinedFunction function = userDefinedFunctions.resolve(call);
+        if(function != null)
+        {
+            return processUserFunction(function, call);
+        }
+        MethodCall evaluated = processMethodCallArguments(call);
+        return call.getMethod() != null ? methodManager.call(call.getMethod(), evaluated) : methodManager.call(evaluated);
+    }
+
+    /**
+     * Gets the user-defined function a call refers to.
+     *
+     * @param call The method call.
+     * @return The function, or null if none is defined with that name.
+     */
+    UserDefinedFunction getUserDefinedFunction(MethodCall call)
+    {
+        return userDefinedFunctions.resolve(call);
+    }
+
+    /**
+     * @return The reads of the innermost running {@link ReadBatch}, or null.
+     */
+    ReadBatch.Frame getReadFrame()
+    {
+        return readFrame;
+    }
+
+    void setReadFrame(ReadBatch.Frame readFrame)
+    {
+        this.readFrame = readFrame;
     }
 
     /**
@@ -737,7 +971,7 @@ public class Runtime
     private void addUserDefinedFunction(Scope scope)
     {
         String name = scope.getConditions().getUserFunctionName();
-        userDefinedFunctions.put(name, new UserDefinedFunction(name, scope));
+        userDefinedFunctions.put(new UserDefinedFunction(name, scope));
     }
 
     /**
@@ -754,6 +988,7 @@ public class Runtime
                 try
                 {
                     Runtime runtime = getRuntimeChild();
+                    runtime.setSubscriber(scope);
                     if(!scope.getConditions().getConditions().isEmpty() && methodManager.getEventDataClasses().containsKey(event.getSimpleName()))
                     {
                         Object varName = scope.getConditions().getConditions().get(0).getLeft();
@@ -763,6 +998,7 @@ public class Runtime
 
                     Scope eventScope = scope.clone();
                     eventScope.setConditions(null);
+                    ScopeId.label(eventScope.getHash(), "on " + event.getSimpleName());
                     runtime.execute(eventScope, "TS_EVENT", "TS_EVENT");
                 }
                 catch (Exception ex)
@@ -821,13 +1057,86 @@ public class Runtime
         return false;
     }
 
+    void die()
+    {
+        _die = true;
+    }
+
+    void breakLoop()
+    {
+        _break = true;
+    }
+
+    void continueLoop()
+    {
+        _continue = true;
+    }
+
+    /**
+     * Pauses the script until the breakpoint is untripped or the script ends.
+     */
+    void breakpoint()
+    {
+        postBreakpointTripped();
+        breakpointTripped = true;
+        postFlags();
+        scriptThread.getToken().await(() -> !breakpointTripped || _done || _die, 0);
+    }
+
+    /**
+     * Returns from the current user-defined function, if any.
+     *
+     * @param value Evaluates the return value, or null to return "null".
+     */
+    void returnFrom(ValueNode value)
+    {
+        if(currentFunction != null)
+        {
+            currentFunction.setReturnValue(value != null ? value.eval(this) : "null");
+            _return = true;
+        }
+    }
+
+    /**
+     * Parses and runs code in the current context.
+     *
+     * @param code The code.
+     */
+    void eval(String code)
+    {
+        Scope scope = Adapter.parse(code);
+        VariableResolver.resolve(scope, variableMap.getLayout());
+        runScope(scope);
+    }
+
+    /**
+     * Checks if a flag is set that stops the current list of elements.
+     *
+     * @return Whether the elements should stop.
+     */
+    boolean isInterrupting()
+    {
+        return _die || _break || _continue || _return;
+    }
+
+    /**
+     * Checks if a flag is set that skips entering new scopes.
+     *
+     * @return Whether new scopes should be skipped.
+     */
+    boolean isReturning()
+    {
+        return _die || _return;
+    }
+
     /**
      * Kills the script.
      */
     public void killScript()
     {
-        interrupted.add(scriptThread.getName());
         _die = true;
+        if(scriptThread != null)
+            scriptThread.getToken().cancel();
     }
 
     /**
@@ -843,17 +1152,27 @@ public class Runtime
     //********** EVENT STUFF **********//
 
     /**
-     * Posts the flags.
+     * Marks the flags as changed for the debug tools.
      */
-    private void postFlags()
+    void postFlags()
     {
         if(child || anonymous) return;
-        Map<String,Object> flags = new HashMap<>();
+        DebugTelemetry.get().flagsChanged(this);
+    }
+
+    /**
+     * Gets a snapshot of the flags for the debug tools.
+     *
+     * @return The flags.
+     */
+    public Map<String,Object> getFlags()
+    {
+        Map<String,Object> flags = new LinkedHashMap<>();
         flags.put("scriptName", scriptName);
         flags.put("profile", profile);
         flags.put("running", !_done);
         flags.put("subscribers", subscribers.size());
-        flags.put("variables", variableMap.getVariableMap().size());
+        flags.put("variables", variableMap.getVariables().size());
         flags.put("done", _done);
         flags.put("die", _die);
         flags.put("break", _break);
@@ -861,16 +1180,28 @@ public class Runtime
         flags.put("return", _return);
         flags.put("breakpointTripped", breakpointTripped);
         flags.put("userDefinedFunctions", userDefinedFunctions.size());
-        TEventBus.post(new FlagChanged(flags));
+        flags.put("actionsPaced", ActionPacer.get().getPaced());
+        flags.put("actionsDelayed", ActionPacer.get().getDelayed());
+        flags.put("actionDelayMs", ActionPacer.get().getDelayedMillis());
+        ScriptScheduler.Stats stats = ScriptScheduler.get().getStats(profile, scriptName);
+        flags.put("runs", stats.getRuns());
+        flags.put("queueMs", stats.getQueueMillis());
+        flags.put("maxQueueMs", stats.getMaxQueueMillis());
+        flags.put("runMs", stats.getRunMillis());
+        flags.put("droppedRuns", stats.getDropped());
+        flags.put("clientThreadHops", stats.getHops());
+        flags.put("hopsLastTick", stats.getHopsLastTick());
+        flags.put("maxHopsPerTick", stats.getMaxHopsPerTick());
+        return flags;
     }
 
     /**
-     * Posts the current instruction changed event.
+     * Marks the current instruction as changed for the debug tools.
      */
-    private void postCurrentInstructionChanged()
+    void postCurrentInstructionChanged()
     {
         if(anonymous) return;
-        TEventBus.post(CurrentInstructionChanged.get());
+        DebugTelemetry.get().instructionChanged();
     }
 
     private void postScriptStateChanged(boolean state)
@@ -890,5 +1221,7 @@ public class Runtime
     {
         if(anonymous) return;
         breakpointTripped = false;
+        if(scriptThread != null)
+            scriptThread.getToken().wake();
     }
 }
\ No newline at end of file
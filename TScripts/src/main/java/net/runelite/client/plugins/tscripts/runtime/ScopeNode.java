@@ -0,0 +1,63 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+import net.runelite.client.plugins.tscripts.adapter.models.Scope.Scope;
+import net.runelite.client.plugins.tscripts.adapter.models.condition.ConditionType;
+
+/**
+ * A compiled scope, the counterpart of {@code Runtime.processScope} for if/while/for and plain blocks.
+ */
+public class ScopeNode implements ExecNode
+{
+    private final Scope scope;
+    private final ConditionType type;
+    private final TestNode conditions;
+    private final ExecNode forInit;
+    private final ExecNode forStep;
+    private final BlockNode body;
+    private final BlockNode elseBody;
+
+    public ScopeNode(Scope scope, ConditionType type, TestNode conditions, ExecNode forInit, ExecNode forStep, BlockNode body, BlockNode elseBody)
+    {
+        this.scope = scope;
+        this.type = type;
+        this.conditions = conditions;
+        this.forInit = forInit;
+        this.forStep = forStep;
+        this.body = body;
+        this.elseBody = elseBody;
+    }
+
+    @Override
+    public void exec(Runtime runtime)
+    {
+        if (runtime.isReturning()) return;
+        scope.setCurrent(true);
+        runtime.postCurrentInstructionChanged();
+        runtime.getVariableMap().pushScope(scope.getHash());
+
+        boolean isLoopScope = type == ConditionType.WHILE || type == ConditionType.FOR;
+        if (type == ConditionType.FOR)
+        {
+            forInit.exec(runtime);
+        }
+
+        boolean shouldProcess = conditions == null || conditions.test(runtime);
+        boolean originalShouldProcess = shouldProcess;
+        scope.setCurrent(false);
+
+        while (shouldProcess)
+        {
+            body.run(runtime);
+            if (runtime.handleControlFlow(isLoopScope)) break;
+            if (type == ConditionType.FOR) forStep.exec(runtime);
+            shouldProcess = isLoopScope && conditions.test(runtime);
+        }
+
+        if (type == ConditionType.IF && !originalShouldProcess && elseBody != null)
+        {
+            elseBody.run(runtime);
+        }
+
+        runtime.getVariableMap().popScope();
+    }
+}
@@ -0,0 +1,15 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+/**
+ * Thrown out of a blocking call when the script running on the calling thread was killed. It unwinds the script,
+ * including any library loop that waits between actions, and is caught by {@link ScriptThread}.
+ * <p>
+ * Code that catches {@link Exception} on a script thread must rethrow it.
+ */
+public class ScriptCancelledException extends RuntimeException
+{
+    public ScriptCancelledException()
+    {
+        super("Script was killed", null, false, false);
+    }
+}
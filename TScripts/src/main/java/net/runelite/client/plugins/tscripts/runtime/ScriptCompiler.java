@@ -0,0 +1,616 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+import com.google.common.collect.MapMaker;
+import net.runelite.client.plugins.tscripts.adapter.models.Element;
+import net.runelite.client.plugins.tscripts.adapter.models.Expression;
+import net.runelite.client.plugins.tscripts.adapter.models.OperatorType;
+import net.runelite.client.plugins.tscripts.adapter.models.Scope.Scope;
+import net.runelite.client.plugins.tscripts.adapter.models.condition.Comparator;
+import net.runelite.client.plugins.tscripts.adapter.models.condition.Condition;
+import net.runelite.client.plugins.tscripts.adapter.models.condition.ConditionType;
+import net.runelite.client.plugins.tscripts.adapter.models.condition.Conditions;
+import net.runelite.client.plugins.tscripts.adapter.models.condition.Glue;
+import net.runelite.client.plugins.tscripts.adapter.models.method.CallTarget;
+import net.runelite.client.plugins.tscripts.adapter.models.method.MethodCall;
+import net.runelite.client.plugins.tscripts.adapter.models.shorthand.NullCheckExpression;
+import net.runelite.client.plugins.tscripts.adapter.models.shorthand.NullCoalescingExpression;
+import net.runelite.client.plugins.tscripts.adapter.models.shorthand.TernaryExpression;
+import net.runelite.client.plugins.tscripts.adapter.models.variable.ArrayAccess;
+import net.runelite.client.plugins.tscripts.adapter.models.variable.AssignmentType;
+import net.runelite.client.plugins.tscripts.adapter.models.variable.VariableAssignment;
+import net.runelite.client.plugins.tscripts.api.MethodManager;
+import net.runelite.client.plugins.tscripts.types.MethodDefinition;
+import net.runelite.client.plugins.tscripts.types.MethodKind;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lowers the {@link Scope} tree produced by {@code Adapter.parse} into a tree of pre-resolved
+ * {@link ExecNode}/{@link ValueNode} closures. Every string prefix check, {@code instanceof} chain and
+ * builtin lookup the interpreter does per visit is done once here instead.
+ * <p>
+ * The nodes hold no runtime state, so one compiler is shared by every runtime of a {@link CompiledScript} and
+ * their event children. Variable reads and plain assignments capture their slot in the script's
+ * {@link VariableMap.Layout} and go to the map of the runtime they run on.
+ * <p>
+ * Two or more client thread reads in one statement or condition are grouped into a {@link ReadBatch}, so they cost
+ * one trip to the client thread instead of one each.
+ */
+public class ScriptCompiler
+{
+    private static final ValueNode NULL = runtime -> null;
+    private static final ExecNode NOOP = runtime -> {};
+
+    private final MethodManager methodManager;
+    private final VariableMap.Layout layout;
+    private final Map<Map<Integer, Element>, BlockNode> blocks = new MapMaker().weakKeys().makeMap();
+
+    public ScriptCompiler(MethodManager methodManager, VariableMap.Layout layout)
+    {
+        this.methodManager = methodManager;
+        this.layout = layout;
+    }
+
+    /**
+     * Compiles a scope.
+     *
+     * @param scope The scope.
+     * @return The compiled scope.
+     */
+    public ExecNode compile(Scope scope)
+    {
+        Conditions conditions = scope.getConditions();
+        ConditionType type = conditions != null && conditions.getType() != null ? conditions.getType() : ConditionType.NONE;
+        switch (type)
+        {
+            case IPC_POST:
+                return runtime -> runtime.processScope(scope);
+            case SUBSCRIBE:
+            case USER_DEFINED_FUNCTION:
+            case LAMBDA:
+                block(scope.getElements());
+                return runtime -> runtime.processScope(scope);
+        }
+
+        TestNode test = conditions == null || conditions.getType() == null ? null : batched(conditions, compileConditions(conditions));
+        ExecNode forInit = null;
+        ExecNode forStep = null;
+        if (type == ConditionType.FOR)
+        {
+            forInit = compileAssignment(conditions.getForCondition().getVariableAssignment());
+            forStep = compileAssignment(conditions.getForCondition().getOperation());
+        }
+        BlockNode elseBody = scope.getElseElements() != null ? block(scope.getElseElements()) : null;
+        return new ScopeNode(scope, type, test, forInit, forStep, block(scope.getElements()), elseBody);
+    }
+
+    /**
+     * Gets the compiled form of a list of elements, compiling it on first use.
+     * Clones of a scope share their elements, so user functions and event handlers hit this cache.
+     * Keys are weak and compared by identity, so blocks of discarded eval code are dropped.
+     *
+     * @param elements The elements.
+     * @return The compiled block.
+     */
+    public BlockNode block(Map<Integer, Element> elements)
+    {
+        BlockNode block = blocks.get(elements);
+        if (block != null)
+        {
+            return block;
+        }
+
+        ExecNode[] statements = new ExecNode[elements.size()];
+        int i = 0;
+        for (Element element : elements.values())
+        {
+            statements[i++] = compileElement(element);
+        }
+        block = new BlockNode(statements);
+        BlockNode existing = blocks.putIfAbsent(elements, block);
+        return existing != null ? existing : block;
+    }
+
+    private ExecNode compileElement(Element element)
+    {
+        switch (element.getType())
+        {
+            case SCOPE:
+                return compile((Scope) element);
+            case FUNCTION_CALL:
+                MethodCall methodCall = (MethodCall) element;
+                ExecNode call = batched(methodCall, compileStatementCall(methodCall));
+                return runtime ->
+                {
+                    methodCall.setCurrent(true);
+                    runtime.postCurrentInstructionChanged();
+                    call.exec(runtime);
+                    methodCall.setCurrent(false);
+                };
+            case VARIABLE_ASSIGNMENT:
+                VariableAssignment assignment = (VariableAssignment) element;
+                ExecNode assign = batched(assignment, compileAssignment(assignment));
+                return runtime ->
+                {
+                    assignment.setCurrent(true);
+                    runtime.postCurrentInstructionChanged();
+                    assign.exec(runtime);
+                    assignment.setCurrent(false);
+                };
+            default:
+                return NOOP;
+        }
+    }
+
+    private ExecNode compileStatementCall(MethodCall call)
+    {
+        ValueNode[] args = compileArgs(call.getArgs());
+        switch (call.getTarget())
+        {
+            case DIE:
+                return Runtime::die;
+            case BREAK:
+                return Runtime::breakLoop;
+            case CONTINUE:
+                return Runtime::continueLoop;
+            case BREAKPOINT:
+                return Runtime::breakpoint;
+            case RETURN:
+                ValueNode value = args.length > 0 ? args[0] : null;
+                return runtime -> runtime.returnFrom(value);
+            case EVAL:
+                if (args.length == 0)
+                {
+                    return NOOP;
+                }
+                return runtime ->
+                {
+                    Object code = args[0].eval(runtime);
+                    if (code instanceof String)
+                    {
+                        runtime.eval((String) code);
+                    }
+                };
+            default:
+                ValueNode invoke = compileCall(call, args);
+                return invoke::eval;
+        }
+    }
+
+    private ValueNode compileCall(MethodCall call, ValueNode[] args)
+    {
+        String name = call.getName();
+        boolean negate = call.isNegate();
+        MethodDefinition method = resolve(call);
+        MethodCall constant = call.getConstantCall();
+        boolean prefetchable = isBatchable(call, method);
+        return runtime ->
+        {
+            UserDefinedFunction function = runtime.getUserDefinedFunction(call);
+            if (function != null)
+            {
+                return runtime.processUserFunction(function, args, negate);
+            }
+            if (prefetchable)
+            {
+                Object value = ReadBatch.prefetched(runtime, call);
+                if (value != ReadBatch.MISSING)
+                {
+                    return value;
+                }
+            }
+            if (constant != null)
+            {
+                return method != null ? methodManager.call(method, constant) : methodManager.call(constant);
+            }
+
+            Object[] values = new Object[args.length];
+            for (int i = 0; i < args.length; i++)
+            {
+                values[i] = args[i].eval(runtime);
+            }
+            MethodCall evaluated = new MethodCall(name, values, negate);
+            return method != null ? methodManager.call(method, evaluated) : methodManager.call(evaluated);
+        };
+    }
+
+    /**
+     * Groups the client thread reads of a statement into a batch, if there are enough of them.
+     *
+     * @param statement The parsed statement.
+     * @param node The compiled statement.
+     * @return The compiled statement, wrapped in a batch if it has two or more reads.
+     */
+    private ExecNode batched(Object statement, ExecNode node)
+    {
+        ReadBatch batch = readBatch(statement);
+        return batch == null ? node : batch.wrap(node);
+    }
+
+    private TestNode batched(Conditions conditions, TestNode node)
+    {
+        ReadBatch batch = readBatch(conditions);
+        return batch == null ? node : batch.wrap(node);
+    }
+
+    private ReadBatch readBatch(Object statement)
+    {
+        List<MethodCall> reads = new ArrayList<>();
+        if (!collectReads(statement, reads) || reads.size() < 2)
+        {
+            return null;
+        }
+        MethodCall[] calls = reads.toArray(new MethodCall[0]);
+        MethodDefinition[] methods = new MethodDefinition[calls.length];
+        for (int i = 0; i < calls.length; i++)
+        {
+            methods[i] = resolve(calls[i]);
+        }
+        return new ReadBatch(methodManager, calls, methods);
+    }
+
+    /**
+     * Collects the client thread reads of a statement, without descending into nested scopes.
+     * Reading ahead is only safe when nothing else in the statement can change game state, so a statement
+     * that also calls an action or a user function is left alone.
+     *
+     * @param object The parsed value.
+     * @param reads The reads found so far.
+     * @return False if the statement must not be batched.
+     */
+    private boolean collectReads(Object object, List<MethodCall> reads)
+    {
+        if (object instanceof MethodCall)
+        {
+            MethodCall call = (MethodCall) object;
+            if (call.getTarget() != CallTarget.RETURN)
+            {
+                MethodDefinition method = resolve(call);
+                if (method == null || method.getKind() == MethodKind.ACTION)
+                {
+                    return false;
+                }
+                if (isBatchable(call, method))
+                {
+                    reads.add(call);
+                    return true;
+                }
+            }
+            for (Object arg : call.getArgs())
+            {
+                if (!collectReads(arg, reads))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (object instanceof VariableAssignment)
+        {
+            VariableAssignment assignment = (VariableAssignment) object;
+            if (assignment.getVar() instanceof ArrayAccess && !collectReads(((ArrayAccess) assignment.getVar()).getIndex(), reads))
+            {
+                return false;
+            }
+            return assignment.getValues().isEmpty() || collectReads(assignment.getValues().get(0), reads);
+        }
+        if (object instanceof Conditions)
+        {
+            Conditions conditions = (Conditions) object;
+            if (conditions.getConditions() == null)
+            {
+                return true;
+            }
+            for (Condition condition : conditions.getConditions().values())
+            {
+                if (condition != null && (!collectReads(condition.getLeft(), reads) || !collectReads(condition.getRight(), reads)))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (object instanceof ArrayAccess)
+        {
+            return collectReads(((ArrayAccess) object).getIndex(), reads);
+        }
+        if (object instanceof TernaryExpression)
+        {
+            TernaryExpression expression = (TernaryExpression) object;
+            return collectReads(expression.getConditions(), reads)
+                    && collectReads(expression.getTrueValue(), reads)
+                    && collectReads(expression.getFalseValue(), reads);
+        }
+        if (object instanceof NullCoalescingExpression)
+        {
+            NullCoalescingExpression expression = (NullCoalescingExpression) object;
+            return collectReads(expression.getLeft(), reads) && collectReads(expression.getRight(), reads);
+        }
+        if (object instanceof NullCheckExpression)
+        {
+            return collectReads(((NullCheckExpression) object).getValue(), reads);
+        }
+        if (object instanceof Expression)
+        {
+            Expression expression = (Expression) object;
+            return collectReads(expression.getData().getLeft(), reads) && collectReads(expression.getData().getRight(), reads);
+        }
+        return true;
+    }
+
+    private boolean isBatchable(MethodCall call, MethodDefinition method)
+    {
+        return method != null && method.isClientThread() && call.getConstantCall() != null;
+    }
+
+    private MethodDefinition resolve(MethodCall call)
+    {
+        return call.getMethod() != null ? call.getMethod() : methodManager.resolve(call.getName());
+    }
+
+    private ValueNode[] compileArgs(Object[] args)
+    {
+        ValueNode[] nodes = new ValueNode[args.length];
+        for (int i = 0; i < args.length; i++)
+        {
+            nodes[i] = compileValue(args[i]);
+        }
+        return nodes;
+    }
+
+    private ExecNode compileAssignment(VariableAssignment assignment)
+    {
+        AssignmentType type = assignment.getAssignmentType();
+        ValueNode value = assignment.getValues().isEmpty() ? null : compileValue(assignment.getValues().get(0));
+        if (value == null && type != AssignmentType.ADD_ONE && type != AssignmentType.REMOVE_ONE)
+        {
+            throw new IllegalArgumentException("Assignment to " + assignment.getVar() + " has no value");
+        }
+
+        if (assignment.getVar() instanceof ArrayAccess)
+        {
+            ArrayAccess arrayAccess = (ArrayAccess) assignment.getVar();
+            String name = arrayAccess.getVariable();
+            ValueNode index = compileValue(arrayAccess.getIndex());
+            return runtime ->
+            {
+                if (runtime.isGlobalArray(name))
+                {
+                    return;
+                }
+                runtime.processArrayIndexAssignment(name, index.eval(runtime), type, value);
+            };
+        }
+
+        String name = (String) assignment.getVar();
+        int slot = layout.slot(name);
+        IntNode intValue = value instanceof IntNode ? (IntNode) value : null;
+        switch (type)
+        {
+            case ADD_ONE:
+                return runtime ->
+                {
+                    if (!runtime.getVariableMap().addInt(slot, 1))
+                        runtime.incrementVariable(name, 1);
+                };
+            case REMOVE_ONE:
+                return runtime ->
+                {
+                    if (!runtime.getVariableMap().addInt(slot, -1))
+                        runtime.decrementVariable(name, 1);
+                };
+            case ASSIGNMENT:
+                return runtime ->
+                {
+                    if (intValue != null && intValue.isInt(runtime))
+                    {
+                        runtime.getVariableMap().putInt(slot, intValue.evalInt(runtime));
+                        return;
+                    }
+                    Object result = value.eval(runtime);
+                    if (result instanceof Scope)
+                    {
+                        runtime.assignVariable(name, type, result);
+                        return;
+                    }
+                    runtime.getVariableMap().put(slot, result);
+                };
+            case INCREMENT:
+            case DECREMENT:
+                if (intValue == null)
+                {
+                    break;
+                }
+                boolean increment = type == AssignmentType.INCREMENT;
+                return runtime ->
+                {
+                    if (!intValue.isInt(runtime))
+                    {
+                        runtime.assignVariable(name, type, value.eval(runtime));
+                        return;
+                    }
+                    int delta = intValue.evalInt(runtime);
+                    if (!runtime.getVariableMap().addInt(slot, increment ? delta : -delta))
+                    {
+                        runtime.assignVariable(name, type, delta);
+                    }
+                };
+        }
+        return runtime -> runtime.assignVariable(name, type, value.eval(runtime));
+    }
+
+    /**
+     * Compiles a value, mirroring {@code Runtime.getValue}.
+     *
+     * @param object The parsed value.
+     * @return The compiled value.
+     */
+    private ValueNode compileValue(Object object)
+    {
+        if (object instanceof Scope)
+        {
+            Scope scope = (Scope) object;
+            block(scope.getElements());
+            return runtime -> scope;
+        }
+        if (object instanceof String)
+        {
+            String string = (String) object;
+            if (string.startsWith("$"))
+            {
+                return new VariableNode(layout.slot(string));
+            }
+            else if (string.startsWith("!$"))
+            {
+                String varName = string.substring(1);
+                return runtime ->
+                {
+                    Object value = runtime.getVariableMap().get(varName);
+                    return (value instanceof Boolean) ? !((Boolean) value) : value;
+                };
+            }
+            String constant = string.startsWith("\"") ? string.substring(1) : string;
+            return runtime -> constant;
+        }
+        if (object instanceof ArrayAccess)
+        {
+            ArrayAccess arrayAccess = (ArrayAccess) object;
+            String name = arrayAccess.getVariable();
+            boolean negated = arrayAccess.isNegated();
+            ValueNode index = compileValue(arrayAccess.getIndex());
+            return runtime -> runtime.readArray(name, index.eval(runtime), negated);
+        }
+        if (object instanceof MethodCall)
+        {
+            MethodCall call = (MethodCall) object;
+            return compileCall(call, compileArgs(call.getArgs()));
+        }
+        if (object instanceof TernaryExpression)
+        {
+            TernaryExpression expression = (TernaryExpression) object;
+            ValueNode trueValue = compileValue(expression.getTrueValue());
+            ValueNode falseValue = compileValue(expression.getFalseValue());
+            TestNode conditions = compileConditions(expression.getConditions());
+            boolean negated = expression.isNegated();
+            return runtime ->
+            {
+                Object left = trueValue.eval(runtime);
+                Object right = falseValue.eval(runtime);
+                Object ret = conditions.test(runtime) ? runtime.getValue(left) : runtime.getValue(right);
+                if (ret instanceof Boolean)
+                {
+                    return negated != (Boolean) ret;
+                }
+                return ret;
+            };
+        }
+        if (object instanceof NullCoalescingExpression)
+        {
+            NullCoalescingExpression expression = (NullCoalescingExpression) object;
+            ValueNode leftValue = compileValue(expression.getLeft());
+            ValueNode rightValue = compileValue(expression.getRight());
+            boolean negated = expression.isNegated();
+            return runtime ->
+            {
+                Object left = leftValue.eval(runtime);
+                Object right = rightValue.eval(runtime);
+                Object ret = left != null && !left.equals("null") ? left : right;
+                if (ret instanceof Boolean)
+                {
+                    return negated != (Boolean) ret;
+                }
+                return ret;
+            };
+        }
+        if (object instanceof NullCheckExpression)
+        {
+            NullCheckExpression expression = (NullCheckExpression) object;
+            ValueNode value = compileValue(expression.getValue());
+            boolean negated = expression.isNegated();
+            return runtime ->
+            {
+                Object result = value.eval(runtime);
+                return negated != (result == null || result.equals("null"));
+            };
+        }
+        if (object instanceof Expression)
+        {
+            Expression expression = (Expression) object;
+            ValueNode left = compileValue(expression.getData().getLeft());
+            OperatorType operator = expression.getData().getCenter();
+            if (operator == null)
+            {
+                return runtime -> runtime.getValue(left.eval(runtime));
+            }
+            return new ArithmeticNode(left, operator, compileValue(expression.getData().getRight()));
+        }
+        if (object instanceof Integer)
+        {
+            return new IntConstantNode((Integer) object);
+        }
+        if (object instanceof Boolean)
+        {
+            return runtime -> object;
+        }
+        return NULL;
+    }
+
+    private TestNode compileConditions(Conditions conditions)
+    {
+        int size = conditions.getConditions().size();
+        TestNode[] tests = new TestNode[size];
+        boolean[] first = new boolean[size];
+        Glue[] glues = new Glue[size];
+        int i = 0;
+        for (Map.Entry<Integer, Condition> entry : conditions.getConditions().entrySet())
+        {
+            int key = entry.getKey();
+            tests[i] = compileCondition(entry.getValue());
+            first[i] = key == 0;
+            glues[i] = conditions.getGlues().get(key - 1);
+            i++;
+        }
+        return new ConditionsNode(tests, first, glues);
+    }
+
+    private TestNode compileCondition(Condition condition)
+    {
+        if (condition == null)
+        {
+            return runtime -> true;
+        }
+
+        ValueNode leftValue = compileValue(condition.getLeft());
+        ValueNode rightValue = compileValue(condition.getRight());
+        Comparator comparator = condition.getComparator();
+        if (leftValue instanceof IntNode && rightValue instanceof IntNode)
+        {
+            IntNode leftInt = (IntNode) leftValue;
+            IntNode rightInt = (IntNode) rightValue;
+            return runtime ->
+            {
+                if (leftInt.isInt(runtime) && rightInt.isInt(runtime))
+                {
+                    return comparator != null && comparator.process(leftInt.evalInt(runtime), rightInt.evalInt(runtime));
+                }
+                Object left = leftValue.eval(runtime);
+                if (left == null)
+                {
+                    return true;
+                }
+                return Runtime.compare(left, rightValue.eval(runtime), comparator);
+            };
+        }
+        return runtime ->
+        {
+            Object left = leftValue.eval(runtime);
+            if (left == null)
+            {
+                return true;
+            }
+            return Runtime.compare(left, rightValue.eval(runtime), comparator);
+        };
+    }
+}
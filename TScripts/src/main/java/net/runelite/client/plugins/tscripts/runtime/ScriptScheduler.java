@@ -0,0 +1,293 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import net.runelite.client.plugins.tscripts.sevices.cache.GameCache;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides which thread a runtime runs on.
+ * <p>
+ * Every profile has two bounded pools, one for the scripts started by the user and one for its event handlers, so a
+ * profile can never take more than {@link #SCRIPT_THREADS} plus {@link #HANDLER_THREADS} threads. Runs beyond that
+ * wait in the pool's queue.
+ * <p>
+ * Each event handler runs in a lane of its own: at most one run of a handler is in progress, and the runs behind it
+ * wait in order in a queue of at most {@link #LANE_CAPACITY}. A handler that binds event data sees every event, and
+ * only loses the oldest waiting one if it falls a full queue behind. Runs that carry no event data are identical, so
+ * a new one is collapsed into one already waiting. Both kinds of drop are counted in the handler's {@link Stats}.
+ * Handlers that block never hold up other handlers beyond the pool limit.
+ */
+public class ScriptScheduler
+{
+    private static final ScriptScheduler INSTANCE = new ScriptScheduler();
+
+    public static ScriptScheduler get()
+    {
+        return INSTANCE;
+    }
+
+    private static final int SCRIPT_THREADS = 16;
+    private static final int HANDLER_THREADS = 4;
+    private static final int LANE_CAPACITY = 32;
+
+    /**
+     * The stats of the script running on the current thread, if any.
+     */
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+    /**
+     * The lanes of the handlers that are running, by subscriber.
+     */
+    private final Map<Object, Lane> lanes = new ConcurrentHashMap<>();
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private final Map<String, ExecutorService> scriptPools = new ConcurrentHashMap<>();
+    private final Map<String, ExecutorService> handlerPools = new ConcurrentHashMap<>();
+
+    private ScriptScheduler()
+    {
+    }
+
+    /**
+     * Schedules a runtime.
+     *
+     * @param thread The runtime's script thread.
+     * @param profile The profile the script belongs to.
+     * @param script The script name.
+     * @param handler Whether the runtime is an event handler.
+     * @param subscriber Identifies the event handler, so its runs share a lane. Ignored for scripts.
+     * @param collapsible Whether the run carries no event data, so it may be merged with a waiting run of the same
+     *                    handler. Ignored for scripts.
+     */
+    public void submit(ScriptThread thread, String profile, String script, boolean handler, Object subscriber, boolean collapsible)
+    {
+        Stats scriptStats = getStats(profile, script);
+        long queued = System.nanoTime();
+        Runnable task = () -> {
+            long started = System.nanoTime();
+            scriptStats.queued(started - queued);
+            CURRENT.set(scriptStats);
+            try
+            {
+                thread.run();
+            }
+            finally
+            {
+                CURRENT.remove();
+                scriptStats.ran(System.nanoTime() - started);
+            }
+        };
+
+        if(!handler)
+        {
+            pool(scriptPools, profile, SCRIPT_THREADS, "script").execute(task);
+            return;
+        }
+
+        Run run = new Run(task, collapsible);
+        boolean[] start = new boolean[1];
+        lanes.compute(subscriber, (key, lane) -> {
+            if(lane == null)
+            {
+                start[0] = true;
+                return new Lane();
+            }
+            if(collapsible && lane.pending.stream().anyMatch(waiting -> waiting.collapsible))
+            {
+                scriptStats.dropped();
+                return lane;
+            }
+            if(lane.pending.size() == LANE_CAPACITY)
+            {
+                lane.pending.poll();
+                scriptStats.dropped();
+            }
+            lane.pending.add(run);
+            return lane;
+        });
+        if(start[0])
+            pool(handlerPools, profile, HANDLER_THREADS, "handler").execute(() -> drain(subscriber, task));
+    }
+
+    /**
+     * Gets the timing of a script and its event handlers.
+     *
+     * @param profile The profile.
+     * @param script The script name.
+     * @return The stats.
+     */
+    public Stats getStats(String profile, String script)
+    {
+        return stats.computeIfAbsent(profile + "/" + script, key -> new Stats());
+    }
+
+    /**
+     * Counts a blocking trip to the client thread against the script running on the current thread.
+     */
+    public static void recordHop()
+    {
+        Stats current = CURRENT.get();
+        if(current != null)
+            current.hop(GameCache.get().getTickCount());
+    }
+
+    /**
+     * Gets the stats of the script running on the current thread.
+     *
+     * @return The stats, or null if no script is running on this thread.
+     */
+    public static Stats current()
+    {
+        return CURRENT.get();
+    }
+
+    private static ExecutorService pool(Map<String, ExecutorService> pools, String profile, int threads, String kind)
+    {
+        return pools.computeIfAbsent(profile, key -> {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    new ThreadFactoryBuilder().setNameFormat("TScripts-" + key + "-" + kind + "-%d").setDaemon(true).build());
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        });
+    }
+
+    /**
+     * Runs a handler, then the runs waiting behind it in order, and closes the lane once none is.
+     */
+    private void drain(Object subscriber, Runnable task)
+    {
+        Runnable next = task;
+        while(next != null)
+        {
+            next.run();
+            Runnable[] pending = new Runnable[1];
+            lanes.computeIfPresent(subscriber, (key, lane) -> {
+                Run run = lane.pending.poll();
+                pending[0] = run == null ? null : run.task;
+                return run == null ? null : lane;
+            });
+            next = pending[0];
+        }
+    }
+
+    /**
+     * The runs waiting behind the one in progress for one event handler.
+     */
+    private static final class Lane
+    {
+        private final Deque<Run> pending = new ArrayDeque<>();
+    }
+
+    private static final class Run
+    {
+        private final Runnable task;
+        private final boolean collapsible;
+
+        private Run(Runnable task, boolean collapsible)
+        {
+            this.task = task;
+            this.collapsible = collapsible;
+        }
+    }
+
+    /**
+     * Queue and run times of one script, and how often it blocked on the client thread.
+     */
+    public static class Stats
+    {
+        private final AtomicLong runs = new AtomicLong();
+        private final AtomicLong queueNanos = new AtomicLong();
+        private final AtomicLong maxQueueNanos = new AtomicLong();
+        private final AtomicLong runNanos = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong hops = new AtomicLong();
+        private int hopTick = -1;
+        private int hopsThisTick;
+        private int hopsLastTick;
+        private int maxHopsPerTick;
+
+        private void queued(long nanos)
+        {
+            runs.incrementAndGet();
+            queueNanos.addAndGet(nanos);
+            maxQueueNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        private void ran(long nanos)
+        {
+            runNanos.addAndGet(nanos);
+        }
+
+        private void dropped()
+        {
+            dropped.incrementAndGet();
+        }
+
+        private synchronized void hop(int tick)
+        {
+            hops.incrementAndGet();
+            if(tick != hopTick)
+            {
+                hopsLastTick = tick == hopTick + 1 ? hopsThisTick : 0;
+                hopTick = tick;
+                hopsThisTick = 0;
+            }
+            hopsThisTick++;
+            maxHopsPerTick = Math.max(maxHopsPerTick, hopsThisTick);
+        }
+
+        public long getRuns()
+        {
+            return runs.get();
+        }
+
+        public long getQueueMillis()
+        {
+            return TimeUnit.NANOSECONDS.toMillis(queueNanos.get());
+        }
+
+        public long getMaxQueueMillis()
+        {
+            return TimeUnit.NANOSECONDS.toMillis(maxQueueNanos.get());
+        }
+
+        public long getRunMillis()
+        {
+            return TimeUnit.NANOSECONDS.toMillis(runNanos.get());
+        }
+
+        /**
+         * @return The event handler runs that never started, either collapsed into a waiting run or pushed out of a
+         * full lane.
+         */
+        public long getDropped()
+        {
+            return dropped.get();
+        }
+
+        public long getHops()
+        {
+            return hops.get();
+        }
+
+        /**
+         * @return The client thread hops made during the last complete game tick.
+         */
+        public synchronized int getHopsLastTick()
+        {
+            int tick = GameCache.get().getTickCount();
+            if(tick == hopTick)
+                return hopsLastTick;
+            return tick == hopTick + 1 ? hopsThisTick : 0;
+        }
+
+        public synchronized int getMaxHopsPerTick()
+        {
+            return maxHopsPerTick;
+        }
+    }
+}
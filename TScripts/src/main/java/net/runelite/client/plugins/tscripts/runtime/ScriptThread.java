@@ -9,15 +9,29 @@ public class ScriptThread implements Runnable
     private final Runnable runnable;
     @Getter
     private final String name = iterator.getNextLetter();
+    @Getter
+    private final CancellationToken token;
 
-    public ScriptThread(Runnable runnable)
+    public ScriptThread(Runnable runnable, CancellationToken token)
     {
         this.runnable = runnable;
+        this.token = token;
     }
 
     @Override
     public void run() {
         Thread.currentThread().setName(name);
-        runnable.run();
+        CancellationToken.bind(token);
+        try
+        {
+            runnable.run();
+        }
+        catch (ScriptCancelledException ignored)
+        {
+        }
+        finally
+        {
+            CancellationToken.bind(null);
+        }
     }
 }
@@ -0,0 +1,16 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+/**
+ * A compiled condition.
+ */
+@FunctionalInterface
+public interface TestNode
+{
+    /**
+     * Tests the condition.
+     *
+     * @param runtime The runtime to test against.
+     * @return Whether the condition is true.
+     */
+    boolean test(Runtime runtime);
+}
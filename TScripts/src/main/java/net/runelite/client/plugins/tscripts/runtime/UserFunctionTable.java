@@ -0,0 +1,73 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+import net.runelite.client.plugins.tscripts.adapter.models.method.MethodCall;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The user-defined functions of a runtime. Calls cache the function they resolved to, and every definition
+ * bumps the table version so a redefined function is picked up on the next call.
+ */
+public class UserFunctionTable
+{
+    private final Map<String, UserDefinedFunction> functions = new HashMap<>();
+    private int version = 0;
+
+    /**
+     * Defines or redefines a function.
+     *
+     * @param function The function.
+     */
+    public void put(UserDefinedFunction function)
+    {
+        functions.put(function.getName(), function);
+        version++;
+    }
+
+    public void clear()
+    {
+        functions.clear();
+        version++;
+    }
+
+    public int size()
+    {
+        return functions.size();
+    }
+
+    /**
+     * Resolves the user function a call refers to, reusing the binding cached on the call while it is current.
+     *
+     * @param call The call.
+     * @return The function, or null if no function with that name is defined.
+     */
+    public UserDefinedFunction resolve(MethodCall call)
+    {
+        Binding binding = call.getBinding();
+        if (binding != null && binding.table == this && binding.version == version)
+        {
+            return binding.function;
+        }
+        UserDefinedFunction function = functions.get(call.getName());
+        call.setBinding(new Binding(this, version, function));
+        return function;
+    }
+
+    /**
+     * The result of resolving a call against one version of a table.
+     */
+    public static final class Binding
+    {
+        private final UserFunctionTable table;
+        private final int version;
+        private final UserDefinedFunction function;
+
+        private Binding(UserFunctionTable table, int version, UserDefinedFunction function)
+        {
+            this.table = table;
+            this.version = version;
+            this.function = function;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+/**
+ * A compiled expression.
+ */
+@FunctionalInterface
+public interface ValueNode
+{
+    /**
+     * Evaluates the expression.
+     *
+     * @param runtime The runtime to evaluate against.
+     * @return The value.
+     */
+    Object eval(Runtime runtime);
+}
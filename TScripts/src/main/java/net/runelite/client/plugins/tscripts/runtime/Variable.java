@@ -7,16 +7,59 @@ import lombok.Setter;
 public class Variable
 {
     private final String name;
-    @Setter
     private Object value;
-    private final String scopeHash;
+    private final int scopeId;
+    private final int slot;
     @Setter
     private boolean frozen;
+    /**
+     * Whether the value is an integer held unboxed in {@link #intValue}. {@link #value} then caches its box, or is null.
+     */
+    private boolean integer;
+    private int intValue;
 
-    public Variable(String name, Object value, String scopeHash)
+    public Variable(String name, Object value, int scopeId, int slot)
     {
         this.name = name;
+        this.scopeId = scopeId;
+        this.slot = slot;
+        setValue(value);
+    }
+
+    public Object getValue()
+    {
+        Object boxed = value;
+        if (boxed == null && integer)
+        {
+            boxed = intValue;
+            value = boxed;
+        }
+        return boxed;
+    }
+
+    public void setValue(Object value)
+    {
+        if (value instanceof Integer)
+        {
+            intValue = (Integer) value;
+            integer = true;
+        }
+        else
+        {
+            integer = false;
+        }
         this.value = value;
-        this.scopeHash = scopeHash;
+    }
+
+    /**
+     * Sets an integer value without boxing it. The box is only made if the value is read as an object.
+     *
+     * @param value The value.
+     */
+    public void setIntValue(int value)
+    {
+        this.value = null;
+        intValue = value;
+        integer = true;
     }
 }
@@ -1,51 +1,120 @@
 package net.runelite.client.plugins.tscripts.runtime;
 
 import lombok.Getter;
-import net.runelite.client.plugins.tscripts.sevices.eventbus.TEventBus;
-import net.runelite.client.plugins.tscripts.sevices.eventbus.events.VariableUpdated;
-import net.runelite.client.plugins.tscripts.sevices.eventbus.events.VariablesCleaned;
-import net.runelite.client.plugins.tscripts.sevices.eventbus.events.VariablesCleared;
+import net.runelite.client.plugins.tscripts.adapter.models.Scope.ScopeId;
+import net.runelite.client.plugins.tscripts.sevices.DebugTelemetry;
 import net.runelite.client.plugins.tscripts.util.Logging;
 
 import java.rmi.UnexpectedException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Holds the variables of a script.
+ * <p>
+ * Every variable name is resolved to a slot, either ahead of time by {@link VariableResolver} or on first use.
+ * Scripts are dynamically scoped, so each slot holds the single variable of that name which is visible from the
+ * current scope stack. Frames remember which variables they bound, and unbind them when popped. This makes
+ * reads and writes a single array access instead of a scan over every variable.
+ * <p>
+ * Which name has which slot is kept in a {@link Layout}, apart from the values. Runtimes of one cached
+ * {@link CompiledScript} share its layout, so its compiled nodes find their slots in any of them.
+ */
 public class VariableMap
 {
+    /**
+     * Every live variable. Only used by the debug tools.
+     */
     @Getter
-    private final Map<String, Variable> variableMap = new ConcurrentHashMap<>();
-    private final Map<String, ArrayVariable> arrayMap = new ConcurrentHashMap<>();
-    private final Stack<String> scopeStack = new Stack<>();
+    private final Set<Variable> variables = ConcurrentHashMap.newKeySet();
+    @Getter
+    private Layout layout = new Layout();
+    private Variable[] bindings = new Variable[16];
+    private ArrayVariable[] arrayBindings = new ArrayVariable[16];
+    private final Stack<Frame> scopeStack = new Stack<>();
+    private final Map<Integer, Frame> detached = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the slot of a variable name, allocating one if the name has not been seen yet.
+     *
+     * @param name The variable name.
+     * @return The slot.
+     */
+    public int slot(String name)
+    {
+        int slot = layout.slot(name);
+        if (slot >= bindings.length)
+        {
+            grow(slot);
+        }
+        return slot;
+    }
+
+    private synchronized void grow(int slot)
+    {
+        int size = bindings.length;
+        while (size <= slot)
+        {
+            size *= 2;
+        }
+        if (size == bindings.length)
+        {
+            return;
+        }
+        bindings = Arrays.copyOf(bindings, size);
+        arrayBindings = Arrays.copyOf(arrayBindings, size);
+    }
+
+    private Variable binding(int slot)
+    {
+        return slot < bindings.length ? bindings[slot] : null;
+    }
+
+    private Variable lookup(String name)
+    {
+        int slot = layout.find(name);
+        return slot < 0 || slot >= bindings.length ? null : bindings[slot];
+    }
+
+    private ArrayVariable lookupArray(String name)
+    {
+        int slot = layout.find(name);
+        return slot < 0 || slot >= arrayBindings.length ? null : arrayBindings[slot];
+    }
 
     public void put(String key, Object index, Object value)
     {
-        for(ArrayVariable arrayVariable : arrayMap.values())
+        int slot = slot(key);
+        ArrayVariable arrayVariable = arrayBindings[slot];
+        if (arrayVariable != null)
         {
-            if(arrayVariable.getName().equals(key) && scopeStack.contains(arrayVariable.getScopeHash()))
-            {
-                arrayVariable.getValues().put(index, value);
-                postChangedEvent(key, value);
-                return;
-            }
+            arrayVariable.getValues().put(index, value);
+            postChangedEvent();
+            return;
         }
-        ArrayVariable arrayVariable = new ArrayVariable(key, scopeStack.peek());
+        Frame frame = scopeStack.peek();
+        arrayVariable = new ArrayVariable(key, frame.hash, slot);
         arrayVariable.getValues().put(index, value);
-        arrayMap.put(key + " " + scopeStack.peek(), arrayVariable);
+        arrayBindings[slot] = arrayVariable;
+        frame.arrays.add(arrayVariable);
     }
 
     public Object get(String key, Object index)
     {
-        for(ArrayVariable arrayVariable : arrayMap.values())
+        ArrayVariable arrayVariable = lookupArray(key);
+        if (arrayVariable != null)
         {
-            if(arrayVariable.getName().equals(key) && scopeStack.contains(arrayVariable.getScopeHash()))
+            Map<Object, Object> values = arrayVariable.getValues();
+            Object value = values.get(index);
+            if (value != null)
             {
-                for(Object entry : arrayVariable.getValues().keySet())
+                return value;
+            }
+            for (Object entry : values.keySet())
+            {
+                if ((entry + "").equals(index + ""))
                 {
-                    if((entry + "").equals(index + ""))
-                    {
-                        return arrayVariable.getValues().get(entry);
-                    }
+                    return values.get(entry);
                 }
             }
         }
@@ -55,173 +124,336 @@ public class VariableMap
 
     public void put(String key, Object value)
     {
-        for(Variable variable : variableMap.values())
+        put(slot(key), value);
+    }
+
+    /**
+     * Assigns a variable by slot, defining it in the current scope if it is not visible.
+     *
+     * @param slot The slot.
+     * @param value The value.
+     */
+    public void put(int slot, Object value)
+    {
+        Variable variable = binding(slot);
+        String key = layout.name(slot);
+        if (variable != null)
         {
-            if(variable.getName().equals(key) && scopeStack.contains(variable.getScopeHash()))
-            {
-                if(!variable.isFrozen())
-                    variable.setValue(value);
-                postChangedEvent(key, value);
-                return;
-            }
+            if (!variable.isFrozen())
+                variable.setValue(value);
+            postChangedEvent();
+            return;
         }
-        variableMap.put(key + " " + scopeStack.peek(), new Variable(key, value, scopeStack.peek()));
-        postChangedEvent(key, value);
+        if (slot >= bindings.length)
+        {
+            grow(slot);
+        }
+        Frame frame = scopeStack.peek();
+        variable = new Variable(key, value, frame.hash, slot);
+        bindings[slot] = variable;
+        frame.variables.add(variable);
+        variables.add(variable);
+        postChangedEvent();
     }
 
     public Object get(String key)
     {
-        for (Variable variable : variableMap.values())
+        Variable variable = lookup(key);
+        if (variable != null)
         {
-            if (variable.getName().equals(key) && scopeStack.contains(variable.getScopeHash()))
-            {
-                return variable.getValue();
-            }
+            return variable.getValue();
         }
         Logging.errorLog(new UnexpectedException("Variable not found: " + key));
-        return variableMap.getOrDefault(key + " " + scopeStack.peek(), new Variable(key, "null", scopeStack.peek())).getValue();
+        return "null";
     }
 
-    public boolean containsKey(String key)
+    /**
+     * Reads a variable by slot.
+     *
+     * @param slot The slot.
+     * @return The value, or null if the variable is not visible.
+     */
+    public Object get(int slot)
     {
-        for (Variable variable : variableMap.values())
+        Variable variable = binding(slot);
+        return variable == null ? null : variable.getValue();
+    }
+
+    /**
+     * Checks if the variable in a slot is visible and holds an integer.
+     *
+     * @param slot The slot.
+     * @return Whether {@link #getInt(int)} reads the exact value.
+     */
+    public boolean isInt(int slot)
+    {
+        Variable variable = binding(slot);
+        return variable != null && variable.isInteger();
+    }
+
+    /**
+     * Reads a variable by slot as an unboxed int, booleans count as 0/1 and anything else as 0.
+     *
+     * @param slot The slot.
+     * @return The value.
+     */
+    public int getInt(int slot)
+    {
+        Variable variable = binding(slot);
+        if (variable == null)
         {
-            if (variable.getName().equals(key) && scopeStack.contains(variable.getScopeHash()))
-            {
-                return true;
-            }
+            return 0;
+        }
+        if (variable.isInteger())
+        {
+            return variable.getIntValue();
         }
-        return false;
+        Object value = variable.getValue();
+        return value instanceof Boolean && (Boolean) value ? 1 : 0;
     }
 
-    public boolean containsKey(String key, Object index)
+    /**
+     * Assigns an integer by slot without boxing it, defining the variable in the current scope if it is not visible.
+     *
+     * @param slot The slot.
+     * @param value The value.
+     */
+    public void putInt(int slot, int value)
     {
-        for (ArrayVariable arrayVariable : arrayMap.values())
+        Variable variable = binding(slot);
+        if (variable == null)
         {
-            if (arrayVariable.getName().equals(key) && scopeStack.contains(arrayVariable.getScopeHash()))
-            {
-                return arrayVariable.getValues().containsKey(index);
-            }
+            put(slot, value);
+            return;
         }
-        return false;
+        if (!variable.isFrozen())
+            variable.setIntValue(value);
+        postChangedEvent();
     }
 
-    public void clear()
+    /**
+     * Adds to an integer variable by slot without boxing, a variable that is not visible counts as 0.
+     *
+     * @param slot The slot.
+     * @param delta The amount to add.
+     * @return False, without changing anything, if the variable holds something other than an integer.
+     */
+    public boolean addInt(int slot, int delta)
     {
-        variableMap.clear();
-        TEventBus.post(VariablesCleared.get());
+        Variable variable = binding(slot);
+        if (variable == null)
+        {
+            put(slot, delta);
+            return true;
+        }
+        if (!variable.isInteger())
+        {
+            return false;
+        }
+        if (!variable.isFrozen())
+            variable.setIntValue(variable.getIntValue() + delta);
+        postChangedEvent();
+        return true;
     }
 
-    private void postChangedEvent(String key, Object value)
+    public boolean containsKey(String key)
     {
-        TEventBus.post(new VariableUpdated(key, value));
+        return lookup(key) != null;
     }
 
-    public boolean isFrozen(String name, String hash)
+    public boolean containsKey(String key, Object index)
     {
-        for(Variable variable : variableMap.values())
-        {
-            if(variable.getName().equals(name) && variable.getScopeHash().equals(hash))
-            {
-                return variable.isFrozen();
-            }
-        }
-        return false;
+        ArrayVariable arrayVariable = lookupArray(key);
+        return arrayVariable != null && arrayVariable.getValues().containsKey(index);
     }
 
-    public void toggleFreeze(String name, String hash)
+    /**
+     * Clears the variables and switches to a layout that other maps may share.
+     *
+     * @param layout The layout.
+     */
+    public void clear(Layout layout)
     {
-        if (isFrozen(name, hash))
-            unfreeze(name, hash);
-        else
-            freeze(name, hash);
+        this.layout = layout;
+        grow(Math.max(layout.size() - 1, 0));
+        clear();
     }
 
-    private void freeze(String name, String hash)
+    public void clear()
     {
-        for(Variable variable : variableMap.values())
-        {
-            if(variable.getName().equals(name) && variable.getScopeHash().equals(hash))
-            {
-                variable.setFrozen(true);
-                return;
-            }
-        }
+        variables.clear();
+        detached.clear();
+        Arrays.fill(bindings, null);
+        Arrays.fill(arrayBindings, null);
+        postChangedEvent();
     }
 
-    private void unfreeze(String name, String hash)
+    private void postChangedEvent()
     {
-        for(Variable variable : variableMap.values())
-        {
-            if(variable.getName().equals(name) && variable.getScopeHash().equals(hash))
-            {
-                variable.setFrozen(false);
-                return;
-            }
-        }
+        DebugTelemetry.get().variablesChanged();
+    }
+
+    public void toggleFreeze(Variable variable)
+    {
+        variable.setFrozen(!variable.isFrozen());
     }
 
-    public void cleanScope(String scope)
+    public void pushScope(int scope)
     {
-        List<String> keysToRemove = new ArrayList<>();
-        for (var variable : variableMap.entrySet())
+        Frame frame = detached.remove(scope);
+        if (frame == null)
         {
-            if (variable.getValue().getScopeHash().equals(scope))
-            {
-                keysToRemove.add(variable.getKey());
-            }
+            frame = new Frame(scope);
         }
-        for (String key : keysToRemove)
+        else
         {
-            variableMap.remove(key);
+            bind(frame);
         }
+        scopeStack.push(frame);
+    }
 
-        keysToRemove.clear();
-        for(var arrayVariable : arrayMap.entrySet())
-        {
-            if(arrayVariable.getValue().getScopeHash().equals(scope))
-            {
-                keysToRemove.add(arrayVariable.getKey());
-            }
-        }
-        for(String key : keysToRemove)
+    public int popScope()
+    {
+        Frame frame = scopeStack.pop();
+        unbind(frame);
+        for (Variable variable : frame.variables)
         {
-            arrayMap.remove(key);
+            variables.remove(variable);
         }
-
-        TEventBus.post(new VariablesCleaned(scope));
+        if (ScopeId.isClone(frame.hash))
+            ScopeId.forget(frame.hash);
+        postChangedEvent();
+        return frame.hash;
     }
 
-    public void pushScope(String scope)
+    /**
+     * Pops a scope without cleaning it. Its variables come back into view when the same scope is pushed again.
+     *
+     * @return The scope id.
+     */
+    public int popScope2()
     {
-        scopeStack.push(scope);
+        Frame frame = scopeStack.pop();
+        unbind(frame);
+        detached.put(frame.hash, frame);
+        return frame.hash;
     }
 
-    public String popScope()
+    public int peekScope()
     {
-        String scope = scopeStack.pop();
-        cleanScope(scope);
-        return scope;
+        return scopeStack.peek().hash;
     }
 
-    public String popScope2()
+    private void bind(Frame frame)
     {
-        return scopeStack.pop();
+        for (Variable variable : frame.variables)
+        {
+            bindings[variable.getSlot()] = variable;
+        }
+        for (ArrayVariable arrayVariable : frame.arrays)
+        {
+            arrayBindings[arrayVariable.getSlot()] = arrayVariable;
+        }
     }
 
-    public String peekScope()
+    private void unbind(Frame frame)
     {
-        return scopeStack.peek();
+        for (Variable variable : frame.variables)
+        {
+            if (bindings[variable.getSlot()] == variable)
+                bindings[variable.getSlot()] = null;
+        }
+        for (ArrayVariable arrayVariable : frame.arrays)
+        {
+            if (arrayBindings[arrayVariable.getSlot()] == arrayVariable)
+                arrayBindings[arrayVariable.getSlot()] = null;
+        }
     }
 
     @Override
     public String toString()
     {
         StringBuilder out = new StringBuilder();
-        for (Variable variable : variableMap.values())
+        for (Variable variable : variables)
         {
-            out.append("\t").append(variable.getName()).append(" -> ").append(variable.getValue()).append(" (").append(variable.getScopeHash()).append(")");
+            out.append("\t").append(variable.getName()).append(" -> ").append(variable.getValue()).append(" (").append(ScopeId.describe(variable.getScopeId())).append(")");
         }
         return out.toString();
     }
+
+    /**
+     * The variables bound by one pushed scope.
+     */
+    private static class Frame
+    {
+        private final int hash;
+        private final List<Variable> variables = new ArrayList<>(4);
+        private final List<ArrayVariable> arrays = new ArrayList<>(1);
+
+        private Frame(int hash)
+        {
+            this.hash = hash;
+        }
+    }
+
+    /**
+     * The slot of every variable name seen so far. Slots are only ever added, so a layout can be shared by
+     * maps on different threads.
+     */
+    public static final class Layout
+    {
+        private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+        private volatile String[] names = new String[16];
+
+        /**
+         * Gets the slot of a variable name, allocating one if the name has not been seen yet.
+         *
+         * @param name The variable name.
+         * @return The slot.
+         */
+        public int slot(String name)
+        {
+            Integer slot = slots.get(name);
+            if (slot != null)
+            {
+                return slot;
+            }
+            return allocate(name);
+        }
+
+        private synchronized int allocate(String name)
+        {
+            Integer existing = slots.get(name);
+            if (existing != null)
+            {
+                return existing;
+            }
+            int slot = slots.size();
+            String[] names = this.names;
+            if (slot == names.length)
+            {
+                names = Arrays.copyOf(names, names.length * 2);
+            }
+            names[slot] = name;
+            this.names = names;
+            slots.put(name, slot);
+            return slot;
+        }
+
+        private int find(String name)
+        {
+            Integer slot = slots.get(name);
+            return slot == null ? -1 : slot;
+        }
+
+        private String name(int slot)
+        {
+            return names[slot];
+        }
+
+        private int size()
+        {
+            return slots.size();
+        }
+    }
 }
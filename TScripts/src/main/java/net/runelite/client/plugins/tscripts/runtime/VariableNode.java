@@ -0,0 +1,33 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+/**
+ * A compiled variable read, resolved to its slot. The value is read from the running runtime's map, so one
+ * node serves every runtime sharing the compiled script.
+ */
+public class VariableNode implements IntNode
+{
+    private final int slot;
+
+    public VariableNode(int slot)
+    {
+        this.slot = slot;
+    }
+
+    @Override
+    public Object eval(Runtime runtime)
+    {
+        return runtime.getVariableMap().get(slot);
+    }
+
+    @Override
+    public boolean isInt(Runtime runtime)
+    {
+        return runtime.getVariableMap().isInt(slot);
+    }
+
+    @Override
+    public int evalInt(Runtime runtime)
+    {
+        return runtime.getVariableMap().getInt(slot);
+    }
+}
@@ -0,0 +1,145 @@
+package net.runelite.client.plugins.tscripts.runtime;
+
+import net.runelite.client.plugins.tscripts.adapter.models.Element;
+import net.runelite.client.plugins.tscripts.adapter.models.Expression;
+import net.runelite.client.plugins.tscripts.adapter.models.Scope.Scope;
+import net.runelite.client.plugins.tscripts.adapter.models.condition.Condition;
+import net.runelite.client.plugins.tscripts.adapter.models.condition.Conditions;
+import net.runelite.client.plugins.tscripts.adapter.models.method.MethodCall;
+import net.runelite.client.plugins.tscripts.adapter.models.shorthand.NullCheckExpression;
+import net.runelite.client.plugins.tscripts.adapter.models.shorthand.NullCoalescingExpression;
+import net.runelite.client.plugins.tscripts.adapter.models.shorthand.TernaryExpression;
+import net.runelite.client.plugins.tscripts.adapter.models.variable.ArrayAccess;
+import net.runelite.client.plugins.tscripts.adapter.models.variable.VariableAssignment;
+
+import java.util.Map;
+
+/**
+ * Walks a parsed {@link Scope} tree and assigns a slot to every variable name it references,
+ * so the {@link VariableMap.Layout} is sized once before the script starts instead of growing while it runs.
+ */
+public class VariableResolver
+{
+    private final VariableMap.Layout layout;
+
+    private VariableResolver(VariableMap.Layout layout)
+    {
+        this.layout = layout;
+    }
+
+    /**
+     * Resolves the variable names of a scope tree.
+     *
+     * @param scope The root scope.
+     * @param layout The layout to resolve into.
+     */
+    public static void resolve(Scope scope, VariableMap.Layout layout)
+    {
+        new VariableResolver(layout).resolveScope(scope);
+    }
+
+    private void resolveScope(Scope scope)
+    {
+        resolveConditions(scope.getConditions());
+        resolveElements(scope.getElements());
+        if (scope.getElseElements() != null)
+        {
+            resolveElements(scope.getElseElements());
+        }
+    }
+
+    private void resolveElements(Map<Integer, Element> elements)
+    {
+        for (Element element : elements.values())
+        {
+            resolveValue(element);
+        }
+    }
+
+    private void resolveConditions(Conditions conditions)
+    {
+        if (conditions == null)
+        {
+            return;
+        }
+        for (Condition condition : conditions.getConditions().values())
+        {
+            if (condition == null)
+            {
+                continue;
+            }
+            resolveValue(condition.getLeft());
+            resolveValue(condition.getRight());
+        }
+        if (conditions.getForCondition() != null)
+        {
+            resolveValue(conditions.getForCondition().getVariableAssignment());
+            resolveValue(conditions.getForCondition().getOperation());
+        }
+    }
+
+    private void resolveValue(Object object)
+    {
+        if (object instanceof String)
+        {
+            String string = (String) object;
+            if (string.startsWith("!$"))
+            {
+                layout.slot(string.substring(1));
+            }
+            else if (string.startsWith("$"))
+            {
+                layout.slot(string);
+            }
+        }
+        else if (object instanceof Scope)
+        {
+            resolveScope((Scope) object);
+        }
+        else if (object instanceof VariableAssignment)
+        {
+            VariableAssignment assignment = (VariableAssignment) object;
+            resolveValue(assignment.getVar());
+            for (Object value : assignment.getValues())
+            {
+                resolveValue(value);
+            }
+        }
+        else if (object instanceof ArrayAccess)
+        {
+            ArrayAccess arrayAccess = (ArrayAccess) object;
+            layout.slot(arrayAccess.getVariable());
+            resolveValue(arrayAccess.getIndex());
+        }
+        else if (object instanceof MethodCall)
+        {
+            for (Object arg : ((MethodCall) object).getArgs())
+            {
+                resolveValue(arg);
+            }
+        }
+        else if (object instanceof Expression)
+        {
+            Expression expression = (Expression) object;
+            resolveValue(expression.getData().getLeft());
+            resolveValue(expression.getData().getRight());
+        }
+        else if (object instanceof TernaryExpression)
+        {
+            TernaryExpression expression = (TernaryExpression) object;
+            resolveConditions(expression.getConditions());
+            resolveValue(expression.getTrueValue());
+            resolveValue(expression.getFalseValue());
+        }
+        else if (object instanceof NullCoalescingExpression)
+        {
+            NullCoalescingExpression expression = (NullCoalescingExpression) object;
+            resolveValue(expression.getLeft());
+            resolveValue(expression.getRight());
+        }
+        else if (object instanceof NullCheckExpression)
+        {
+            resolveValue(((NullCheckExpression) object).getValue());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package net.runelite.client.plugins.tscripts.sevices;
+
+import lombok.Getter;
+import lombok.Setter;
+import net.runelite.client.plugins.tscripts.api.library.TDelay;
+import net.runelite.client.plugins.tscripts.sevices.cache.GameCache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spaces out script actions. The first action in a game tick goes through immediately, and every further
+ * action in the same tick waits until the minimum gap since the previous one has passed.
+ * The pacer is shared by all scripts, since they all act through the same client.
+ */
+public class ActionPacer
+{
+    public static ActionPacer get()
+    {
+        if(instance == null)
+            instance = new ActionPacer();
+        return instance;
+    }
+    private static ActionPacer instance;
+
+    /**
+     * The minimum gap between two actions in the same tick, in milliseconds.
+     */
+    @Getter
+    @Setter
+    private volatile int minimumGap = 20;
+    private int lastTick = -1;
+    private long nextAction = 0;
+
+    private final AtomicLong paced = new AtomicLong();
+    private final AtomicLong delayed = new AtomicLong();
+    private final AtomicLong delayedNanos = new AtomicLong();
+
+    private ActionPacer()
+    {
+    }
+
+    /**
+     * Waits until the next action may be sent.
+     */
+    public void pace()
+    {
+        long wait = reserve();
+        paced.incrementAndGet();
+        if(wait <= 0)
+            return;
+        delayed.incrementAndGet();
+        delayedNanos.addAndGet(wait);
+        TDelay.sleep(TimeUnit.NANOSECONDS.toMillis(wait));
+    }
+
+    /**
+     * Reserves the next action slot.
+     *
+     * @return How long the caller has to wait for its slot, in nanoseconds.
+     */
+    private synchronized long reserve()
+    {
+        long now = System.nanoTime();
+        long gap = TimeUnit.MILLISECONDS.toNanos(minimumGap);
+        int tick = GameCache.get().getTickCount();
+        if(tick != lastTick)
+        {
+            lastTick = tick;
+            nextAction = now + gap;
+            return 0;
+        }
+        long start = Math.max(now, nextAction);
+        nextAction = start + gap;
+        return start - now;
+    }
+
+    /**
+     * @return The number of actions that went through the pacer.
+     */
+    public long getPaced()
+    {
+        return paced.get();
+    }
+
+    /**
+     * @return The number of actions that had to wait.
+     */
+    public long getDelayed()
+    {
+        return delayed.get();
+    }
+
+    /**
+     * @return The total time actions spent waiting, in milliseconds.
+     */
+    public long getDelayedMillis()
+    {
+        return TimeUnit.NANOSECONDS.toMillis(delayedNanos.get());
+    }
+}
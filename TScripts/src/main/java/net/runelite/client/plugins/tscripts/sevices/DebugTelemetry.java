@@ -0,0 +1,129 @@
+package net.runelite.client.plugins.tscripts.sevices;
+
+import net.runelite.client.plugins.tscripts.runtime.Runtime;
+import net.runelite.client.plugins.tscripts.sevices.eventbus.TEventBus;
+import net.runelite.client.plugins.tscripts.sevices.eventbus.events.CurrentInstructionChanged;
+import net.runelite.client.plugins.tscripts.sevices.eventbus.events.FlagChanged;
+import net.runelite.client.plugins.tscripts.sevices.eventbus.events.VariablesChanged;
+
+import javax.swing.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Carries runtime state to the debug tools.
+ * <p>
+ * Runtimes only mark what changed. While a debug panel is showing, a swing timer collects the marks at a
+ * fixed rate and posts one event per kind of change, no matter how many changes happened in between.
+ * While no debug panel is showing, marking is a single volatile read.
+ */
+public class DebugTelemetry
+{
+    public static DebugTelemetry get()
+    {
+        if(instance == null)
+            instance = new DebugTelemetry();
+        return instance;
+    }
+    private static DebugTelemetry instance;
+
+    /**
+     * How often pending changes are posted, in milliseconds.
+     */
+    private static final int FLUSH_INTERVAL = 100;
+    private static final int FLAGS = 1;
+    private static final int INSTRUCTION = 1 << 1;
+    private static final int VARIABLES = 1 << 2;
+
+    private volatile boolean enabled = false;
+    private volatile Runtime flagsSource;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Timer timer = new Timer(FLUSH_INTERVAL, e -> flush());
+
+    private DebugTelemetry()
+    {
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Turns telemetry on while a debug panel is showing, and off otherwise. Must be called on the event dispatch thread.
+     *
+     * @param enabled Whether a debug panel is showing.
+     */
+    public void setEnabled(boolean enabled)
+    {
+        if(this.enabled == enabled)
+            return;
+
+        this.enabled = enabled;
+        if(enabled)
+        {
+            pending.set(FLAGS | INSTRUCTION | VARIABLES);
+            timer.start();
+        }
+        else
+        {
+            timer.stop();
+            pending.set(0);
+            flagsSource = null;
+        }
+    }
+
+    /**
+     * Marks the flags of a runtime as changed.
+     *
+     * @param runtime The runtime.
+     */
+    public void flagsChanged(Runtime runtime)
+    {
+        if(!enabled)
+            return;
+        flagsSource = runtime;
+        mark(FLAGS);
+    }
+
+    /**
+     * Marks the current instruction as changed.
+     */
+    public void instructionChanged()
+    {
+        if(!enabled)
+            return;
+        mark(INSTRUCTION);
+    }
+
+    /**
+     * Marks the variables as changed.
+     */
+    public void variablesChanged()
+    {
+        if(!enabled)
+            return;
+        mark(VARIABLES);
+    }
+
+    private void mark(int change)
+    {
+        int current = pending.get();
+        if((current & change) == 0)
+            pending.getAndAccumulate(change, (a, b) -> a | b);
+    }
+
+    private void flush()
+    {
+        int changes = pending.getAndSet(0);
+        if(changes == 0)
+            return;
+
+        Runtime runtime = flagsSource;
+        if((changes & FLAGS) != 0 && runtime != null)
+            TEventBus.post(new FlagChanged(runtime.getFlags()));
+        if((changes & INSTRUCTION) != 0)
+            TEventBus.post(CurrentInstructionChanged.get());
+        if((changes & VARIABLES) != 0)
+            TEventBus.post(VariablesChanged.get());
+    }
+}
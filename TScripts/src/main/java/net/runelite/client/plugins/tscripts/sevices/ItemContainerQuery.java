@@ -3,23 +3,27 @@ package net.runelite.client.plugins.tscripts.sevices;
 import net.runelite.api.InventoryID;
 import net.runelite.api.Item;
 import net.runelite.api.ItemContainer;
-import net.runelite.client.plugins.tscripts.api.library.TGame;
+import net.runelite.client.plugins.tscripts.sevices.cache.ItemContainerCache;
 import net.runelite.client.plugins.tscripts.types.ShopID;
-import net.unethicalite.client.Static;
 import org.apache.commons.lang3.ArrayUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.IntPredicate;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 /**
  * ItemContainer Query class
+ * <p>
+ * Reads from the container's snapshot in {@link ItemContainerCache}. Filters are combined into one condition and
+ * only run when a result is asked for, in a single pass that stops early for {@link #findFirst()}.
  * @param <T> container
  */
 public class ItemContainerQuery<T extends ItemContainer> {
-    private final List<Item> cache;
+    private final ItemContainerCache.Snapshot snapshot;
+    private IntPredicate filter = i -> true;
 
     /**
      * ItemContainerQuery constructor
@@ -27,14 +31,9 @@ public class ItemContainerQuery<T extends ItemContainer> {
      */
     public ItemContainerQuery(T itemContainer)
     {
-        if(itemContainer != null)
-            this.cache = TGame.invoke(() ->
-                    Arrays.stream(itemContainer.getItems())
-                            .filter(i -> i.getId() != -1)
-                            .collect(Collectors.toList())
-            );
-        else
-            this.cache = new ArrayList<>();
+        this.snapshot = itemContainer != null
+                ? ItemContainerCache.get().getSnapshot(itemContainer.getId())
+                : ItemContainerCache.Snapshot.EMPTY;
     }
 
     /**
@@ -43,15 +42,7 @@ public class ItemContainerQuery<T extends ItemContainer> {
      */
     public ItemContainerQuery(InventoryID inventoryId)
     {
-        ItemContainer itemContainer = TGame.invoke(() -> Static.getClient().getItemContainer(inventoryId));
-        if(itemContainer != null)
-            this.cache = TGame.invoke(() ->
-                    Arrays.stream(itemContainer.getItems())
-                            .filter(i -> i.getId() != -1)
-                            .collect(Collectors.toList())
-            );
-        else
-            this.cache = new ArrayList<>();
+        this.snapshot = ItemContainerCache.get().getSnapshot(inventoryId.getId());
     }
 
     /**
@@ -60,20 +51,9 @@ public class ItemContainerQuery<T extends ItemContainer> {
      */
     public ItemContainerQuery(ShopID inventoryId)
     {
-        if(inventoryId == null)
-        {
-            this.cache = new ArrayList<>();
-            return;
-        }
-        ItemContainer itemContainer = TGame.invoke(() -> Static.getClient().getItemContainer(inventoryId.getItemContainerId()));
-        if(itemContainer != null)
-            this.cache = TGame.invoke(() ->
-                    Arrays.stream(itemContainer.getItems())
-                            .filter(i -> i.getId() != -1)
-                            .collect(Collectors.toList())
-            );
-        else
-            this.cache = new ArrayList<>();
+        this.snapshot = inventoryId != null
+                ? ItemContainerCache.get().getSnapshot(inventoryId.getItemContainerId())
+                : ItemContainerCache.Snapshot.EMPTY;
     }
 
     /**
@@ -83,8 +63,7 @@ public class ItemContainerQuery<T extends ItemContainer> {
      */
     public ItemContainerQuery<T> withId(int id)
     {
-        cache.removeIf(o -> o.getId() != id);
-        return this;
+        return filter(i -> snapshot.getItem(i).getId() == id);
     }
 
     /**
@@ -94,8 +73,7 @@ public class ItemContainerQuery<T extends ItemContainer> {
      */
     public ItemContainerQuery<T> withId2(int id)
     {
-        cache.removeIf(o -> o.getId() != id && o.getNotedId() != id);
-        return this;
+        return filter(i -> snapshot.getItem(i).getId() == id || snapshot.getItem(i).getNotedId() == id);
     }
 
     /**
@@ -105,14 +83,15 @@ public class ItemContainerQuery<T extends ItemContainer> {
      */
     public ItemContainerQuery<T> withName(String name)
     {
-        cache.removeIf(o -> !o.getName().equalsIgnoreCase(name));
-        return this;
+        return filter(i -> snapshot.getName(i).equalsIgnoreCase(name));
     }
 
     public ItemContainerQuery<T> withAction(String action)
     {
-        cache.removeIf(o -> o.getActions() != null && Arrays.stream(o.getActions()).noneMatch(a -> a != null && a.contains(action)));
-        return this;
+        return filter(i -> {
+            String[] actions = snapshot.getItem(i).getActions();
+            return actions == null || Arrays.stream(actions).anyMatch(a -> a != null && a.contains(action));
+        });
     }
 
     /**
@@ -122,8 +101,7 @@ public class ItemContainerQuery<T extends ItemContainer> {
      */
     public ItemContainerQuery<T> excludeSlots(int... slots)
     {
-        cache.removeIf(i -> ArrayUtils.contains(slots, i.getSlot()));
-        return this;
+        return filter(i -> !ArrayUtils.contains(slots, snapshot.getItem(i).getSlot()));
     }
 
     /**
@@ -133,8 +111,7 @@ public class ItemContainerQuery<T extends ItemContainer> {
      */
     public ItemContainerQuery<T> includeSlots(int... slots)
     {
-        cache.removeIf(i -> !ArrayUtils.contains(slots, i.getSlot()));
-        return this;
+        return filter(i -> ArrayUtils.contains(slots, snapshot.getItem(i).getSlot()));
     }
 
     /**
@@ -144,8 +121,8 @@ public class ItemContainerQuery<T extends ItemContainer> {
      */
     public ItemContainerQuery<T> withPartialName(String namePart)
     {
-        cache.removeIf(o -> o.getName().toLowerCase().contains(namePart.toLowerCase()));
-        return this;
+        String part = namePart.toLowerCase(Locale.ROOT);
+        return filter(i -> snapshot.getName(i).toLowerCase(Locale.ROOT).contains(part));
     }
 
     /**
@@ -155,8 +132,7 @@ public class ItemContainerQuery<T extends ItemContainer> {
      */
     public ItemContainerQuery<T> removeIf(Predicate<Item> predicate)
     {
-        cache.removeIf(predicate);
-        return this;
+        return filter(i -> !predicate.test(snapshot.getItem(i)));
     }
 
     /**
@@ -166,8 +142,7 @@ public class ItemContainerQuery<T extends ItemContainer> {
      */
     public ItemContainerQuery<T> keepIf(Predicate<Item> predicate)
     {
-        cache.removeIf(predicate.negate());
-        return this;
+        return filter(i -> predicate.test(snapshot.getItem(i)));
     }
 
     /**
@@ -176,7 +151,13 @@ public class ItemContainerQuery<T extends ItemContainer> {
      */
     public List<Item> collect()
     {
-        return cache;
+        List<Item> items = new ArrayList<>();
+        for(int i = 0; i < snapshot.size(); i++)
+        {
+            if(filter.test(i))
+                items.add(snapshot.getItem(i));
+        }
+        return items;
     }
 
     /**
@@ -185,9 +166,12 @@ public class ItemContainerQuery<T extends ItemContainer> {
      */
     public Item findFirst()
     {
-        if(cache.isEmpty())
-            return null;
-        return cache.get(0);
+        for(int i = 0; i < snapshot.size(); i++)
+        {
+            if(filter.test(i))
+                return snapshot.getItem(i);
+        }
+        return null;
     }
 
     /**
@@ -197,10 +181,17 @@ public class ItemContainerQuery<T extends ItemContainer> {
     public int getQuantity()
     {
         int count = 0;
-        for(Item item : cache)
+        for(int i = 0; i < snapshot.size(); i++)
         {
-            count += item.getQuantity();
+            if(filter.test(i))
+                count += snapshot.getItem(i).getQuantity();
         }
         return count;
     }
-}
\ No newline at end of file
+
+    private ItemContainerQuery<T> filter(IntPredicate condition)
+    {
+        filter = filter.and(condition);
+        return this;
+    }
+}
@@ -4,15 +4,15 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import net.runelite.client.eventbus.EventBus;
 import net.runelite.client.plugins.tscripts.TScriptsPlugin;
-import net.runelite.client.plugins.tscripts.adapter.Adapter;
-import net.runelite.client.plugins.tscripts.adapter.models.Scope.Scope;
 import net.runelite.client.plugins.tscripts.api.library.TGame;
+import net.runelite.client.plugins.tscripts.runtime.CompiledScript;
+import net.runelite.client.plugins.tscripts.runtime.ExecutionMode;
 import net.runelite.client.plugins.tscripts.runtime.Runtime;
+import net.runelite.client.plugins.tscripts.sevices.cache.ScriptCache;
 import net.runelite.client.plugins.tscripts.util.Logging;
 import net.runelite.client.plugins.tscripts.util.ThreadPool;
 import net.unethicalite.client.Static;
 
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
@@ -34,16 +34,18 @@ public class ScriptEventService
     public void registerSubscriber(String name, String profile, Class<?> event)
     {
         unregisterSubscriber(name);
+        ExecutionMode executionMode = plugin.configHandler.getExecutionMode(name);
         subscribers.put(name, TGame.register(event, ev -> {
             try {
                 if(!plugin.config.eventsEnabled())
                     return;
                 Path path = Paths.get(plugin.getScriptPath(name, profile));
-                String code = Files.readString(path);
-                Scope scope = Adapter.parse(code);
+                CompiledScript script = ScriptCache.get().get(profile, name, path, executionMode);
                 Runtime runtime = new Runtime();
                 runtime.setAnonymous(true);
-                runtime.execute(scope, "TS_EVENT", "TS_EVENT");
+                runtime.setOwner(profile, name);
+                runtime.setSubscriber(name);
+                runtime.execute(script, "TS_EVENT", "TS_EVENT");
             } catch (Exception ex) {
                 Logging.errorLog(ex);
             }
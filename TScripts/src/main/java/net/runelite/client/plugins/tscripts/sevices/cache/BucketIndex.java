@@ -0,0 +1,75 @@
+package net.runelite.client.plugins.tscripts.sevices.cache;
+
+import com.google.common.collect.ImmutableListMultimap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups items into buckets by key. Each item remembers the key it was added under, so it can be removed even if
+ * the value the key came from has changed since.
+ * <p>
+ * Not thread safe, callers hold the lock of the cache the index belongs to.
+ *
+ * @param <K> The key type.
+ * @param <T> The item type.
+ */
+public class BucketIndex<K, T>
+{
+    private final Map<K, List<T>> buckets = new HashMap<>();
+    private final Map<T, K> keys = new HashMap<>();
+
+    /**
+     * Adds an item. Items with a null key are not indexed.
+     *
+     * @param key The key.
+     * @param item The item.
+     */
+    public void add(K key, T item)
+    {
+        if(key == null)
+            return;
+        remove(item);
+        keys.put(item, key);
+        buckets.computeIfAbsent(key, k -> new ArrayList<>(2)).add(item);
+    }
+
+    /**
+     * Removes an item from the bucket it was added to.
+     *
+     * @param item The item.
+     */
+    public void remove(T item)
+    {
+        K key = keys.remove(item);
+        if(key == null)
+            return;
+        List<T> bucket = buckets.get(key);
+        bucket.remove(item);
+        if(bucket.isEmpty())
+            buckets.remove(key);
+    }
+
+    /**
+     * Copies the index into an immutable multimap, for publishing to readers that do not hold the lock.
+     *
+     * @return The copy. Its buckets keep the order items were added in.
+     */
+    public ImmutableListMultimap<K, T> freeze()
+    {
+        ImmutableListMultimap.Builder<K, T> builder = ImmutableListMultimap.builder();
+        for(Map.Entry<K, List<T>> bucket : buckets.entrySet())
+        {
+            builder.putAll(bucket.getKey(), bucket.getValue());
+        }
+        return builder.build();
+    }
+
+    public void clear()
+    {
+        buckets.clear();
+        keys.clear();
+    }
+}
@@ -1,16 +1,25 @@
 package net.runelite.client.plugins.tscripts.sevices.cache;
 
+import com.google.common.collect.ImmutableList;
 import lombok.Getter;
 import net.runelite.api.*;
 import net.runelite.api.events.*;
 import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.plugins.tscripts.sevices.localpathfinder.WorldPointUtil;
 import net.unethicalite.client.Static;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Stream;
 
+/**
+ * Tracks the objects, NPCs and players in the scene from their spawn and despawn events.
+ * <p>
+ * The event handlers update mutable sets and indexes under {@link #mutex}. Whatever changed is published as a new
+ * immutable {@link GameSnapshot} on the next game tick or game state change, so readers never lock or copy and
+ * always see a consistent view from one tick. Actors move every tick, so their spatial indexes are rebuilt on every
+ * tick as well.
+ */
 public class GameCache
 {
     public static GameCache get()
@@ -20,17 +29,37 @@ public class GameCache
         return instance;
     }
     private static GameCache instance;
-    private final List<TileObject> objectCache = Collections.synchronizedList(new ArrayList<>());
-    private final List<NPC> npcCache = Collections.synchronizedList(new ArrayList<>());
-    private final List<Player> playerCache = Collections.synchronizedList(new ArrayList<>());
+    private final Object mutex = new Object();
+    private final Set<TileObject> objectCache = new LinkedHashSet<>();
+    private final Set<NPC> npcCache = new LinkedHashSet<>();
+    private final Set<Player> playerCache = new LinkedHashSet<>();
+    private final Set<TileItem> itemCache = new LinkedHashSet<>();
+    private final BucketIndex<Integer, TileObject> objectsById = new BucketIndex<>();
+    private final BucketIndex<String, TileObject> objectsByName = new BucketIndex<>();
+    private final BucketIndex<Integer, TileObject> objectsByTile = new BucketIndex<>();
+    private final BucketIndex<Integer, NPC> npcsById = new BucketIndex<>();
+    private final BucketIndex<String, NPC> npcsByName = new BucketIndex<>();
+    private boolean objectsChanged = false;
+    private boolean npcsChanged = false;
+    private boolean playersChanged = false;
+    private boolean itemsChanged = false;
+    /**
+     * The latest published snapshot.
+     */
+    @Getter
+    private volatile GameSnapshot snapshot = GameSnapshot.EMPTY;
     private Actor lastInteracting = null;
     @Getter
-    private int tickCount = 0;
+    private volatile int tickCount = 0;
+    private final Object barrier = new Object();
+    private int signal = 0;
 
     @Subscribe
     public void onGameTick(GameTick event)
     {
         tickCount++;
+        publish(true);
+        signal();
     }
 
     @Subscribe
@@ -38,6 +67,68 @@ public class GameCache
     {
         if(event.getGameState() == GameState.LOGIN_SCREEN || event.getGameState() == GameState.HOPPING)
             tickCount = 0;
+        if(event.getGameState() == GameState.LOADING)
+            clearItems();
+        publish(false);
+        signal();
+    }
+
+    @Subscribe
+    public void onItemContainerChanged(ItemContainerChanged event)
+    {
+        if(event.getContainerId() == InventoryID.INVENTORY.getId())
+            signal();
+    }
+
+    // ############## Tick barrier ##############
+
+    /**
+     * Gets the current signal. Pass it to {@link #await(int)} to park until anything changes after this call.
+     *
+     * @return The signal.
+     */
+    public int getSignal()
+    {
+        synchronized (barrier)
+        {
+            return signal;
+        }
+    }
+
+    /**
+     * Wakes every thread parked in {@link #await(int)}. Called on game ticks, game state changes, inventory changes
+     * and when a script is killed.
+     */
+    public void signal()
+    {
+        synchronized (barrier)
+        {
+            signal++;
+            barrier.notifyAll();
+        }
+    }
+
+    /**
+     * Parks the calling thread until the signal moves past the one it has seen.
+     *
+     * @param seen The signal from {@link #getSignal()}.
+     */
+    public void await(int seen)
+    {
+        synchronized (barrier)
+        {
+            try
+            {
+                while(signal == seen)
+                {
+                    barrier.wait();
+                }
+            }
+            catch (InterruptedException ex)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
     }
 
     private GameCache()
@@ -45,6 +136,49 @@ public class GameCache
         Static.getEventBus().register(this);
     }
 
+    // ############## Snapshots ##############
+
+    /**
+     * Publishes a new snapshot if anything changed since the last one. Unchanged parts are shared with the last
+     * snapshot rather than copied again.
+     *
+     * @param moved Whether actors may have moved, so their spatial indexes need rebuilding.
+     */
+    private void publish(boolean moved)
+    {
+        synchronized (mutex)
+        {
+            if(!objectsChanged && !npcsChanged && !playersChanged && !itemsChanged && !moved)
+                return;
+            GameSnapshot last = snapshot;
+            ImmutableList<NPC> npcs = npcsChanged ? ImmutableList.copyOf(npcCache) : last.getNpcs();
+            ImmutableList<Player> players = playersChanged ? ImmutableList.copyOf(playerCache) : last.getPlayers();
+            ImmutableList<TileObject> objects = objectsChanged ? ImmutableList.copyOf(objectCache) : last.getObjects();
+            ImmutableList<TileItem> items = itemsChanged ? ImmutableList.copyOf(itemCache) : last.getItems();
+            snapshot = new GameSnapshot(
+                    tickCount,
+                    last.getVersion() + 1,
+                    objects,
+                    npcs,
+                    players,
+                    items,
+                    objectsChanged ? objectsById.freeze() : last.getObjectsById(),
+                    objectsChanged ? objectsByName.freeze() : last.getObjectsByName(),
+                    objectsChanged ? objectsByTile.freeze() : last.getObjectsByTile(),
+                    npcsChanged ? npcsById.freeze() : last.getNpcsById(),
+                    npcsChanged ? npcsByName.freeze() : last.getNpcsByName(),
+                    objectsChanged ? SpatialIndex.of(objects, TileObject::getWorldLocation) : last.getObjectGrid(),
+                    npcsChanged || moved ? SpatialIndex.of(npcs, NPC::getWorldLocation) : last.getNpcGrid(),
+                    playersChanged || moved ? SpatialIndex.of(players, Player::getWorldLocation) : last.getPlayerGrid(),
+                    itemsChanged ? SpatialIndex.of(items, TileItem::getWorldLocation) : last.getItemGrid()
+            );
+            objectsChanged = false;
+            npcsChanged = false;
+            playersChanged = false;
+            itemsChanged = false;
+        }
+    }
+
     // ############## Actors ##############
 
     public Actor getInteracting()
@@ -57,69 +191,99 @@ public class GameCache
 
     public Stream<Player> playerStream()
     {
-        synchronized (playerCache)
-        {
-            return new ArrayList<>(playerCache).stream();
-        }
+        return snapshot.getPlayers().stream();
     }
 
     public Stream<NPC> npcStream()
     {
-        synchronized (npcCache)
-        {
-            return new ArrayList<>(npcCache).stream();
-        }
+        return snapshot.getNpcs().stream();
     }
 
-    public ArrayList<Player> playerList()
+    public List<Player> playerList()
     {
-        synchronized (playerCache)
-        {
-            return new ArrayList<>(playerCache);
-        }
+        return snapshot.getPlayers();
     }
 
-    public ArrayList<NPC> npcList()
+    public List<NPC> npcList()
     {
-        synchronized (npcCache)
-        {
-            return new ArrayList<>(npcCache);
-        }
+        return snapshot.getNpcs();
+    }
+
+    /**
+     * Gets the cached NPCs with an id, without copying the whole cache.
+     *
+     * @param id The NPC id.
+     * @return The NPCs, in spawn order.
+     */
+    public List<NPC> npcsWithId(int id)
+    {
+        return snapshot.npcsWithId(id);
+    }
+
+    /**
+     * Gets the cached NPCs with a name, ignoring case.
+     *
+     * @param name The NPC name.
+     * @return The NPCs, in spawn order.
+     */
+    public List<NPC> npcsNamed(String name)
+    {
+        return snapshot.npcsNamed(name);
     }
 
     @Subscribe
     public void onPlayerSpawned(PlayerSpawned event)
     {
-        synchronized (playerCache)
+        synchronized (mutex)
         {
-            playerCache.add(event.getPlayer());
+            playersChanged |= playerCache.add(event.getPlayer());
         }
     }
 
     @Subscribe
     public void onNpcSpawned(NpcSpawned event)
     {
-        synchronized (npcCache)
+        synchronized (mutex)
         {
             npcCache.add(event.getNpc());
+            indexNpc(event.getNpc());
+            npcsChanged = true;
+        }
+    }
+
+    @Subscribe
+    public void onNpcChanged(NpcChanged event)
+    {
+        synchronized (mutex)
+        {
+            if(npcCache.contains(event.getNpc()))
+            {
+                indexNpc(event.getNpc());
+                npcsChanged = true;
+            }
         }
     }
 
     @Subscribe
     public void onPlayerDespawned(PlayerDespawned event)
     {
-        synchronized (playerCache)
+        synchronized (mutex)
         {
-            playerCache.remove(event.getPlayer());
+            playersChanged |= playerCache.remove(event.getPlayer());
         }
     }
 
     @Subscribe
     public void onNpcDespawned(NpcDespawned event)
     {
-        synchronized (npcCache)
+        synchronized (mutex)
         {
-            npcCache.remove(event.getNpc());
+            if(npcCache.remove(event.getNpc()))
+            {
+                npcsById.remove(event.getNpc());
+                npcsByName.remove(event.getNpc());
+                npcsChanged = true;
+            }
         }
     }
 
@@ -143,16 +307,85 @@ public class GameCache
         return actor.getName() != null;
     }
 
-    // ############## TileObjects ##############
+    private void indexNpc(NPC npc)
+    {
+        npcsById.add(npc.getId(), npc);
+        npcsByName.add(GameSnapshot.lowercase(npc.getName()), npc);
+    }
 
-    public Stream<TileObject> objectStream()
+    // ############## Ground items ##############
+
+    @Subscribe
+    public void onItemSpawned(ItemSpawned event)
+    {
+        synchronized (mutex)
+        {
+            itemsChanged |= itemCache.add(event.getItem());
+        }
+    }
+
+    @Subscribe
+    public void onItemDespawned(ItemDespawned event)
+    {
+        synchronized (mutex)
+        {
+            itemsChanged |= itemCache.remove(event.getItem());
+        }
+    }
+
+    /**
+     * Ground items are spawned again for the new scene after loading, without despawning the old ones first.
+     */
+    private void clearItems()
     {
-        synchronized (objectCache)
+        synchronized (mutex)
         {
-            return new ArrayList<>(objectCache).stream();
+            itemsChanged |= !itemCache.isEmpty();
+            itemCache.clear();
         }
     }
 
+    // ############## TileObjects ##############
+
+    public Stream<TileObject> objectStream()
+    {
+        return snapshot.getObjects().stream();
+    }
+
+    /**
+     * Gets the cached objects with an id, without copying the whole cache.
+     *
+     * @param id The object id.
+     * @return The objects, in spawn order.
+     */
+    public List<TileObject> objectsWithId(int id)
+    {
+        return snapshot.objectsWithId(id);
+    }
+
+    /**
+     * Gets the cached objects with a name, ignoring case.
+     *
+     * @param name The object name.
+     * @return The objects, in spawn order.
+     */
+    public List<TileObject> objectsNamed(String name)
+    {
+        return snapshot.objectsNamed(name);
+    }
+
+    /**
+     * Gets the cached objects whose world location is on a tile, on any plane.
+     *
+     * @param x The world x.
+     * @param y The world y.
+     * @return The objects, in spawn order.
+     */
+    public List<TileObject> objectsAt(int x, int y)
+    {
+        return snapshot.objectsAt(x, y);
+    }
+
     @Subscribe
     public void onSpawned(GameObjectSpawned event)
     {
@@ -203,26 +436,27 @@ public class GameCache
 
     private void addTileObject(TileObject tileObject)
     {
-        synchronized (objectCache)
+        synchronized (mutex)
         {
-            objectCache.add(tileObject);
+            if(!objectCache.add(tileObject))
+                return;
+            objectsById.add(tileObject.getId(), tileObject);
+            objectsByName.add(GameSnapshot.lowercase(tileObject.getName()), tileObject);
+            objectsByTile.add(WorldPointUtil.fromCord(tileObject.getWorldLocation().getX(), tileObject.getWorldLocation().getY()), tileObject);
+            objectsChanged = true;
         }
     }
 
     private void removeTileObject(TileObject tileObject)
     {
-        synchronized (objectCache)
+        synchronized (mutex)
         {
-            Iterator<TileObject> iterator = objectCache.iterator();
-            while (iterator.hasNext())
-            {
-                TileObject obj = iterator.next();
-                if (obj.equals(tileObject))
-                {
-                    iterator.remove();
-                    break;
-                }
-            }
+            if(!objectCache.remove(tileObject))
+                return;
+            objectsById.remove(tileObject);
+            objectsByName.remove(tileObject);
+            objectsByTile.remove(tileObject);
+            objectsChanged = true;
         }
     }
 }
@@ -0,0 +1,129 @@
+package net.runelite.client.plugins.tscripts.sevices.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.runelite.api.NPC;
+import net.runelite.api.Player;
+import net.runelite.api.TileItem;
+import net.runelite.api.TileObject;
+import net.runelite.client.plugins.tscripts.sevices.localpathfinder.WorldPointUtil;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An immutable view of the cached objects, NPCs, players and ground items, published by {@link GameCache} at most
+ * once per game tick. Readers on any thread can hold on to a snapshot and query it without locking or copying.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class GameSnapshot
+{
+    static final GameSnapshot EMPTY = new GameSnapshot(0, 0, ImmutableList.of(), ImmutableList.of(), ImmutableList.of(),
+            ImmutableList.of(), ImmutableListMultimap.of(), ImmutableListMultimap.of(), ImmutableListMultimap.of(),
+            ImmutableListMultimap.of(), ImmutableListMultimap.of(), SpatialIndex.empty(), SpatialIndex.empty(),
+            SpatialIndex.empty(), SpatialIndex.empty());
+
+    /**
+     * The game tick count the snapshot was published on.
+     */
+    private final int tick;
+    /**
+     * Counts up by one with every published snapshot.
+     */
+    private final long version;
+    private final ImmutableList<TileObject> objects;
+    private final ImmutableList<NPC> npcs;
+    private final ImmutableList<Player> players;
+    private final ImmutableList<TileItem> items;
+    @Getter(AccessLevel.PACKAGE)
+    private final ImmutableListMultimap<Integer, TileObject> objectsById;
+    @Getter(AccessLevel.PACKAGE)
+    private final ImmutableListMultimap<String, TileObject> objectsByName;
+    @Getter(AccessLevel.PACKAGE)
+    private final ImmutableListMultimap<Integer, TileObject> objectsByTile;
+    @Getter(AccessLevel.PACKAGE)
+    private final ImmutableListMultimap<Integer, NPC> npcsById;
+    @Getter(AccessLevel.PACKAGE)
+    private final ImmutableListMultimap<String, NPC> npcsByName;
+    /**
+     * The objects by location.
+     */
+    private final SpatialIndex<TileObject> objectGrid;
+    /**
+     * The NPCs by where they stood on {@link #tick}.
+     */
+    private final SpatialIndex<NPC> npcGrid;
+    /**
+     * The players by where they stood on {@link #tick}.
+     */
+    private final SpatialIndex<Player> playerGrid;
+    /**
+     * The ground items by location.
+     */
+    private final SpatialIndex<TileItem> itemGrid;
+
+    /**
+     * Gets the objects with an id.
+     *
+     * @param id The object id.
+     * @return The objects, in spawn order.
+     */
+    public List<TileObject> objectsWithId(int id)
+    {
+        return objectsById.get(id);
+    }
+
+    /**
+     * Gets the objects with a name, ignoring case.
+     *
+     * @param name The object name.
+     * @return The objects, in spawn order.
+     */
+    public List<TileObject> objectsNamed(String name)
+    {
+        return name == null ? ImmutableList.of() : objectsByName.get(lowercase(name));
+    }
+
+    /**
+     * Gets the objects whose world location is on a tile, on any plane.
+     *
+     * @param x The world x.
+     * @param y The world y.
+     * @return The objects, in spawn order.
+     */
+    public List<TileObject> objectsAt(int x, int y)
+    {
+        return objectsByTile.get(WorldPointUtil.fromCord(x, y));
+    }
+
+    /**
+     * Gets the NPCs with an id.
+     *
+     * @param id The NPC id.
+     * @return The NPCs, in spawn order.
+     */
+    public List<NPC> npcsWithId(int id)
+    {
+        return npcsById.get(id);
+    }
+
+    /**
+     * Gets the NPCs with a name, ignoring case.
+     *
+     * @param name The NPC name.
+     * @return The NPCs, in spawn order.
+     */
+    public List<NPC> npcsNamed(String name)
+    {
+        return name == null ? ImmutableList.of() : npcsByName.get(lowercase(name));
+    }
+
+    static String lowercase(String name)
+    {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
+}
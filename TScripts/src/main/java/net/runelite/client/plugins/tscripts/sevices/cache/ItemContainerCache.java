@@ -0,0 +1,119 @@
+package net.runelite.client.plugins.tscripts.sevices.cache;
+
+import net.runelite.api.GameState;
+import net.runelite.api.Item;
+import net.runelite.api.ItemContainer;
+import net.runelite.api.events.GameStateChanged;
+import net.runelite.api.events.ItemContainerChanged;
+import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.plugins.tscripts.api.library.TGame;
+import net.unethicalite.client.Static;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a snapshot of the items in each item container that has been queried.
+ * <p>
+ * The first query of a container reads it on the client thread. After that its snapshot is replaced from
+ * {@link ItemContainerChanged} for that container id, so later queries read it without going to the client thread.
+ */
+public class ItemContainerCache
+{
+    public static ItemContainerCache get()
+    {
+        if(instance == null)
+            instance = new ItemContainerCache();
+        return instance;
+    }
+    private static ItemContainerCache instance;
+
+    private final Map<Integer, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    private ItemContainerCache()
+    {
+        Static.getEventBus().register(this);
+    }
+
+    /**
+     * Gets the snapshot of a container.
+     *
+     * @param containerId The container id.
+     * @return The snapshot, or {@link Snapshot#EMPTY} if the container does not exist.
+     */
+    public Snapshot getSnapshot(int containerId)
+    {
+        Snapshot snapshot = snapshots.get(containerId);
+        if(snapshot != null)
+            return snapshot;
+        snapshot = TGame.invoke(() -> snapshots.computeIfAbsent(containerId, id -> read(Static.getClient().getItemContainer(id))));
+        return snapshot == null ? Snapshot.EMPTY : snapshot;
+    }
+
+    @Subscribe
+    public void onItemContainerChanged(ItemContainerChanged event)
+    {
+        snapshots.computeIfPresent(event.getContainerId(), (id, snapshot) -> read(event.getItemContainer()));
+    }
+
+    @Subscribe
+    public void onGameStateChanged(GameStateChanged event)
+    {
+        if(event.getGameState() == GameState.LOGIN_SCREEN || event.getGameState() == GameState.HOPPING)
+            snapshots.clear();
+    }
+
+    /**
+     * Reads a container on the client thread.
+     */
+    private static Snapshot read(ItemContainer container)
+    {
+        if(container == null)
+            return Snapshot.EMPTY;
+        Item[] items = Arrays.stream(container.getItems())
+                .filter(i -> i.getId() != -1)
+                .toArray(Item[]::new);
+        String[] names = new String[items.length];
+        for(int i = 0; i < items.length; i++)
+        {
+            names[i] = items[i].getName();
+        }
+        return new Snapshot(items, names);
+    }
+
+    /**
+     * The items of a container at one point in time, without empty slots, with their names read up front.
+     */
+    public static final class Snapshot
+    {
+        public static final Snapshot EMPTY = new Snapshot(new Item[0], new String[0]);
+
+        private final Item[] items;
+        private final String[] names;
+
+        private Snapshot(Item[] items, String[] names)
+        {
+            this.items = items;
+            this.names = names;
+        }
+
+        public int size()
+        {
+            return items.length;
+        }
+
+        public Item getItem(int index)
+        {
+            return items[index];
+        }
+
+        /**
+         * @return The item's name, never null.
+         */
+        public String getName(int index)
+        {
+            return names[index] == null ? "" : names[index];
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package net.runelite.client.plugins.tscripts.sevices.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.runelite.client.plugins.tscripts.adapter.Adapter;
+import net.runelite.client.plugins.tscripts.adapter.models.Scope.Scope;
+import net.runelite.client.plugins.tscripts.runtime.CompiledScript;
+import net.runelite.client.plugins.tscripts.runtime.ExecutionMode;
+import net.runelite.client.plugins.tscripts.util.HashUtil;
+import net.runelite.client.plugins.tscripts.util.Logging;
+import net.runelite.client.plugins.tscripts.util.ThreadPool;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches parsed scripts, so scripts bound to frequent events are not read and parsed every time they run.
+ * <p>
+ * Parsed trees are kept by profile, script name and content hash. Which hash a script file currently has is
+ * remembered until a file watcher on its profile directory sees the file change, so a cached run does not
+ * touch the disk at all.
+ * <p>
+ * Next to each parsed tree, the script is kept prepared for each {@link ExecutionMode} it was run with, so an event
+ * handler does not resolve its variables and compile the whole tree again every time its event fires.
+ */
+public class ScriptCache
+{
+    public static ScriptCache get()
+    {
+        if(instance == null)
+            instance = new ScriptCache();
+        return instance;
+    }
+    private static ScriptCache instance;
+
+    private static final int MAXIMUM_SIZE = 64;
+    private final Cache<String, Entry> scopes = CacheBuilder.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+    private final Map<Path, String> keys = new ConcurrentHashMap<>();
+    private final Map<Path, WatchKey> watched = new ConcurrentHashMap<>();
+    private WatchService watchService;
+    private int generation = 0;
+
+    private ScriptCache()
+    {
+    }
+
+    /**
+     * Gets the parsed tree of a script file.
+     *
+     * @param profile The profile.
+     * @param name The script name.
+     * @param path The script file.
+     * @return The parsed tree.
+     * @throws IOException If the file can't be read.
+     */
+    public Scope get(String profile, String name, Path path) throws IOException
+    {
+        return entry(profile, name, path).scope;
+    }
+
+    /**
+     * Gets a script file prepared to run with an engine.
+     *
+     * @param profile The profile.
+     * @param name The script name.
+     * @param path The script file.
+     * @param executionMode The engine.
+     * @return The prepared script.
+     * @throws IOException If the file can't be read.
+     */
+    public CompiledScript get(String profile, String name, Path path, ExecutionMode executionMode) throws IOException
+    {
+        return entry(profile, name, path).compiled(executionMode);
+    }
+
+    private Entry entry(String profile, String name, Path path) throws IOException
+    {
+        Path file = path.toAbsolutePath().normalize();
+        String key = keys.get(file);
+        if(key != null)
+        {
+            Entry entry = scopes.getIfPresent(key);
+            if(entry != null)
+                return entry;
+        }
+
+        int generation;
+        synchronized (this)
+        {
+            generation = this.generation;
+        }
+        boolean watching = watch(file.getParent());
+        String code = Files.readString(file);
+        key = profile + "/" + name + "/" + HashUtil.getSha256Hash(code);
+        Entry entry = scopes.getIfPresent(key);
+        if(entry == null)
+        {
+            entry = new Entry(Adapter.parse(code));
+            scopes.put(key, entry);
+        }
+
+        synchronized (this)
+        {
+            //only remember the hash if the file did not change while it was read
+            if(watching && generation == this.generation)
+                keys.put(file, key);
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the parsed tree of a script that does not come from a file.
+     *
+     * @param code The script.
+     * @return The parsed tree.
+     */
+    public Scope parse(String code)
+    {
+        String key = HashUtil.getSha256Hash(code);
+        Entry entry = scopes.getIfPresent(key);
+        if(entry == null)
+        {
+            entry = new Entry(Adapter.parse(code));
+            scopes.put(key, entry);
+        }
+        return entry.scope;
+    }
+
+    /**
+     * Forgets the hash of a script file, so it is read again on its next run.
+     *
+     * @param path The script file.
+     */
+    public synchronized void invalidate(Path path)
+    {
+        generation++;
+        keys.remove(path.toAbsolutePath().normalize());
+    }
+
+    public synchronized void invalidateAll()
+    {
+        generation++;
+        keys.clear();
+    }
+
+    /**
+     * Stops watching the profile directories and empties the cache.
+     */
+    public synchronized void shutdown()
+    {
+        if(watchService != null)
+        {
+            try
+            {
+                watchService.close();
+            }
+            catch (IOException ex)
+            {
+                Logging.errorLog(ex);
+            }
+            watchService = null;
+        }
+        watched.clear();
+        invalidateAll();
+        scopes.invalidateAll();
+    }
+
+    /**
+     * Starts watching a profile directory if it is not watched yet.
+     *
+     * @param dir The directory.
+     * @return Whether the directory is watched.
+     */
+    private boolean watch(Path dir)
+    {
+        if(watched.containsKey(dir))
+            return true;
+
+        synchronized (this)
+        {
+            if(watched.containsKey(dir))
+                return true;
+
+            try
+            {
+                if(watchService == null)
+                {
+                    WatchService service = FileSystems.getDefault().newWatchService();
+                    watchService = service;
+                    ThreadPool.submit(() -> poll(service));
+                }
+                WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                watched.put(dir, key);
+                return true;
+            }
+            catch (IOException ex)
+            {
+                Logging.errorLog(ex);
+                return false;
+            }
+        }
+    }
+
+    private void poll(WatchService service)
+    {
+        try
+        {
+            while (true)
+            {
+                WatchKey key = service.take();
+                Path dir = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents())
+                {
+                    if(event.kind() == StandardWatchEventKinds.OVERFLOW)
+                        invalidateAll();
+                    else
+                        invalidate(dir.resolve((Path) event.context()));
+                }
+
+                if(!key.reset())
+                {
+                    watched.remove(dir);
+                    invalidateAll();
+                }
+            }
+        }
+        catch (InterruptedException | ClosedWatchServiceException ignored)
+        {
+        }
+    }
+
+    /**
+     * A parsed script and its prepared forms, by engine.
+     */
+    private static final class Entry
+    {
+        private final Scope scope;
+        private final Map<ExecutionMode, CompiledScript> compiled = new EnumMap<>(ExecutionMode.class);
+
+        private Entry(Scope scope)
+        {
+            this.scope = scope;
+        }
+
+        private synchronized CompiledScript compiled(ExecutionMode executionMode)
+        {
+            return compiled.computeIfAbsent(executionMode, mode -> CompiledScript.of(scope, mode));
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package net.runelite.client.plugins.tscripts.sevices.cache;
+
+import net.runelite.api.coords.WorldPoint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * An immutable uniform grid over entity locations, in buckets of 8x8 tiles.
+ * <p>
+ * Queries start at the bucket holding the given tile and expand one ring of buckets at a time, comparing squared
+ * tile distances, and stop as soon as no unvisited bucket can hold anything closer than what was already found.
+ * Locations are read once when the index is built, so queries never call into the client.
+ *
+ * @param <T> The entity type.
+ */
+public class SpatialIndex<T>
+{
+    private static final int SHIFT = 3;
+    private static final SpatialIndex<?> EMPTY = new SpatialIndex<>(new Object[0], new int[0], new int[0], new int[0], new int[0], new int[1], 0, 0, 0, 0);
+
+    private final Object[] entities;
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] planes;
+    private final int[] slots;
+    private final int[] cellStart;
+    private final int minCellX;
+    private final int minCellY;
+    private final int width;
+    private final int height;
+
+    private SpatialIndex(Object[] entities, int[] xs, int[] ys, int[] planes, int[] slots, int[] cellStart, int minCellX, int minCellY, int width, int height)
+    {
+        this.entities = entities;
+        this.xs = xs;
+        this.ys = ys;
+        this.planes = planes;
+        this.slots = slots;
+        this.cellStart = cellStart;
+        this.minCellX = minCellX;
+        this.minCellY = minCellY;
+        this.width = width;
+        this.height = height;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> SpatialIndex<T> empty()
+    {
+        return (SpatialIndex<T>) EMPTY;
+    }
+
+    /**
+     * Builds an index. Must be called on the client thread, where entity locations are safe to read.
+     *
+     * @param source The entities. Ties in distance go to the one that comes first.
+     * @param location Gets an entity's location. Entities without one are left out.
+     * @return The index.
+     */
+    public static <T> SpatialIndex<T> of(Collection<? extends T> source, Function<? super T, WorldPoint> location)
+    {
+        int count = 0;
+        Object[] entities = new Object[source.size()];
+        int[] xs = new int[entities.length];
+        int[] ys = new int[entities.length];
+        int[] planes = new int[entities.length];
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for(T entity : source)
+        {
+            WorldPoint point = location.apply(entity);
+            if(point == null)
+                continue;
+            entities[count] = entity;
+            xs[count] = point.getX();
+            ys[count] = point.getY();
+            planes[count] = point.getPlane();
+            minX = Math.min(minX, xs[count] >> SHIFT);
+            minY = Math.min(minY, ys[count] >> SHIFT);
+            maxX = Math.max(maxX, xs[count] >> SHIFT);
+            maxY = Math.max(maxY, ys[count] >> SHIFT);
+            count++;
+        }
+        if(count == 0)
+            return empty();
+
+        int width = maxX - minX + 1;
+        int height = maxY - minY + 1;
+        int[] cellStart = new int[width * height + 1];
+        for(int i = 0; i < count; i++)
+        {
+            cellStart[cell(xs[i], ys[i], minX, minY, width) + 1]++;
+        }
+        for(int i = 1; i < cellStart.length; i++)
+        {
+            cellStart[i] += cellStart[i - 1];
+        }
+        int[] next = Arrays.copyOf(cellStart, cellStart.length - 1);
+        int[] slots = new int[count];
+        for(int i = 0; i < count; i++)
+        {
+            slots[next[cell(xs[i], ys[i], minX, minY, width)]++] = i;
+        }
+        return new SpatialIndex<>(Arrays.copyOf(entities, count), Arrays.copyOf(xs, count), Arrays.copyOf(ys, count),
+                Arrays.copyOf(planes, count), slots, cellStart, minX, minY, width, height);
+    }
+
+    /**
+     * Finds the entity nearest to a tile.
+     *
+     * @param point The tile.
+     * @param maxDistance The furthest an entity may be, in tiles along either axis.
+     * @param filter The filter entities must pass.
+     * @return The nearest entity on the same plane, or null if none pass.
+     */
+    public T nearest(WorldPoint point, int maxDistance, Predicate<? super T> filter)
+    {
+        List<T> nearest = nearest(point.getX(), point.getY(), point.getPlane(), 1, maxDistance, filter);
+        return nearest.isEmpty() ? null : nearest.get(0);
+    }
+
+    /**
+     * Finds every entity within a distance of a tile.
+     *
+     * @param point The tile.
+     * @param radius The furthest an entity may be, in tiles along either axis.
+     * @param filter The filter entities must pass.
+     * @return The entities on the same plane, nearest first.
+     */
+    public List<T> within(WorldPoint point, int radius, Predicate<? super T> filter)
+    {
+        return nearest(point.getX(), point.getY(), point.getPlane(), Integer.MAX_VALUE, radius, filter);
+    }
+
+    /**
+     * Finds the entities nearest to a tile by straight line distance.
+     *
+     * @param x The world x.
+     * @param y The world y.
+     * @param plane The plane entities must be on, or -1 for any plane.
+     * @param k The most entities to return.
+     * @param maxDistance The furthest an entity may be, in tiles along either axis.
+     * @param filter The filter entities must pass.
+     * @return Up to k entities, nearest first.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> nearest(int x, int y, int plane, int k, int maxDistance, Predicate<? super T> filter)
+    {
+        if(entities.length == 0 || k <= 0 || maxDistance < 0)
+            return Collections.emptyList();
+
+        int cx = x >> SHIFT;
+        int cy = y >> SHIFT;
+        int rings = Math.max(Math.max(cx - minCellX, minCellX + width - 1 - cx), Math.max(cy - minCellY, minCellY + height - 1 - cy));
+        if(maxDistance < (1 << 14))
+        {
+            rings = Math.min(rings, Math.max(
+                    Math.max(cx - ((x - maxDistance) >> SHIFT), ((x + maxDistance) >> SHIFT) - cx),
+                    Math.max(cy - ((y - maxDistance) >> SHIFT), ((y + maxDistance) >> SHIFT) - cy)));
+        }
+
+        long[] found = new long[16];
+        int size = 0;
+        int sorted = 0;
+        for(int r = 0; r <= rings; r++)
+        {
+            for(int gy = cy - r; gy <= cy + r; gy++)
+            {
+                int step = (gy == cy - r || gy == cy + r) ? 1 : 2 * r;
+                for(int gx = cx - r; gx <= cx + r; gx += step)
+                {
+                    int lx = gx - minCellX;
+                    int ly = gy - minCellY;
+                    if(lx < 0 || ly < 0 || lx >= width || ly >= height)
+                        continue;
+                    int cell = lx + ly * width;
+                    for(int s = cellStart[cell]; s < cellStart[cell + 1]; s++)
+                    {
+                        int i = slots[s];
+                        int dx = xs[i] - x;
+                        int dy = ys[i] - y;
+                        if(plane != -1 && planes[i] != plane)
+                            continue;
+                        if(Math.max(Math.abs(dx), Math.abs(dy)) > maxDistance)
+                            continue;
+                        if(!filter.test((T) entities[i]))
+                            continue;
+                        if(size == found.length)
+                            found = Arrays.copyOf(found, size * 2);
+                        found[size++] = (long) (dx * dx + dy * dy) << 32 | i;
+                    }
+                }
+            }
+
+            if(size >= k)
+            {
+                if(size > sorted)
+                {
+                    Arrays.sort(found, 0, size);
+                    sorted = size;
+                }
+                int reach = Math.min(
+                        Math.min(x - ((cx - r) << SHIFT), ((cx + r + 1) << SHIFT) - 1 - x),
+                        Math.min(y - ((cy - r) << SHIFT), ((cy + r + 1) << SHIFT) - 1 - y)) + 1;
+                if((found[k - 1] >>> 32) < (long) reach * reach)
+                    break;
+            }
+        }
+
+        if(size > sorted)
+            Arrays.sort(found, 0, size);
+        int length = Math.min(k, size);
+        List<T> result = new ArrayList<>(length);
+        for(int i = 0; i < length; i++)
+        {
+            result.add((T) entities[(int) found[i]]);
+        }
+        return result;
+    }
+
+    private static int cell(int x, int y, int minCellX, int minCellY, int width)
+    {
+        return ((x >> SHIFT) - minCellX) + ((y >> SHIFT) - minCellY) * width;
+    }
+}
@@ -1,8 +1,7 @@
 package net.runelite.client.plugins.tscripts.sevices.cache.filters;
 
 import net.runelite.api.Actor;
-import net.runelite.client.plugins.tscripts.util.Location;
-import net.unethicalite.client.Static;
+import net.runelite.client.plugins.tscripts.util.Compare;
 
 import java.util.ArrayList;
 import java.util.Comparator;
@@ -26,18 +25,20 @@ public class ActorFilter<T extends Actor> {
         return this;
     }
 
+    /**
+     * @return the nearest actor with the id, or null if there is none
+     */
     public T nearest(int id)
     {
-        actors.removeIf(o -> o.getId() != id);
-        actors.sort(Comparator.comparing(o -> Location.getDistance(Static.getClient().getLocalPlayer().getWorldLocation(), o.getWorldLocation())));
-        return actors.get(0);
+        return Compare.nearest(actors, o -> o.getId() == id);
     }
 
+    /**
+     * @return the nearest actor with the name, or null if there is none
+     */
     public T nearest(String name)
     {
-        actors.removeIf(o -> !o.getName().equals(name));
-        actors.sort(Comparator.comparing(o -> Location.getDistance(Static.getClient().getLocalPlayer().getWorldLocation(), o.getWorldLocation())));
-        return actors.get(0);
+        return Compare.nearest(actors, o -> name.equals(o.getName()));
     }
 
     public ActorFilter<T> sorted(Comparator<T> comparator) {
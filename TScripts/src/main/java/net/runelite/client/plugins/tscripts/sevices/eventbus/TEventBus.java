@@ -1,60 +1,125 @@
 package net.runelite.client.plugins.tscripts.sevices.eventbus;
 
+import com.google.common.collect.MapMaker;
 import net.runelite.client.plugins.tscripts.util.Logging;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+/**
+ * A small event bus for the script runtime and its tools.
+ * <p>
+ * Subscribers are indexed by the exact event class when they register, and invoked through method handles,
+ * so posting an event nobody listens to is a single map lookup. Owners are held weakly, so a runtime that
+ * is never unregistered does not stay reachable through the bus.
+ */
 public class TEventBus
 {
-    private static final Map<Object,List<Method>> subscribers = new ConcurrentHashMap<>();
+    private static final MethodType HANDLER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final Map<Class<?>, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private static final Map<Object, List<Subscriber>> owners = new MapMaker().weakKeys().makeMap();
 
-    public static void register(Object obj)
+    public static synchronized void register(Object obj)
     {
-        if (!subscribers.containsKey(obj))
-            subscribers.put(obj, new ArrayList<>());
+        if (owners.containsKey(obj))
+            return;
 
+        List<Subscriber> registered = new ArrayList<>();
         for (Method method : obj.getClass().getMethods())
         {
             if (!method.isAnnotationPresent(_Subscribe.class))
                 continue;
 
-            method.setAccessible(true);
+            if (method.getParameterCount() != 1)
+                continue;
 
-            if (!subscribers.get(obj).contains(method))
-                subscribers.get(obj).add(method);
+            try
+            {
+                method.setAccessible(true);
+                MethodHandle handle = MethodHandles.lookup().unreflect(method).asType(HANDLER_TYPE);
+                Subscriber subscriber = new Subscriber(obj, handle);
+                subscribers.computeIfAbsent(method.getParameterTypes()[0], type -> new CopyOnWriteArrayList<>()).add(subscriber);
+                registered.add(subscriber);
+            }
+            catch (Exception ex)
+            {
+                Logging.errorLog(ex);
+            }
         }
+        owners.put(obj, registered);
     }
 
-    public static void unregister(Object obj)
+    public static synchronized void unregister(Object obj)
     {
-        subscribers.remove(obj);
+        List<Subscriber> registered = owners.remove(obj);
+        if (registered == null)
+            return;
+
+        for (List<Subscriber> list : subscribers.values())
+        {
+            list.removeAll(registered);
+        }
+    }
+
+    /**
+     * Checks if anything listens for an event class.
+     *
+     * @param type The event class.
+     * @return Whether posting an event of this class reaches a subscriber.
+     */
+    public static boolean hasSubscribers(Class<?> type)
+    {
+        List<Subscriber> list = subscribers.get(type);
+        return list != null && !list.isEmpty();
     }
 
     public static void post(Object event)
     {
-        for (Object key : subscribers.keySet())
+        List<Subscriber> list = subscribers.get(event.getClass());
+        if (list == null)
+            return;
+
+        for (Subscriber subscriber : list)
         {
-            for(Method method : subscribers.get(key))
+            Object owner = subscriber.owner.get();
+            if (owner == null)
+            {
+                list.remove(subscriber);
+                continue;
+            }
+
+            try
+            {
+                subscriber.handle.invokeExact(owner, event);
+            }
+            catch (Exception ex)
+            {
+                Logging.errorLog(ex);
+            }
+            catch (Throwable t)
             {
-                if (method.getParameterTypes().length != 1)
-                    continue;
-
-                if (!method.getParameterTypes()[0].equals(event.getClass()))
-                    continue;
-
-                try
-                {
-                    method.invoke(key, event);
-                } catch (Exception ex)
-                {
-                    Logging.errorLog(ex);
-                }
+                Logging.errorLog(new RuntimeException(t));
             }
         }
     }
+
+    private static final class Subscriber
+    {
+        private final WeakReference<Object> owner;
+        private final MethodHandle handle;
+
+        private Subscriber(Object owner, MethodHandle handle)
+        {
+            this.owner = new WeakReference<>(owner);
+            this.handle = handle;
+        }
+    }
 }
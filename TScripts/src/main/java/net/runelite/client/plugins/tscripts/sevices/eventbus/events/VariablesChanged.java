@@ -0,0 +1,10 @@
+package net.runelite.client.plugins.tscripts.sevices.eventbus.events;
+
+public class VariablesChanged
+{
+    public static VariablesChanged get()
+    {
+        return instance;
+    }
+    private static final VariablesChanged instance = new VariablesChanged();
+}
@@ -1,11 +0,0 @@
-package net.runelite.client.plugins.tscripts.sevices.eventbus.events;
-
-import lombok.Data;
-
-/**
- * Event that is fired when a scope ends and variables from that scopes context are scrubbed from existence
- */
-@Data
-public class VariablesCleaned {
-    private final String scopeHash;
-}
@@ -1,28 +1,31 @@
 package net.runelite.client.plugins.tscripts.sevices.localpathfinder;
 
-import org.jetbrains.kotlin.gnu.trove.TIntArrayList;
-import org.jetbrains.kotlin.gnu.trove.TIntIntHashMap;
-
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
 
 public class BFSCache
 {
-    private final TIntIntHashMap cache = new TIntIntHashMap(200000);
-    private final List<Integer> doors = new ArrayList<>();
+    private final EpochIntMap cache = new EpochIntMap(16384);
+    private int[] trace = new int[256];
+    private CollisionUtil collision;
 
-    public void setDoors(List<Integer> doors)
+    public void setCollision(CollisionUtil collision)
     {
-        this.doors.addAll(doors);
+        this.collision = collision;
     }
 
     public boolean put(final int point, final int parent)
     {
-        if(cache.contains(point))
-            return false;
+        return cache.putIfAbsent(point, parent);
+    }
+
+    /**
+     * Sets the parent of a point, replacing any earlier one.
+     */
+    public void set(final int point, final int parent)
+    {
         cache.put(point, parent);
-        return true;
     }
 
     public int get(final int position)
@@ -42,15 +45,36 @@ public class BFSCache
 
     public List<Step> path(int pos)
     {
-        int parent = get(pos);
-        LinkedList<Step> path = new LinkedList<>();
-        path.add(0, new Step(pos, doors.contains(pos)));
-        while(parent != -1)
+        int length = trace(pos);
+        List<Step> path = new ArrayList<>(length);
+        for(int i = length - 1; i >= 0; i--)
         {
-            pos = parent;
-            parent = get(pos);
-            path.add(0, new Step(pos, doors.contains(pos)));
+            path.add(new Step(trace[i], collision.isDoor(trace[i])));
         }
         return path;
     }
-}
\ No newline at end of file
+
+    /**
+     * Follows the parents of a point back to the start into a reused buffer, read with {@link #traced(int)}.
+     *
+     * @param pos The point.
+     * @return The number of points, the given point first and the start last.
+     */
+    public int trace(int pos)
+    {
+        int length = 0;
+        while(pos != -1)
+        {
+            if(length == trace.length)
+                trace = Arrays.copyOf(trace, length * 2);
+            trace[length++] = pos;
+            pos = get(pos);
+        }
+        return length;
+    }
+
+    public int traced(int index)
+    {
+        return trace[index];
+    }
+}
@@ -0,0 +1,184 @@
+package net.runelite.client.plugins.tscripts.sevices.localpathfinder;
+
+import net.runelite.api.*;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.api.events.*;
+import net.runelite.client.eventbus.Subscribe;
+import net.runelite.client.plugins.tscripts.sevices.cache.GameCache;
+import net.unethicalite.client.Static;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keeps the collision grid of the current scene plane between searches.
+ * <p>
+ * The grid is built once per scene load or plane change. Object spawns and despawns only mark the tiles around
+ * the object, which are read again before the next search, so repeated searches in the same scene reuse the grid.
+ */
+public class CollisionCache
+{
+    public static CollisionCache get()
+    {
+        if(instance == null)
+            instance = new CollisionCache();
+        return instance;
+    }
+    private static CollisionCache instance;
+
+    private CollisionUtil snapshot;
+    private final Set<TileObject> doorObjects = new HashSet<>();
+    private final Set<Integer> dirty = new HashSet<>();
+
+    private CollisionCache()
+    {
+        Static.getEventBus().register(this);
+    }
+
+    /**
+     * Gets the collision grid of the current scene plane, building it if the scene or plane changed and reading
+     * changed tiles again otherwise.
+     *
+     * @return The grid.
+     */
+    public synchronized CollisionUtil getCollision()
+    {
+        Client client = Static.getClient();
+        WorldView wv = client.getTopLevelWorldView();
+        int plane = wv.getPlane();
+        WorldPoint base = WorldPoint.fromScene(client, 0, 0, plane);
+        if(wv.getCollisionMaps() == null || wv.getCollisionMaps()[plane] == null)
+        {
+            snapshot = null;
+            return new CollisionUtil(new int[0][0], base.getX(), base.getY(), plane);
+        }
+
+        int[][] flags = wv.getCollisionMaps()[plane].getFlags();
+        if(snapshot == null || snapshot.getBaseX() != base.getX() || snapshot.getBaseY() != base.getY() || snapshot.getPlane() != plane)
+        {
+            build(flags, base.getX(), base.getY(), plane);
+        }
+        else
+        {
+            for(int point : dirty)
+            {
+                int x = WorldPointUtil.getX(point);
+                int y = WorldPointUtil.getY(point);
+                snapshot.refresh(flags, x, y);
+                snapshot.setDoor(x, y, hasDoor(x, y));
+            }
+        }
+        dirty.clear();
+        return snapshot;
+    }
+
+    private void build(int[][] flags, int baseX, int baseY, int plane)
+    {
+        snapshot = new CollisionUtil(flags, baseX, baseY, plane);
+        doorObjects.clear();
+        GameCache.get().objectStream()
+                .filter(o -> o.getPlane() == plane && isDoor(o))
+                .forEach(door -> {
+                    doorObjects.add(door);
+                    snapshot.setDoor(door.getWorldLocation().getX(), door.getWorldLocation().getY(), true);
+                });
+    }
+
+    @Subscribe
+    public synchronized void onGameStateChanged(GameStateChanged event)
+    {
+        if(event.getGameState() == GameState.LOADING)
+        {
+            snapshot = null;
+            doorObjects.clear();
+            dirty.clear();
+        }
+    }
+
+    @Subscribe
+    public void onSpawned(GameObjectSpawned event)
+    {
+        spawned(event.getGameObject(), event.getGameObject().sizeX(), event.getGameObject().sizeY());
+    }
+
+    @Subscribe
+    public void onDespawned(GameObjectDespawned event)
+    {
+        despawned(event.getGameObject(), event.getGameObject().sizeX(), event.getGameObject().sizeY());
+    }
+
+    @Subscribe
+    public void onSpawned(WallObjectSpawned event)
+    {
+        spawned(event.getWallObject(), 1, 1);
+    }
+
+    @Subscribe
+    public void onDespawned(WallObjectDespawned event)
+    {
+        despawned(event.getWallObject(), 1, 1);
+    }
+
+    @Subscribe
+    public void onSpawned(GroundObjectSpawned event)
+    {
+        spawned(event.getGroundObject(), 1, 1);
+    }
+
+    @Subscribe
+    public void onDespawned(GroundObjectDespawned event)
+    {
+        despawned(event.getGroundObject(), 1, 1);
+    }
+
+    private synchronized void spawned(TileObject object, int sizeX, int sizeY)
+    {
+        if(snapshot == null || object.getPlane() != snapshot.getPlane())
+            return;
+        if(isDoor(object))
+            doorObjects.add(object);
+        markDirty(object, sizeX, sizeY);
+    }
+
+    private synchronized void despawned(TileObject object, int sizeX, int sizeY)
+    {
+        if(snapshot == null || object.getPlane() != snapshot.getPlane())
+            return;
+        doorObjects.remove(object);
+        markDirty(object, sizeX, sizeY);
+    }
+
+    /**
+     * Marks the tiles an object covers, plus a border of one, since walls also set flags on the tile beside them.
+     */
+    private void markDirty(TileObject object, int sizeX, int sizeY)
+    {
+        WorldPoint location = object.getWorldLocation();
+        for(int x = location.getX() - 1; x <= location.getX() + sizeX; x++)
+        {
+            for(int y = location.getY() - 1; y <= location.getY() + sizeY; y++)
+            {
+                dirty.add(WorldPointUtil.fromCord(x, y));
+            }
+        }
+    }
+
+    private boolean hasDoor(int x, int y)
+    {
+        for(TileObject door : doorObjects)
+        {
+            if(door.getWorldLocation().getX() == x && door.getWorldLocation().getY() == y)
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean isDoor(TileObject object)
+    {
+        String name = object.getName();
+        if(name == null)
+            return false;
+        name = name.toLowerCase();
+        return name.contains("door") || name.contains("gate");
+    }
+}
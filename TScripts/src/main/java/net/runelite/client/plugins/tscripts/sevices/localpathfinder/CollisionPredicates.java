@@ -1,14 +1,16 @@
 package net.runelite.client.plugins.tscripts.sevices.localpathfinder;
 
-import java.util.Set;
-import java.util.function.Predicate;
+import net.runelite.api.CollisionDataFlag;
 
+/**
+ * Collision flag masks. A tile blocks movement out of it in a direction if its flags intersect that direction's mask.
+ */
 public class CollisionPredicates
 {
-    public static final Predicate<Set<MovementFlag>> FULL_BLOCKING = flags -> flags.contains(MovementFlag.BLOCK_MOVEMENT_FULL) || flags.contains(MovementFlag.BLOCK_MOVEMENT_OBJECT) || flags.contains(MovementFlag.BLOCK_MOVEMENT_FLOOR) || flags.contains(MovementFlag.BLOCK_MOVEMENT_FLOOR_DECORATION);
-    public static final Predicate<Set<MovementFlag>> BLOCKED_NORTH = flags -> FULL_BLOCKING.test(flags) || flags.contains(MovementFlag.BLOCK_MOVEMENT_NORTH) || flags.contains(MovementFlag.BLOCK_MOVEMENT_NORTH_EAST) || flags.contains(MovementFlag.BLOCK_MOVEMENT_NORTH_WEST);
-    public static final Predicate<Set<MovementFlag>> BLOCKED_EAST = flags -> FULL_BLOCKING.test(flags) || flags.contains(MovementFlag.BLOCK_MOVEMENT_EAST) || flags.contains(MovementFlag.BLOCK_MOVEMENT_NORTH_EAST) || flags.contains(MovementFlag.BLOCK_MOVEMENT_SOUTH_EAST);
-    public static final Predicate<Set<MovementFlag>> BLOCKED_SOUTH = flags -> FULL_BLOCKING.test(flags) || flags.contains(MovementFlag.BLOCK_MOVEMENT_SOUTH) || flags.contains(MovementFlag.BLOCK_MOVEMENT_SOUTH_EAST) || flags.contains(MovementFlag.BLOCK_MOVEMENT_SOUTH_WEST);
-    public static final Predicate<Set<MovementFlag>> BLOCKED_WEST = flags -> FULL_BLOCKING.test(flags) || flags.contains(MovementFlag.BLOCK_MOVEMENT_WEST) || flags.contains(MovementFlag.BLOCK_MOVEMENT_NORTH_WEST) || flags.contains(MovementFlag.BLOCK_MOVEMENT_SOUTH_WEST);
+    public static final int FULL_BLOCKING = CollisionDataFlag.BLOCK_MOVEMENT_FULL | CollisionDataFlag.BLOCK_MOVEMENT_OBJECT | CollisionDataFlag.BLOCK_MOVEMENT_FLOOR | CollisionDataFlag.BLOCK_MOVEMENT_FLOOR_DECORATION;
+    public static final int BLOCKED_NORTH = FULL_BLOCKING | CollisionDataFlag.BLOCK_MOVEMENT_NORTH | CollisionDataFlag.BLOCK_MOVEMENT_NORTH_EAST | CollisionDataFlag.BLOCK_MOVEMENT_NORTH_WEST;
+    public static final int BLOCKED_EAST = FULL_BLOCKING | CollisionDataFlag.BLOCK_MOVEMENT_EAST | CollisionDataFlag.BLOCK_MOVEMENT_NORTH_EAST | CollisionDataFlag.BLOCK_MOVEMENT_SOUTH_EAST;
+    public static final int BLOCKED_SOUTH = FULL_BLOCKING | CollisionDataFlag.BLOCK_MOVEMENT_SOUTH | CollisionDataFlag.BLOCK_MOVEMENT_SOUTH_EAST | CollisionDataFlag.BLOCK_MOVEMENT_SOUTH_WEST;
+    public static final int BLOCKED_WEST = FULL_BLOCKING | CollisionDataFlag.BLOCK_MOVEMENT_WEST | CollisionDataFlag.BLOCK_MOVEMENT_NORTH_WEST | CollisionDataFlag.BLOCK_MOVEMENT_SOUTH_WEST;
 
 }
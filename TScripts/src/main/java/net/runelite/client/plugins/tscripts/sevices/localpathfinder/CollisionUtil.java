@@ -1,48 +1,88 @@
 package net.runelite.client.plugins.tscripts.sevices.localpathfinder;
 
 import lombok.Getter;
-import net.runelite.client.plugins.tscripts.sevices.cache.GameCache;
-import org.jetbrains.kotlin.gnu.trove.TIntIntHashMap;
-import java.util.*;
-import java.util.stream.Collectors;
 
+import java.util.BitSet;
+
+/**
+ * A collision grid over one scene plane.
+ * <p>
+ * Each tile keeps four bits saying in which directions movement out of it is blocked, and door tiles are kept in a
+ * bitset, so every check is an array read and a mask test. Tiles outside the scene count as fully blocked.
+ * <p>
+ * Grids are kept across searches by {@link CollisionCache}, which refreshes single tiles as objects change.
+ */
 public class CollisionUtil
 {
-    private final TIntIntHashMap collisionMap;
+    private static final byte NORTH = 1;
+    private static final byte EAST = 1 << 1;
+    private static final byte SOUTH = 1 << 2;
+    private static final byte WEST = 1 << 3;
+
+    @Getter
+    private final int baseX;
     @Getter
-    private final List<Integer> ignoreTiles;
-    CollisionUtil(TIntIntHashMap collisionMap)
+    private final int baseY;
+    @Getter
+    private final int plane;
+    private final int width;
+    private final int height;
+    private final byte[] blocked;
+    private final BitSet doors;
+
+    /**
+     * Builds the grid.
+     *
+     * @param flags The scene collision flags, indexed [x][y].
+     * @param baseX The world x of scene tile 0.
+     * @param baseY The world y of scene tile 0.
+     * @param plane The plane.
+     */
+    CollisionUtil(int[][] flags, int baseX, int baseY, int plane)
     {
-        this.collisionMap = collisionMap;
-        this.ignoreTiles = getDoored();
+        this.baseX = baseX;
+        this.baseY = baseY;
+        this.plane = plane;
+        this.width = flags.length;
+        this.height = width == 0 ? 0 : flags[0].length;
+        this.blocked = new byte[width * height];
+        this.doors = new BitSet(width * height);
+
+        for(int x = 0; x < width; x++)
+        {
+            for(int y = 0; y < height; y++)
+            {
+                blocked[x * height + y] = toBits(flags[x][y]);
+            }
+        }
     }
 
     public boolean blockedNorth(int x, int y)
     {
         if(isDoored(x, y) || isDoored(x, y + 1))
             return false;
-        return CollisionPredicates.BLOCKED_NORTH.test(getFlags(x, y)) || CollisionPredicates.BLOCKED_SOUTH.test(getFlags(x, y + 1));
+        return blocked(x, y, NORTH) || blocked(x, y + 1, SOUTH);
     }
 
     public boolean blockedEast(int x, int y)
     {
         if (isDoored(x, y) || isDoored(x + 1, y))
             return false;
-        return CollisionPredicates.BLOCKED_EAST.test(getFlags(x, y)) || CollisionPredicates.BLOCKED_WEST.test(getFlags(x + 1, y));
+        return blocked(x, y, EAST) || blocked(x + 1, y, WEST);
     }
 
     public boolean blockedSouth(int x, int y)
     {
         if (isDoored(x, y) || isDoored(x, y - 1))
             return false;
-        return CollisionPredicates.BLOCKED_SOUTH.test(getFlags(x, y)) || CollisionPredicates.BLOCKED_NORTH.test(getFlags(x, y - 1));
+        return blocked(x, y, SOUTH) || blocked(x, y - 1, NORTH);
     }
 
     public boolean blockedWest(int x, int y)
     {
         if (isDoored(x, y) || isDoored(x - 1, y))
             return false;
-        return CollisionPredicates.BLOCKED_WEST.test(getFlags(x, y)) || CollisionPredicates.BLOCKED_EAST.test(getFlags(x - 1, y));
+        return blocked(x, y, WEST) || blocked(x - 1, y, EAST);
     }
 
     public boolean blockedNorthEast(int x, int y)
@@ -65,25 +105,98 @@ public class CollisionUtil
         return blockedNorth(x, y) || blockedWest(x, y) || blockedSouth(x, y + 1) || blockedEast(x - 1, y) || blockedSouth(x - 1, y + 1) || blockedEast(x - 1, y + 1);
     }
 
-    private Set<MovementFlag> getFlags(int x, int y)
+    /**
+     * Checks if a step of one tile in any of the 8 directions is possible.
+     *
+     * @param x The world x to step from.
+     * @param y The world y to step from.
+     * @param dx The x direction, -1, 0 or 1.
+     * @param dy The y direction, -1, 0 or 1.
+     * @return Whether the step is possible.
+     */
+    public boolean canMove(int x, int y, int dx, int dy)
     {
-        return MovementFlag.getSetFlags(collisionMap.get(x << 14 | y));
+        if(dx == 0)
+            return dy > 0 ? !blockedNorth(x, y) : !blockedSouth(x, y);
+        if(dy == 0)
+            return dx > 0 ? !blockedEast(x, y) : !blockedWest(x, y);
+        if(dx > 0)
+            return dy > 0 ? !blockedNorthEast(x, y) : !blockedSouthEast(x, y);
+        return dy > 0 ? !blockedNorthWest(x, y) : !blockedSouthWest(x, y);
+    }
+
+    /**
+     * Reads the flags of one tile again.
+     *
+     * @param flags The scene collision flags, indexed [x][y].
+     * @param x The world x.
+     * @param y The world y.
+     */
+    void refresh(int[][] flags, int x, int y)
+    {
+        int index = index(x, y);
+        if(index == -1)
+            return;
+        blocked[index] = toBits(flags[x - baseX][y - baseY]);
+    }
+
+    /**
+     * Marks or unmarks a tile as a door.
+     *
+     * @param x The world x.
+     * @param y The world y.
+     * @param door Whether the tile is a door.
+     */
+    void setDoor(int x, int y, boolean door)
+    {
+        int index = index(x, y);
+        if(index != -1)
+            doors.set(index, door);
+    }
+
+    /**
+     * Checks if a packed world point is a door or gate tile.
+     *
+     * @param point The point, packed by {@link WorldPointUtil#fromCord(int, int)}.
+     * @return Whether the tile is a door.
+     */
+    public boolean isDoor(int point)
+    {
+        return isDoored(WorldPointUtil.getX(point), WorldPointUtil.getY(point));
+    }
+
+    private boolean blocked(int x, int y, byte direction)
+    {
+        int index = index(x, y);
+        return index == -1 || (blocked[index] & direction) != 0;
     }
 
     private boolean isDoored(int x, int y)
     {
-        int packed = WorldPointUtil.fromCord(x, y);
-        return ignoreTiles.contains(packed);
+        int index = index(x, y);
+        return index != -1 && doors.get(index);
+    }
+
+    private int index(int x, int y)
+    {
+        int sceneX = x - baseX;
+        int sceneY = y - baseY;
+        if(sceneX < 0 || sceneY < 0 || sceneX >= width || sceneY >= height)
+            return -1;
+        return sceneX * height + sceneY;
     }
 
-    private List<Integer> getDoored()
+    private static byte toBits(int tile)
     {
-        return GameCache.get().objectStream()
-                .filter(o -> {
-                    String name = o.getName().toLowerCase();
-                    return (name.contains("door") || name.contains("gate"));
-                })
-                .map(door -> WorldPointUtil.fromCord(door.getWorldLocation().getX(), door.getWorldLocation().getY()))
-                .collect(Collectors.toList());
+        byte bits = 0;
+        if((tile & CollisionPredicates.BLOCKED_NORTH) != 0)
+            bits |= NORTH;
+        if((tile & CollisionPredicates.BLOCKED_EAST) != 0)
+            bits |= EAST;
+        if((tile & CollisionPredicates.BLOCKED_SOUTH) != 0)
+            bits |= SOUTH;
+        if((tile & CollisionPredicates.BLOCKED_WEST) != 0)
+            bits |= WEST;
+        return bits;
     }
 }
@@ -0,0 +1,134 @@
+package net.runelite.client.plugins.tscripts.sevices.localpathfinder;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing int to int map that clears in constant time.
+ * <p>
+ * Every slot remembers the epoch it was written in and only counts while that epoch is current, so
+ * {@link #clear()} just moves to the next epoch instead of wiping the table. The table grows on demand and is
+ * kept between searches.
+ */
+public class EpochIntMap
+{
+    private int[] keys;
+    private int[] values;
+    private int[] epochs;
+    private int mask;
+    private int epoch = 1;
+    private int size;
+
+    public EpochIntMap(final int capacity)
+    {
+        int length = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 2;
+        keys = new int[length];
+        values = new int[length];
+        epochs = new int[length];
+        mask = length - 1;
+    }
+
+    /**
+     * Puts a value, replacing any earlier one.
+     */
+    public void put(final int key, final int value)
+    {
+        int slot = slot(key);
+        if(epochs[slot] != epoch)
+        {
+            if(size * 2 >= keys.length)
+            {
+                grow();
+                slot = slot(key);
+            }
+            epochs[slot] = epoch;
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Puts a value only if the key is not present.
+     *
+     * @return Whether the value was put.
+     */
+    public boolean putIfAbsent(final int key, final int value)
+    {
+        if(contains(key))
+            return false;
+        put(key, value);
+        return true;
+    }
+
+    /**
+     * Gets a value.
+     *
+     * @return The value, or 0 if the key is not present.
+     */
+    public int get(final int key)
+    {
+        int slot = slot(key);
+        return epochs[slot] == epoch ? values[slot] : 0;
+    }
+
+    public boolean contains(final int key)
+    {
+        return epochs[slot(key)] == epoch;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public void clear()
+    {
+        size = 0;
+        if(++epoch == 0)
+        {
+            Arrays.fill(epochs, 0);
+            epoch = 1;
+        }
+    }
+
+    /**
+     * Finds the slot holding a key in this epoch, or the free slot it would go in.
+     */
+    private int slot(final int key)
+    {
+        int slot = mix(key) & mask;
+        while(epochs[slot] == epoch && keys[slot] != key)
+        {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow()
+    {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        int[] oldEpochs = epochs;
+        int oldEpoch = epoch;
+        keys = new int[oldKeys.length << 1];
+        values = new int[oldKeys.length << 1];
+        epochs = new int[oldKeys.length << 1];
+        mask = keys.length - 1;
+        epoch = 1;
+        for(int i = 0; i < oldKeys.length; i++)
+        {
+            if(oldEpochs[i] != oldEpoch)
+                continue;
+            int slot = slot(oldKeys[i]);
+            epochs[slot] = epoch;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private static int mix(final int key)
+    {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,78 @@
+package net.runelite.client.plugins.tscripts.sevices.localpathfinder;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of ints ordered by an int key. Grows on demand and keeps its arrays between searches.
+ */
+public class IntHeap
+{
+    private int[] values;
+    private int[] keys;
+    private int size;
+
+    public IntHeap(final int capacity)
+    {
+        values = new int[capacity];
+        keys = new int[capacity];
+    }
+
+    public void push(final int value, final int key)
+    {
+        if(size == values.length)
+        {
+            values = Arrays.copyOf(values, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        int i = size++;
+        while(i > 0)
+        {
+            int parent = (i - 1) >>> 1;
+            if(keys[parent] <= key)
+                break;
+            values[i] = values[parent];
+            keys[i] = keys[parent];
+            i = parent;
+        }
+        values[i] = value;
+        keys[i] = key;
+    }
+
+    public int peekKey()
+    {
+        return keys[0];
+    }
+
+    public int pop()
+    {
+        int top = values[0];
+        int value = values[--size];
+        int key = keys[size];
+        int i = 0;
+        int half = size >>> 1;
+        while(i < half)
+        {
+            int child = 2 * i + 1;
+            if(child + 1 < size && keys[child + 1] < keys[child])
+                child++;
+            if(key <= keys[child])
+                break;
+            values[i] = values[child];
+            keys[i] = keys[child];
+            i = child;
+        }
+        values[i] = value;
+        keys[i] = key;
+        return top;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    public void clear()
+    {
+        size = 0;
+    }
+}
@@ -1,33 +1,54 @@
 package net.runelite.client.plugins.tscripts.sevices.localpathfinder;
 
+/**
+ * A FIFO queue of ints on a ring buffer that doubles when full. Clearing keeps the buffer, so a reused queue stops
+ * allocating once it has grown to the largest search.
+ */
 public class IntQueue {
     private int[] data;
     private int head;
-    private int tail;
-    private final int capacity;
+    private int size;
 
     public IntQueue(final int capacity) {
-        data = new int[capacity];
+        data = new int[Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1];
         head = 0;
-        tail = 0;
-        this.capacity = capacity;
+        size = 0;
     }
 
     public void enqueue(final int value) {
-        data[tail++] = value;
+        if (size == data.length) {
+            grow();
+        }
+        data[(head + size) & (data.length - 1)] = value;
+        size++;
     }
 
     public int dequeue() {
-        return data[head++];
+        int value = data[head];
+        head = (head + 1) & (data.length - 1);
+        size--;
+        return value;
     }
 
     public boolean isEmpty() {
-        return head == tail;
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
     }
 
     public void clear() {
         head = 0;
-        tail = 0;
-        data = new int[capacity];
+        size = 0;
+    }
+
+    private void grow() {
+        int[] grown = new int[data.length << 1];
+        int first = data.length - head;
+        System.arraycopy(data, head, grown, 0, first);
+        System.arraycopy(data, 0, grown, first, head);
+        data = grown;
+        head = 0;
     }
-}
\ No newline at end of file
+}
@@ -1,15 +1,13 @@
 package net.runelite.client.plugins.tscripts.sevices.localpathfinder;
 
-import net.runelite.api.Client;
-import net.runelite.api.WorldView;
+import lombok.Getter;
+import lombok.Setter;
 import net.runelite.api.coords.WorldPoint;
-import net.runelite.client.plugins.tscripts.api.library.TObjects;
 import net.runelite.client.plugins.tscripts.util.Logging;
-import net.unethicalite.client.Static;
-import org.jetbrains.kotlin.gnu.trove.TIntIntHashMap;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 public class LocalPathfinder
 {
@@ -18,36 +16,99 @@ public class LocalPathfinder
     {
         return instance;
     }
+    //west, east, north, south, north west, north east, south west, south east
+    private static final int[] DX = {-1, 1, 0, 0, -1, 1, -1, 1};
+    private static final int[] DY = {0, 0, 1, -1, 1, 1, -1, -1};
+
+    @Getter
+    @Setter
+    private SearchMode mode = SearchMode.BFS;
+    /**
+     * The number of tiles the last search looked at.
+     */
+    @Getter
+    private int lastVisited;
+    /**
+     * How long the last search took, in nanoseconds.
+     */
+    @Getter
+    private long lastSearchNanos;
     private CollisionUtil collisionUtil;
     private int target;
+    private int targetX;
+    private int targetY;
+    private int visitedCount;
     private final BFSCache visited = new BFSCache();
-    private final IntQueue queue = new IntQueue(5000);
+    private final IntQueue queue = new IntQueue(4096);
+    private final IntHeap open = new IntHeap(1024);
+    private final EpochIntMap costs = new EpochIntMap(4096);
     private LocalPathfinder()
     {
     }
 
     public List<Step> findPath(WorldPoint start, WorldPoint end)
     {
-        collisionUtil = new CollisionUtil(getCollision());
-        visited.setDoors(collisionUtil.getIgnoreTiles());
+        return findPath(start, end, mode);
+    }
+
+    public List<Step> findPath(WorldPoint start, WorldPoint end, SearchMode mode)
+    {
+        CollisionUtil collision = CollisionCache.get().getCollision();
+        List<Step> path = findPath(collision, WorldPointUtil.fromCord(start.getX(), start.getY()), WorldPointUtil.fromCord(end.getX(), end.getY()), mode);
+        Logging.info("Nodes visited: " + lastVisited + " (" + mode + ", " + TimeUnit.NANOSECONDS.toMicros(lastSearchNanos) + "us)");
+        return path;
+    }
 
-        target = WorldPointUtil.fromCord(end.getX(), end.getY());
+    /**
+     * Searches a given grid, without touching the client.
+     *
+     * @param collision The grid.
+     * @param origin The packed start tile.
+     * @param end The packed end tile.
+     * @param mode The search to run.
+     * @return The path from the start tile to the end tile, or an empty list if there is none.
+     */
+    List<Step> findPath(CollisionUtil collision, int origin, int end, SearchMode mode)
+    {
+        collisionUtil = collision;
+        visited.setCollision(collisionUtil);
+
+        target = end;
+        targetX = WorldPointUtil.getX(end);
+        targetY = WorldPointUtil.getY(end);
+        visitedCount = 0;
         visited.clear();
-        visited.put(WorldPointUtil.fromCord(start.getX(), start.getY()), -1);
-        queue.clear();
-        queue.enqueue(WorldPointUtil.fromCord(start.getX(), start.getY()));
-        return bfs();
+        visited.put(origin, -1);
+
+        long started = System.nanoTime();
+        List<Step> path;
+        switch (mode)
+        {
+            case BFS:
+                path = bfs(origin);
+                break;
+            case JUMP_POINT:
+                path = jumpPointSearch(origin);
+                break;
+            default:
+                path = aStar(origin);
+                break;
+        }
+        lastSearchNanos = System.nanoTime() - started;
+        lastVisited = visitedCount;
+        return path;
     }
 
-    private List<Step> bfs()
+    private List<Step> bfs(int origin)
     {
+        queue.clear();
+        queue.enqueue(origin);
         int current;
         while(!queue.isEmpty())
         {
             current = queue.dequeue();
             if(current == target)
             {
-                Logging.info("Nodes visited: " + visited.size());
                 return visited.path(current);
             }
             addNeighbors(current);
@@ -60,72 +121,183 @@ public class LocalPathfinder
         int x = WorldPointUtil.getX(current);
         int y = WorldPointUtil.getY(current);
 
-        if(!collisionUtil.blockedWest(x, y))
+        for(int direction = 0; direction < DX.length; direction++)
         {
-            addNeighbor(current, WorldPointUtil.dx(current, -1));
+            if(collisionUtil.canMove(x, y, DX[direction], DY[direction]))
+            {
+                addNeighbor(current, WorldPointUtil.dy(WorldPointUtil.dx(current, DX[direction]), DY[direction]));
+            }
         }
+    }
 
-        if(!collisionUtil.blockedEast(x, y))
+    private void addNeighbor(final int node, final int neighbor) {
+        if (visited.put(neighbor, node))
         {
-            addNeighbor(current, WorldPointUtil.dx(current, 1));
+            visitedCount++;
+            queue.enqueue(neighbor);
         }
+    }
 
-        if(!collisionUtil.blockedNorth(x, y))
+    private List<Step> aStar(int origin)
+    {
+        open.clear();
+        costs.clear();
+        costs.put(origin, 0);
+        open.push(origin, heuristic(origin));
+        while(!open.isEmpty())
         {
-            addNeighbor(current, WorldPointUtil.dy(current, 1));
-        }
+            int key = open.peekKey();
+            int current = open.pop();
+            int cost = costs.get(current);
+            if(key > cost + heuristic(current))
+                continue;
 
-        if(!collisionUtil.blockedSouth(x, y))
-        {
-            addNeighbor(current, WorldPointUtil.dy(current, -1));
-        }
+            if(current == target)
+            {
+                return visited.path(current);
+            }
 
-        if(!collisionUtil.blockedNorthWest(x, y))
-        {
-            addNeighbor(current, WorldPointUtil.dy(WorldPointUtil.dx(current, -1), 1));
-        }
+            int x = WorldPointUtil.getX(current);
+            int y = WorldPointUtil.getY(current);
+            for(int direction = 0; direction < DX.length; direction++)
+            {
+                if(!collisionUtil.canMove(x, y, DX[direction], DY[direction]))
+                    continue;
 
-        if(!collisionUtil.blockedNorthEast(x, y))
-        {
-            addNeighbor(current, WorldPointUtil.dy(WorldPointUtil.dx(current, 1), 1));
+                int neighbor = WorldPointUtil.dy(WorldPointUtil.dx(current, DX[direction]), DY[direction]);
+                relax(current, neighbor, cost + 1);
+            }
         }
+        return new ArrayList<>();
+    }
 
-        if(!collisionUtil.blockedSouthWest(x, y))
+    private List<Step> jumpPointSearch(int origin)
+    {
+        open.clear();
+        costs.clear();
+        costs.put(origin, 0);
+        open.push(origin, heuristic(origin));
+        while(!open.isEmpty())
         {
-            addNeighbor(current, WorldPointUtil.dy(WorldPointUtil.dx(current, -1), -1));
-        }
+            int key = open.peekKey();
+            int current = open.pop();
+            int cost = costs.get(current);
+            if(key > cost + heuristic(current))
+                continue;
 
-        if(!collisionUtil.blockedSouthEast(x, y))
-        {
-            addNeighbor(current, WorldPointUtil.dy(WorldPointUtil.dx(current, 1), -1));
+            if(current == target)
+            {
+                return fillJumps(current);
+            }
+
+            int x = WorldPointUtil.getX(current);
+            int y = WorldPointUtil.getY(current);
+            for(int direction = 0; direction < DX.length; direction++)
+            {
+                int jumpPoint = jump(x, y, DX[direction], DY[direction]);
+                if(jumpPoint == -1)
+                    continue;
+
+                relax(current, jumpPoint, cost + distance(current, jumpPoint));
+            }
         }
+        return new ArrayList<>();
     }
 
-    private void addNeighbor(final int node, final int neighbor) {
-        if (visited.put(neighbor, node))
+    /**
+     * Walks from a tile in one direction until reaching the target, a dead end, or a tile where the path may
+     * have to turn.
+     *
+     * @return The packed tile where the walk stopped, or -1 at a dead end.
+     */
+    private int jump(int x, int y, int dx, int dy)
+    {
+        while(collisionUtil.canMove(x, y, dx, dy))
         {
-            queue.enqueue(neighbor);
+            int previousX = x;
+            int previousY = y;
+            x += dx;
+            y += dy;
+            visitedCount++;
+            int point = WorldPointUtil.fromCord(x, y);
+            if(point == target)
+                return point;
+
+            if(dx != 0 && dy != 0)
+            {
+                if(jump(x, y, dx, 0) != -1 || jump(x, y, 0, dy) != -1)
+                    return point;
+            }
+            else if(dx != 0)
+            {
+                if(forced(previousX, previousY, x, y, dx, 0, 0, 1) || forced(previousX, previousY, x, y, dx, 0, 0, -1))
+                    return point;
+            }
+            else
+            {
+                if(forced(previousX, previousY, x, y, 0, dy, 1, 0) || forced(previousX, previousY, x, y, 0, dy, -1, 0))
+                    return point;
+            }
         }
+        return -1;
     }
 
-    private TIntIntHashMap getCollision()
+    /**
+     * Checks if the tile beside a straight step can only be reached well by turning at the end of the step,
+     * i.e. it is open from the new tile but not through the side of the previous tile.
+     */
+    private boolean forced(int fromX, int fromY, int x, int y, int dx, int dy, int sideX, int sideY)
     {
-        Client client = Static.getClient();
-        TIntIntHashMap collisionMap = new TIntIntHashMap();
-        WorldView wv = client.getTopLevelWorldView();
-        if(wv.getCollisionMaps() == null || wv.getCollisionMaps()[wv.getPlane()] == null)
-            return collisionMap;
-
-        int[][] flags = wv.getCollisionMaps()[wv.getPlane()].getFlags();
-        WorldPoint point;
-        for(int x = 0; x < flags.length; x++)
+        return collisionUtil.canMove(x, y, sideX, sideY)
+                && !(collisionUtil.canMove(fromX, fromY, sideX, sideY) && collisionUtil.canMove(fromX + sideX, fromY + sideY, dx, dy));
+    }
+
+    private void relax(int from, int to, int cost)
+    {
+        if(costs.contains(to) && costs.get(to) <= cost)
+            return;
+
+        visitedCount++;
+        costs.put(to, cost);
+        visited.set(to, from);
+        open.push(to, cost + heuristic(to));
+    }
+
+    /**
+     * Builds the path to a jump point, adding the tiles between consecutive jump points, which always lie on one
+     * straight or diagonal line.
+     */
+    private List<Step> fillJumps(int pos)
+    {
+        int jumps = visited.trace(pos);
+        List<Step> path = new ArrayList<>();
+        int point = visited.traced(jumps - 1);
+        path.add(new Step(point, collisionUtil.isDoor(point)));
+        for(int i = jumps - 2; i >= 0; i--)
         {
-            for(int y = 0; y < flags[x].length; y++)
+            int to = visited.traced(i);
+            int dx = Integer.signum(WorldPointUtil.getX(to) - WorldPointUtil.getX(point));
+            int dy = Integer.signum(WorldPointUtil.getY(to) - WorldPointUtil.getY(point));
+            while(point != to)
             {
-                point = WorldPoint.fromScene(client, x, y, wv.getPlane());
-                collisionMap.put(WorldPointUtil.fromCord(point.getX(), point.getY()), flags[x][y]);
+                point = WorldPointUtil.dy(WorldPointUtil.dx(point, dx), dy);
+                path.add(new Step(point, collisionUtil.isDoor(point)));
             }
         }
-        return collisionMap;
+        return path;
+    }
+
+    /**
+     * A diagonal step takes a tick just like a straight one, so costs count steps and the heuristic is the
+     * Chebyshev distance. That keeps A* and jump point paths as short in steps as the BFS ones.
+     */
+    private int heuristic(int point)
+    {
+        return Math.max(Math.abs(WorldPointUtil.getX(point) - targetX), Math.abs(WorldPointUtil.getY(point) - targetY));
+    }
+
+    private int distance(int from, int to)
+    {
+        return Math.max(Math.abs(WorldPointUtil.getX(from) - WorldPointUtil.getX(to)), Math.abs(WorldPointUtil.getY(from) - WorldPointUtil.getY(to)));
     }
 }
@@ -0,0 +1,20 @@
+package net.runelite.client.plugins.tscripts.sevices.localpathfinder;
+
+/**
+ * The search {@link LocalPathfinder} runs.
+ */
+public enum SearchMode
+{
+    /**
+     * Breadth-first over all 8 directions, every step costs the same.
+     */
+    BFS,
+    /**
+     * A* where every step costs the same, with the Chebyshev distance as heuristic.
+     */
+    A_STAR,
+    /**
+     * A* that jumps along straight and diagonal lines and only queues tiles where the path may turn.
+     */
+    JUMP_POINT
+}
@@ -14,6 +14,14 @@ public class Step {
         return TWorldPoint.get(WorldPointUtil.fromCompressed(position));
     }
 
+    /**
+     * @return The position, packed by {@link WorldPointUtil#fromCord(int, int)}.
+     */
+    int getPacked()
+    {
+        return position;
+    }
+
     public Step(int position, boolean door) {
         this.position = position;
         this.doored = door;
@@ -38,10 +38,13 @@ public interface GroupDefinition
      * @param function the function to call
      * @param description the description of the method
      * @param requiresLoggedIn whether the method requires the user to be logged in
+     * @return the added method
      */
-    default void addMethod(List<MethodDefinition> methods, String name, Type returnType, ImmutableMap<Integer, Pair<String, Type>> parameters, Function<MethodCall, Object> function, String description, boolean requiresLoggedIn)
+    default MethodDefinition addMethod(List<MethodDefinition> methods, String name, Type returnType, ImmutableMap<Integer, Pair<String, Type>> parameters, Function<MethodCall, Object> function, String description, boolean requiresLoggedIn)
     {
-        methods.add(new MethodDefinition(name, returnType, parameters, function, description, requiresLoggedIn));
+        MethodDefinition method = new MethodDefinition(name, returnType, parameters, function, description, requiresLoggedIn);
+        methods.add(method);
+        return method;
     }
 
     /**
@@ -53,10 +56,13 @@ public interface GroupDefinition
      * @param function the function to call
      * @param description the description of the method
      * @param requiresLoggedIn whether the method requires the user to be logged in
+     * @return the added method
      */
-    default void addMethod(List<MethodDefinition> methods, String name, ImmutableMap<Integer, Pair<String, Type>> parameters, Consumer<MethodCall> function, String description, boolean requiresLoggedIn)
+    default MethodDefinition addMethod(List<MethodDefinition> methods, String name, ImmutableMap<Integer, Pair<String, Type>> parameters, Consumer<MethodCall> function, String description, boolean requiresLoggedIn)
     {
-        methods.add(new MethodDefinition(name, Type.VOID, parameters, function, description, requiresLoggedIn));
+        MethodDefinition method = new MethodDefinition(name, Type.VOID, parameters, function, description, requiresLoggedIn);
+        methods.add(method);
+        return method;
     }
 
     /**
@@ -68,10 +74,13 @@ public interface GroupDefinition
      * @param parameters the parameters of the method
      * @param function the function to call
      * @param description the description of the method
+     * @return the added method
      */
-    default void addMethod(List<MethodDefinition> methods, String name, Type returnType, ImmutableMap<Integer, Pair<String, Type>> parameters, Function<MethodCall, Object> function, String description)
+    default MethodDefinition addMethod(List<MethodDefinition> methods, String name, Type returnType, ImmutableMap<Integer, Pair<String, Type>> parameters, Function<MethodCall, Object> function, String description)
     {
-        methods.add(new MethodDefinition(name, returnType, parameters, function, description, true));
+        MethodDefinition method = new MethodDefinition(name, returnType, parameters, function, description, true);
+        methods.add(method);
+        return method;
     }
 
     /**
@@ -82,9 +91,12 @@ public interface GroupDefinition
      * @param parameters the parameters of the method
      * @param function the function to call
      * @param description the description of the method
+     * @return the added method
      */
-    default void addMethod(List<MethodDefinition> methods, String name, ImmutableMap<Integer, Pair<String, Type>> parameters, Consumer<MethodCall> function, String description)
+    default MethodDefinition addMethod(List<MethodDefinition> methods, String name, ImmutableMap<Integer, Pair<String, Type>> parameters, Consumer<MethodCall> function, String description)
     {
-        methods.add(new MethodDefinition(name, Type.VOID, parameters, function, description, true));
+        MethodDefinition method = new MethodDefinition(name, Type.VOID, parameters, function, description, true);
+        methods.add(method);
+        return method;
     }
 }
@@ -2,6 +2,7 @@ package net.runelite.client.plugins.tscripts.types;
 
 import com.google.common.collect.ImmutableMap;
 import lombok.Getter;
+import lombok.Setter;
 import net.runelite.client.plugins.tscripts.adapter.models.method.MethodCall;
 
 import java.util.function.Consumer;
@@ -19,6 +20,19 @@ public class MethodDefinition
     private final Function<MethodCall,Object> function;
     private final String description;
     private final boolean requiresLoggedIn;
+    /**
+     * Whether the method is paced as an action. Defaults to {@link MethodKind#QUERY} for methods that return a value
+     * and {@link MethodKind#ACTION} for those that don't.
+     */
+    @Setter
+    private MethodKind kind;
+    /**
+     * Whether the method reads client state through {@code TGame.invoke}, so every call blocks on a trip to the
+     * client thread. Two or more such reads in one statement or condition of a compiled script are run in a single
+     * client thread task. Reads that do not hop must not be marked, or batching them would add a trip.
+     */
+    @Setter
+    private boolean clientThread;
 
     /**
      * Creates a new method definition.
@@ -37,6 +51,7 @@ public class MethodDefinition
         this.function = function;
         this.description = description;
         this.requiresLoggedIn = requiresLoggedIn;
+        this.kind = MethodKind.QUERY;
     }
 
     /**
@@ -60,5 +75,6 @@ public class MethodDefinition
         };
         this.description = description;
         this.requiresLoggedIn = requiresLoggedIn;
+        this.kind = MethodKind.ACTION;
     }
 }
\ No newline at end of file
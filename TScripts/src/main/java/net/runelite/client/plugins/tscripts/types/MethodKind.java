@@ -0,0 +1,16 @@
+package net.runelite.client.plugins.tscripts.types;
+
+/**
+ * Whether a script method acts on the game or only reads from it.
+ */
+public enum MethodKind
+{
+    /**
+     * Sends input to the game, such as a menu action or packet. Actions are paced by the {@code ActionPacer}.
+     */
+    ACTION,
+    /**
+     * Reads state, waits or only touches the script itself. Queries return immediately.
+     */
+    QUERY
+}
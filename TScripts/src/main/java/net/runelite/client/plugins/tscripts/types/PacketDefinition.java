@@ -4,11 +4,12 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import net.runelite.client.plugins.tscripts.util.packets.PacketBuffer;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * Represents a packet definition.
+ * The map keeps the fields in the order they were read.
  */
 @RequiredArgsConstructor
 @Getter
@@ -16,5 +17,5 @@ public class PacketDefinition
 {
     private final String name;
     private final PacketBuffer buffer;
-    private final Map<String,Long> map = new HashMap<>();
+    private final Map<String,Long> map = new LinkedHashMap<>();
 }
\ No newline at end of file
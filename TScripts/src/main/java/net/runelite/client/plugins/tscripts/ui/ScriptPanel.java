@@ -5,11 +5,12 @@ import lombok.SneakyThrows;
 import net.runelite.client.config.Keybind;
 import net.runelite.client.plugins.tscripts.TScriptsConfig;
 import net.runelite.client.plugins.tscripts.TScriptsPlugin;
-import net.runelite.client.plugins.tscripts.adapter.Adapter;
 import net.runelite.client.plugins.tscripts.api.MethodManager;
+import net.runelite.client.plugins.tscripts.runtime.ExecutionMode;
 import net.runelite.client.plugins.tscripts.runtime.Runtime;
 import net.runelite.client.plugins.tscripts.ui.editor.ScriptEditor;
 import net.runelite.client.plugins.tscripts.sevices.ScriptEventService;
+import net.runelite.client.plugins.tscripts.sevices.cache.ScriptCache;
 import net.runelite.client.plugins.tscripts.sevices.eventbus.events.ScriptStateChanged;
 import net.runelite.client.plugins.tscripts.adapter.models.Scope.Scope;
 import net.runelite.client.plugins.tscripts.util.Logging;
@@ -25,7 +26,6 @@ import java.awt.event.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import net.runelite.client.util.HotkeyListener;
 import net.runelite.client.util.ImageUtil;
@@ -55,6 +55,7 @@ public class ScriptPanel extends JPanel
     private final JLabel stopLabel = new JLabel();
     private final JButton bindkey = new JButton("...");
     private final JComboBox<String> eventList = new JComboBox<>();
+    private final JComboBox<ExecutionMode> engineList = new JComboBox<>();
     private final JLabel editLabel = new JLabel();
     private final JLabel deleteLabel = new JLabel();
     private final FlatTextField nameInput = new FlatTextField();
@@ -384,6 +385,25 @@ public class ScriptPanel extends JPanel
             ScriptEventService.getInstance().registerSubscriber(getScriptName(), profile, eventClass);
         });
 
+        this.engineList.setModel(new DefaultComboBoxModel<>(ExecutionMode.values()));
+        this.engineList.setToolTipText("Set Execution Engine");
+        ExecutionMode executionMode = plugin.configHandler.getExecutionMode(getScriptName());
+        this.engineList.setSelectedItem(executionMode);
+        runtime.setExecutionMode(executionMode);
+
+        engineList.addActionListener(e -> {
+            ExecutionMode selectedMode = (ExecutionMode) engineList.getSelectedItem();
+            if(selectedMode == null)
+                return;
+            plugin.configHandler.setExecutionMode(getScriptName(), selectedMode);
+            runtime.setExecutionMode(selectedMode);
+            Class<?> eventClass = MethodManager.getInstance().getEventClass(plugin.configHandler.getEvent(getScriptName()));
+            if(eventClass != null)
+            {
+                ScriptEventService.getInstance().registerSubscriber(getScriptName(), profile, eventClass);
+            }
+        });
+
         this.hotkeyLabel.setFont(FontManager.getRunescapeFont());
         this.hotkeyLabel.setForeground(ColorScheme.LIGHT_GRAY_COLOR.darker());
 
@@ -406,6 +426,7 @@ public class ScriptPanel extends JPanel
         hotkeyPanel.setBorder(new EmptyBorder(10, 0, 10, 5));
         eventPanel.setBackground(ColorScheme.DARKER_GRAY_COLOR);
         eventPanel.add(eventList, BorderLayout.CENTER);
+        eventPanel.add(engineList, BorderLayout.SOUTH);
 
         southActions.add(hotkeyPanel, BorderLayout.NORTH);
         southActions.add(eventPanel, BorderLayout.SOUTH);
@@ -538,8 +559,7 @@ public class ScriptPanel extends JPanel
             if(!runtime.isDone())
                 return;
             String path = profile + getScriptName() + ".script";
-            String code = Files.readString(Paths.get(path));
-            Scope scope = Adapter.parse(code);
+            Scope scope = ScriptCache.get().get(plugin.getProfile(), getScriptName(), Paths.get(path));
             runtime.execute(scope, getScriptName(), plugin.getProfile());
         } catch (Exception ex) {
             Logging.errorLog(ex);
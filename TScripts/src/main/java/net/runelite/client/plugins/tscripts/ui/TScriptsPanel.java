@@ -4,10 +4,10 @@ import lombok.SneakyThrows;
 import static net.runelite.client.plugins.tscripts.TScriptsPlugin.*;
 import net.runelite.client.plugins.tscripts.TScriptsConfig;
 import net.runelite.client.plugins.tscripts.TScriptsPlugin;
-import net.runelite.client.plugins.tscripts.adapter.Adapter;
 import net.runelite.client.plugins.tscripts.adapter.models.Scope.Scope;
 import net.runelite.client.plugins.tscripts.runtime.Runtime;
 import net.runelite.client.plugins.tscripts.sevices.ScriptEventService;
+import net.runelite.client.plugins.tscripts.sevices.cache.ScriptCache;
 import net.runelite.client.plugins.tscripts.sevices.eventbus.TEventBus;
 import net.runelite.client.plugins.tscripts.sevices.eventbus._Subscribe;
 import net.runelite.client.plugins.tscripts.sevices.eventbus.events.ScriptStateChanged;
@@ -421,7 +421,7 @@ public class TScriptsPanel extends PluginPanel
     @_Subscribe
     public void onIpcPacket(IPCPacket event)
     {
-        Scope scope = Adapter.parse(event.getData());
+        Scope scope = ScriptCache.get().parse(event.getData());
         Runtime runtime = new Runtime();
         runtime.setChild(true);
         runtime.execute(scope, "TS_EVENT", "TS_EVENT");
@@ -3,6 +3,7 @@ package net.runelite.client.plugins.tscripts.ui.editor;
 import lombok.Getter;
 import lombok.SneakyThrows;
 import net.runelite.client.plugins.tscripts.api.MethodManager;
+import net.runelite.client.plugins.tscripts.sevices.cache.ScriptCache;
 import net.runelite.client.plugins.tscripts.types.BreakPoint;
 import net.runelite.client.plugins.tscripts.util.Logging;
 import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
@@ -172,6 +173,7 @@ public class ExRSyntaxTextArea extends RSyntaxTextArea
                 Writer fileWriter = new FileWriter(path, false);
                 fileWriter.write(getText());
                 fileWriter.close();
+                ScriptCache.get().invalidate(Paths.get(path));
             }
         };
         getDocument().addDocumentListener(scriptListener);
@@ -49,7 +49,6 @@ public class CFGVisualizer extends JPanel {
     private Runtime runtime;
     private boolean isCurrent = false;
     private double scale = 1.0;
-    private long lastUpdateTime = 0;
 
     public static CFGVisualizer create(Runtime runtime, Scope scope, String name) {
         CFGVisualizer panel = new CFGVisualizer(runtime, scope, name);
@@ -77,12 +76,7 @@ public class CFGVisualizer extends JPanel {
             return;
         }
 
-        long currentTime = System.currentTimeMillis();
-        if (currentTime - lastUpdateTime >= 50)
-        {
-            updateGraph(runtime.getRootScope());
-            lastUpdateTime = currentTime;
-        }
+        updateGraph(runtime.getRootScope());
     }
     @_Subscribe
     public void onScriptStateChanged(ScriptStateChanged event) {
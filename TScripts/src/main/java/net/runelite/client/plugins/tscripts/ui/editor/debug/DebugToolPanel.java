@@ -1,12 +1,15 @@
 package net.runelite.client.plugins.tscripts.ui.editor.debug;
 
 import net.runelite.client.plugins.tscripts.adapter.models.Scope.Scope;
+import net.runelite.client.plugins.tscripts.adapter.models.Scope.ScopeId;
 import net.runelite.client.plugins.tscripts.adapter.Adapter;
 import net.runelite.client.plugins.tscripts.runtime.Runtime;
+import net.runelite.client.plugins.tscripts.sevices.DebugTelemetry;
 import net.runelite.client.plugins.tscripts.ui.ScriptPanel;
 import net.runelite.client.plugins.tscripts.util.Logging;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.HierarchyEvent;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
@@ -80,6 +83,15 @@ public class DebugToolPanel extends JPanel {
         });
 
         buttonPanel.add(toolingList, BorderLayout.CENTER);
+
+        // Only produce debug telemetry and keep scope labels while the panel is on screen
+        addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0)
+            {
+                DebugTelemetry.get().setEnabled(isShowing());
+                ScopeId.setLabelling(isShowing());
+            }
+        });
     }
 
     public void update(ScriptPanel panel, Path scriptPath, String name)
@@ -1,11 +1,10 @@
 package net.runelite.client.plugins.tscripts.ui.editor.debug;
 
+import net.runelite.client.plugins.tscripts.adapter.models.Scope.ScopeId;
 import net.runelite.client.plugins.tscripts.runtime.Variable;
 import net.runelite.client.plugins.tscripts.sevices.eventbus.TEventBus;
 import net.runelite.client.plugins.tscripts.sevices.eventbus._Subscribe;
-import net.runelite.client.plugins.tscripts.sevices.eventbus.events.VariableUpdated;
-import net.runelite.client.plugins.tscripts.sevices.eventbus.events.VariablesCleaned;
-import net.runelite.client.plugins.tscripts.sevices.eventbus.events.VariablesCleared;
+import net.runelite.client.plugins.tscripts.sevices.eventbus.events.VariablesChanged;
 import net.runelite.client.plugins.tscripts.runtime.Runtime;
 import javax.swing.*;
 import javax.swing.table.*;
@@ -24,7 +23,8 @@ public class VariableInspector extends JPanel {
     private final DefaultTableModel tableModel;
     private int selectedRow = -1;
     private final List<Integer> frozenRows = new ArrayList<>();
-    private final Map<String, Variable> variableMap;
+    private final List<Variable> rows = new ArrayList<>();
+    private final Set<Variable> variables;
 
     public static VariableInspector getInstance(Runtime runtime) {
         if (instance == null)
@@ -34,7 +34,7 @@ public class VariableInspector extends JPanel {
 
     private VariableInspector(Runtime runtime) {
         // Set up the table model
-        tableModel = new DefaultTableModel(new Object[]{"Variable", "Value", "Hash"}, 0) {
+        tableModel = new DefaultTableModel(new Object[]{"Variable", "Value", "Scope"}, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
                 return false;
@@ -72,9 +72,10 @@ public class VariableInspector extends JPanel {
         JPopupMenu popupMenu = new JPopupMenu();
         JMenuItem freezeItem = new JMenuItem("Toggle Freeze");
         freezeItem.addActionListener(e -> {
-            String variableName = (String) tableModel.getValueAt(selectedRow, 0);
-            String hash = (String) tableModel.getValueAt(selectedRow, 2);
-            runtime.getVariableMap().toggleFreeze(variableName, hash);
+            if (selectedRow < 0 || selectedRow >= rows.size())
+                return;
+            runtime.getVariableMap().toggleFreeze(rows.get(selectedRow));
+            updateVariables();
         });
         popupMenu.add(freezeItem);
         variableTable.setComponentPopupMenu(popupMenu);
@@ -92,7 +93,7 @@ public class VariableInspector extends JPanel {
             }
         });
 
-        this.variableMap = runtime.getVariableMap().getVariableMap();
+        this.variables = runtime.getVariableMap().getVariables();
         updateVariables();
         TEventBus.register(this);
     }
@@ -102,52 +103,25 @@ public class VariableInspector extends JPanel {
             // Clear the existing table rows
             tableModel.setRowCount(0);
             frozenRows.clear();
+            rows.clear();
 
             // Add new rows for each variable
-            for (Map.Entry<String, Variable> entry : variableMap.entrySet()) {
+            for (Variable variable : variables) {
                 Vector<Object> row = new Vector<>();
-                if (entry.getValue().isFrozen())
+                if (variable.isFrozen())
                     frozenRows.add(tableModel.getRowCount());
-                if(entry.getValue().getScopeHash() == null || entry.getValue().getScopeHash().isBlank())
-                    continue;
-                row.add(entry.getValue().getName());
-                row.add(entry.getValue().getValue());
-                row.add(entry.getValue().getScopeHash());
+                row.add(variable.getName());
+                row.add(variable.getValue());
+                row.add(ScopeId.describe(variable.getScopeId()));
                 tableModel.addRow(row);
+                rows.add(variable);
             }
         });
     }
 
     @_Subscribe
-    public void onVariableUpdate(VariableUpdated event)
+    public void onVariablesChanged(VariablesChanged event)
     {
-        variableMap.put(event.getName(), new Variable(event.getName(), event.getValue(), ""));
-        updateVariables();
-    }
-
-    @_Subscribe
-    public void onVariablesCleared(VariablesCleared event)
-    {
-        variableMap.clear();
-        updateVariables();
-    }
-
-    @_Subscribe
-    public void onVariablesCleaned(VariablesCleaned event)
-    {
-        List<String> keysToRemove = new ArrayList<>();
-        String scope = event.getScopeHash();
-        for (var variable : variableMap.entrySet())
-        {
-            if (variable.getValue().getScopeHash().equals(scope))
-            {
-                keysToRemove.add(variable.getKey());
-            }
-        }
-        for (String key : keysToRemove)
-        {
-            variableMap.remove(key);
-        }
         updateVariables();
     }
 }
\ No newline at end of file
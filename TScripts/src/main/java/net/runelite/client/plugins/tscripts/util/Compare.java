@@ -5,17 +5,85 @@ import net.runelite.api.coords.WorldPoint;
 import net.unethicalite.client.Static;
 
 import java.util.Comparator;
+import java.util.function.Predicate;
 
 public class Compare {
-    public static final Comparator<? super Locatable> DISTANCE = (o1, o2) -> {
+    public static final Comparator<? super Locatable> DISTANCE = (o1, o2) ->
+            distanceFrom(Static.getClient().getLocalPlayer().getWorldLocation()).compare(o1, o2);
+
+    /**
+     * Orders by straight line distance from a tile, comparing squared distances.
+     *
+     * @param origin The tile, read once rather than on every comparison.
+     * @return The comparator.
+     */
+    public static Comparator<Locatable> distanceFrom(WorldPoint origin) {
+        int x = origin.getX();
+        int y = origin.getY();
+        return (o1, o2) -> {
+            WorldPoint wp1 = o1.getWorldLocation();
+            WorldPoint wp2 = o2.getWorldLocation();
+            return Long.compare(squaredDistance(x, y, wp1.getX(), wp1.getY()), squaredDistance(x, y, wp2.getX(), wp2.getY()));
+        };
+    }
+
+    /**
+     * Finds the candidate nearest to the local player, by the same measure as {@link #DISTANCE}, in one pass over
+     * squared distances. Ties go to the earlier candidate.
+     *
+     * @param candidates The candidates.
+     * @param filter The filter candidates must pass.
+     * @return The nearest candidate, or null if none pass.
+     */
+    public static <T extends Locatable> T nearest(Iterable<T> candidates, Predicate<? super T> filter) {
         WorldPoint wp = Static.getClient().getLocalPlayer().getWorldLocation();
-        WorldPoint wp1 = o1.getWorldLocation();
-        WorldPoint wp2 = o2.getWorldLocation();
-        double distance1 = distance(wp.getX(), wp.getY(), wp1.getX(), wp1.getY());
-        double distance2 = distance(wp.getX(), wp.getY(), wp2.getX(), wp2.getY());
-        return Double.compare(distance1, distance2);
-    };
-    private static double distance(int x1, int y1, int x2, int y2) {
-        return Math.sqrt(Math.pow(x2 - x1, 2) + Math.pow(y2 - y1, 2));
+        T nearest = null;
+        long best = Long.MAX_VALUE;
+        for (T candidate : candidates) {
+            if (!filter.test(candidate)) {
+                continue;
+            }
+            WorldPoint point = candidate.getWorldLocation();
+            long distance = squaredDistance(wp.getX(), wp.getY(), point.getX(), point.getY());
+            if (distance < best) {
+                best = distance;
+                nearest = candidate;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Finds the candidate nearest to a tile among those on its plane and within a distance along either axis,
+     * the same bounds {@code SpatialIndex} queries use. Candidates out of range are skipped before the filter runs.
+     *
+     * @param candidates The candidates, usually a bucket of the game cache.
+     * @param origin The tile.
+     * @param maxDistance The furthest a candidate may be, in tiles along either axis.
+     * @param filter The filter candidates must pass.
+     * @return The nearest candidate, or null if none pass. Ties go to the earlier candidate.
+     */
+    public static <T extends Locatable> T nearestWithin(Iterable<T> candidates, WorldPoint origin, int maxDistance, Predicate<? super T> filter) {
+        T nearest = null;
+        long best = Long.MAX_VALUE;
+        for (T candidate : candidates) {
+            WorldPoint point = candidate.getWorldLocation();
+            if (point.getPlane() != origin.getPlane()
+                    || Math.max(Math.abs(point.getX() - origin.getX()), Math.abs(point.getY() - origin.getY())) > maxDistance) {
+                continue;
+            }
+            long distance = squaredDistance(origin.getX(), origin.getY(), point.getX(), point.getY());
+            if (distance < best && filter.test(candidate)) {
+                best = distance;
+                nearest = candidate;
+            }
+        }
+        return nearest;
+    }
+
+    private static long squaredDistance(int x1, int y1, int x2, int y2) {
+        long dx = x2 - x1;
+        long dy = y2 - y1;
+        return dx * dx + dy * dy;
     }
 }
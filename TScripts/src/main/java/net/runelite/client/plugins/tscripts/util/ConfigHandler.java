@@ -1,6 +1,7 @@
 package net.runelite.client.plugins.tscripts.util;
 
 import net.runelite.client.config.Keybind;
+import net.runelite.client.plugins.tscripts.runtime.ExecutionMode;
 
 import java.io.*;
 import java.util.Properties;
@@ -173,6 +174,24 @@ public class ConfigHandler {
         return get(script, "event");
     }
 
+    /**
+     * Gets the execution engine for the script
+     * @param script The name of the script
+     * @return The execution mode
+     */
+    public ExecutionMode getExecutionMode(String script) {
+        return ExecutionMode.of(get(script, "engine"));
+    }
+
+    /**
+     * Sets the execution engine for the script
+     * @param script The name of the script
+     * @param mode The execution mode
+     */
+    public void setExecutionMode(String script, ExecutionMode mode) {
+        set(script, "engine", mode.name());
+    }
+
     /**
      * Sets the event for the script
      * @param script The name of the script
@@ -15,6 +15,8 @@ import java.math.BigInteger;
  */
 @Getter
 public class PacketBuffer {
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
     private final int packetId;
     @Setter
     private ByteBuf payload;
@@ -54,6 +56,21 @@ public class PacketBuffer {
         offset = 0;
     }
 
+    /**
+     * Constructs a packet buffer that writes into an existing buffer from the given offset. The buffer is not
+     * taken from the pool, so it does not need to be released.
+     *
+     * @param packetId the packet id
+     * @param payload the buffer to write into
+     * @param offset the offset to start at
+     */
+    public PacketBuffer(int packetId, ByteBuf payload, int offset)
+    {
+        this.packetId = packetId;
+        this.payload = payload;
+        this.offset = offset;
+    }
+
     /**
      * Constructs a new packet buffer with the specified size.
      *
@@ -85,18 +102,71 @@ public class PacketBuffer {
     public void send(ClientPacket clientPacket, boolean release)
     {
         Static.getClientThread().invoke(() -> {
-            Client client = Static.getClient();
-            PacketBufferNode packetBufferNode = Static.getClient().preparePacket(clientPacket, client.getPacketWriter().getIsaacCipher());
-            for(int i = 0; i < trueLength; i++)
+            try
+            {
+                Client client = Static.getClient();
+                PacketBufferNode packetBufferNode = client.preparePacket(clientPacket, client.getPacketWriter().getIsaacCipher());
+                net.runelite.api.packets.PacketBuffer destination = packetBufferNode.getPacketBuffer();
+                payload.getBytes(0, destination.getPayload(), destination.getOffset(), trueLength);
+                destination.setOffset(destination.getOffset() + trueLength);
+                packetBufferNode.send();
+            }
+            finally
             {
-                packetBufferNode.getPacketBuffer().writeByte(payload.getByte(i));
+                if(release)
+                    release();
             }
-            packetBufferNode.send();
-            if(release)
-                release();
         });
     }
 
+    /**
+     * Copies bytes out of the payload without moving the offset.
+     *
+     * @param index the payload index to copy from
+     * @param dst the destination
+     * @param dstIndex the destination index
+     * @param length the number of bytes
+     */
+    public void getBytes(int index, byte[] dst, int dstIndex, int length) {
+        payload.getBytes(index, dst, dstIndex, length);
+    }
+
+    /**
+     * Copies bytes into the payload without moving the offset.
+     *
+     * @param index the payload index to copy to
+     * @param src the source
+     * @param srcIndex the source index
+     * @param length the number of bytes
+     */
+    public void setBytes(int index, byte[] src, int srcIndex, int length) {
+        payload.setBytes(index, src, srcIndex, length);
+    }
+
+    public short getShort(int index) {
+        return payload.getShort(index);
+    }
+
+    public short getShortLE(int index) {
+        return Short.reverseBytes(payload.getShort(index));
+    }
+
+    public int getInt(int index) {
+        return payload.getInt(index);
+    }
+
+    public int getIntLE(int index) {
+        return Integer.reverseBytes(payload.getInt(index));
+    }
+
+    private int getUnsignedShortLE(int index) {
+        return getShortLE(index) & 0xFFFF;
+    }
+
+    private void setShortLE(int index, int value) {
+        payload.setShort(index, Short.reverseBytes((short) value));
+    }
+
     public void encryptRsa(BigInteger var1, BigInteger var2) {
         int offset_L = this.offset;
         this.offset = 0;
@@ -111,8 +181,37 @@ public class PacketBuffer {
     }
 
     public void readBytes(byte[] var1, int var2, int var3) {
-        for(int var4 = var2; var4 < var3 + var2; ++var4) {
-            var1[var4] = payload.getByte(offset++);
+        payload.getBytes(offset, var1, var2, var3);
+        offset += var3;
+    }
+
+    /**
+     * Reads bytes written with {@link #writeByteAdd(int)}.
+     */
+    public void readBytesAdd(byte[] dst, int dstIndex, int length) {
+        readBytes(dst, dstIndex, length);
+        for(int i = dstIndex; i < dstIndex + length; i++) {
+            dst[i] = (byte)(dst[i] - 128);
+        }
+    }
+
+    /**
+     * Reads bytes written with {@link #writeByteNeg(int)}.
+     */
+    public void readBytesNeg(byte[] dst, int dstIndex, int length) {
+        readBytes(dst, dstIndex, length);
+        for(int i = dstIndex; i < dstIndex + length; i++) {
+            dst[i] = (byte)(-dst[i]);
+        }
+    }
+
+    /**
+     * Reads bytes written with {@link #writeByteSub(int)}.
+     */
+    public void readBytesSub(byte[] dst, int dstIndex, int length) {
+        readBytes(dst, dstIndex, length);
+        for(int i = dstIndex; i < dstIndex + length; i++) {
+            dst[i] = (byte)(128 - dst[i]);
         }
     }
 
@@ -160,13 +259,13 @@ public class PacketBuffer {
     }
 
     public short readShort() {
-        short value = (short)(((payload.getByte(offset) & 0xFF) << 8) | (payload.getByte(offset + 1) & 0xFF));
+        short value = payload.getShort(offset);
         offset += 2;
         return value;
     }
 
     public int readUnsignedShort() {
-        int value = ((payload.getByte(offset) & 0xFF) << 8) | (payload.getByte(offset + 1) & 0xFF);
+        int value = payload.getUnsignedShort(offset);
         offset += 2;
         return value;
     }
@@ -179,24 +278,19 @@ public class PacketBuffer {
     }
 
     public int readUnsignedShortAdd() {
-        int low = payload.getByte(offset++) & 0xFF;
-        if (low < 128) {
-            low += 128;  // Adjust for the 128 added in the write method
-        } else {
-            low -= 128;  // Reverse the wrap-around effect
-        }
-        int high = (payload.getByte(offset++) & 0xFF) << 8;
-        return high | low;
+        int value = getUnsignedShortLE(offset);
+        offset += 2;
+        return (value & 0xFF00) | ((value - 128) & 0xFF); // undo the 128 added to the low byte
     }
 
     public short readShortLE() {
-        short value = (short)((payload.getByte(offset + 1) & 0xFF) << 8 | (payload.getByte(offset) & 0xFF));
+        short value = getShortLE(offset);
         offset += 2;
         return value;
     }
 
     public int readUnsignedShortLE() {
-        int value = ((payload.getByte(offset + 1) & 0xFF) << 8) | (payload.getByte(offset) & 0xFF);
+        int value = getUnsignedShortLE(offset);
         offset += 2;
         return value;
     }
@@ -209,83 +303,66 @@ public class PacketBuffer {
     }
 
     public int readUnsignedShortAddLE() {
-        int value = ((payload.getByte(offset) & 0xFF) << 8) | ((payload.getByte(offset + 1) & 0xFF) - 128 & 0xFF);
-        //int value = ((payload[offset] & 0xFF) - 128 & 0xFF) | ((payload[offset + 1] & 0xFF) << 8);
+        int value = payload.getUnsignedShort(offset);
         offset += 2;
-        return value;
+        return (value & 0xFF00) | ((value - 128) & 0xFF);
     }
 
     public int readLengthShort() {
         if (offset < 2) {
             return -1;
         }
-        int length = ((payload.getByte(offset - 2) & 0xFF) << 8) | (payload.getByte(offset - 1) & 0xFF);
+        int length = payload.getUnsignedShort(offset - 2);
         offset -= length + 2;
         return length;
     }
 
     public int readMedium() {
+        int value = payload.getUnsignedMedium(offset);
         offset += 3;
-        int b1 = payload.getByte(offset - 3) & 0xFF;
-        int b2 = payload.getByte(offset - 2) & 0xFF;
-        int b3 = payload.getByte(offset - 1) & 0xFF;
-        return (b1 << 16) | (b2 << 8) | b3;
+        return value;
     }
 
     public int readInt() {
-        return ((payload.getByte(offset++) & 0xFF) << 24) |
-                ((payload.getByte(offset++) & 0xFF) << 16) |
-                ((payload.getByte(offset++) & 0xFF) << 8) |
-                (payload.getByte(offset++) & 0xFF);
+        int value = payload.getInt(offset);
+        offset += 4;
+        return value;
     }
 
     public long readUnsignedInt() {
-        return ((payload.getByte(offset++) & 0xFFL) << 24) |
-                ((payload.getByte(offset++) & 0xFFL) << 16) |
-                ((payload.getByte(offset++) & 0xFFL) << 8) |
-                (payload.getByte(offset++) & 0xFFL);
+        return readInt() & 0xFFFFFFFFL;
     }
 
     public int readIntME() {
-        return ((payload.getByte(offset++) & 0xFF) << 8) |
-                ((payload.getByte(offset++) & 0xFF)) |
-                ((payload.getByte(offset++) & 0xFF) << 24) |
-                ((payload.getByte(offset++) & 0xFF) << 16);
+        // middle endian: the low half first, each half big endian
+        int value = payload.getUnsignedShort(offset) | (payload.getUnsignedShort(offset + 2) << 16);
+        offset += 4;
+        return value;
     }
 
     public long readUnsignedIntME() {
-        return ((payload.getByte(offset++) & 0xFFL) << 8) |
-                (payload.getByte(offset++) & 0xFFL) |
-                ((payload.getByte(offset++) & 0xFFL) << 24) |
-                ((payload.getByte(offset++) & 0xFFL) << 16);
+        return readIntME() & 0xFFFFFFFFL;
     }
 
     public int readIntLE() {
-        return (payload.getByte(offset++) & 0xFF) |
-                ((payload.getByte(offset++) & 0xFF) << 8) |
-                ((payload.getByte(offset++) & 0xFF) << 16) |
-                ((payload.getByte(offset++) & 0xFF) << 24);
+        int value = getIntLE(offset);
+        offset += 4;
+        return value;
     }
 
     public long readUnsignedIntLE() {
-        return (payload.getByte(offset++) & 0xFFL) |
-                ((payload.getByte(offset++) & 0xFFL) << 8) |
-                ((payload.getByte(offset++) & 0xFFL) << 16) |
-                ((payload.getByte(offset++) & 0xFFL) << 24);
+        return readIntLE() & 0xFFFFFFFFL;
     }
 
     public int readIntIME() {
-        return ((payload.getByte(offset++) & 0xFF) << 16) |
-                ((payload.getByte(offset++) & 0xFF) << 24) |
-                (payload.getByte(offset++) & 0xFF) |
-                ((payload.getByte(offset++) & 0xFF) << 8);
+        // inverse middle endian: the high half first, each half little endian
+        int value = (getUnsignedShortLE(offset) << 16) | getUnsignedShortLE(offset + 2);
+        offset += 4;
+        return value;
     }
 
     public long readUnsignedIntIME() {
-        return ((payload.getByte(offset++) & 0xFFL) << 16) |
-                ((payload.getByte(offset++) & 0xFFL) << 24) |
-                (payload.getByte(offset++) & 0xFFL) |
-                ((payload.getByte(offset++) & 0xFFL) << 24);
+        return readIntIME() & 0xFFFFFFFFL;
     }
 
     public int readVarInt() {
@@ -304,16 +381,15 @@ public class PacketBuffer {
         if (offset < 4) {
             return -1;
         }
-        int length = ((payload.getByte(offset - 4) & 0xFF) << 24) | ((payload.getByte(offset - 3) & 0xFF) << 16) |
-                ((payload.getByte(offset - 2) & 0xFF) << 8) | (payload.getByte(offset - 1) & 0xFF);
+        int length = payload.getInt(offset - 4);
         offset -= length + 4;
         return length;
     }
 
     public long readLong() {
-        long var1 = (long)readInt() & 4294967295L;
-        long var2 = (long)readInt() & 4294967295L;
-        return var2 + (var1 << 32);
+        long value = payload.getLong(offset);
+        offset += 8;
+        return value;
     }
 
     public float readFloat() {
@@ -345,18 +421,26 @@ public class PacketBuffer {
 
     public String readStringCp1252NullTerminated() {
         int start = offset;
-        while(payload.getByte(offset++) != 0);
+        offset = terminator(start) + 1;
         int end = offset - start - 1;
         return end == 0 ? "" : TextUtil.decodeStringCp1252(payload.array(), start, end);
     }
 
     public String readStringCp1252NullCircumfixed() {
         int startPosition = offset;
-        while (payload.getByte(++offset) != 0);
+        offset = terminator(offset + 1);
         int length = offset - startPosition - 1;
         return length == 0 ? "" : TextUtil.decodeStringCp1252(payload.array(), startPosition, length);
     }
 
+    private int terminator(int from) {
+        int index = payload.indexOf(from, payload.capacity(), (byte) 0);
+        if (index == -1) {
+            throw new IndexOutOfBoundsException("unterminated string at " + from);
+        }
+        return index;
+    }
+
     public void writeByte(int value) {
         this.trueLength++;
         payload.setByte(offset++, (byte)value);
@@ -394,9 +478,41 @@ public class PacketBuffer {
 
     public void writeBytes(byte[] src, int srcOffset, int length) {
         this.trueLength += length;
-        for (int i = srcOffset; i < length + srcOffset; i++) {
-            payload.setByte(offset++, src[i]);
+        payload.setBytes(offset, src, srcOffset, length);
+        offset += length;
+    }
+
+    /**
+     * Writes bytes as {@link #writeByteAdd(int)} would, one copy for the whole range.
+     */
+    public void writeBytesAdd(byte[] src, int srcOffset, int length) {
+        byte[] bytes = new byte[length];
+        for(int i = 0; i < length; i++) {
+            bytes[i] = (byte)(src[srcOffset + i] + 128);
         }
+        writeBytes(bytes, 0, length);
+    }
+
+    /**
+     * Writes bytes as {@link #writeByteNeg(int)} would, one copy for the whole range.
+     */
+    public void writeBytesNeg(byte[] src, int srcOffset, int length) {
+        byte[] bytes = new byte[length];
+        for(int i = 0; i < length; i++) {
+            bytes[i] = (byte)(-src[srcOffset + i]);
+        }
+        writeBytes(bytes, 0, length);
+    }
+
+    /**
+     * Writes bytes as {@link #writeByteSub(int)} would, one copy for the whole range.
+     */
+    public void writeBytesSub(byte[] src, int srcOffset, int length) {
+        byte[] bytes = new byte[length];
+        for(int i = 0; i < length; i++) {
+            bytes[i] = (byte)(128 - src[srcOffset + i]);
+        }
+        writeBytes(bytes, 0, length);
     }
 
     public void writeBuffer(byte[] src) {
@@ -405,26 +521,26 @@ public class PacketBuffer {
 
     public void writeShort(int value) {
         this.trueLength += 2;
-        payload.setByte(offset++, (byte)(value >> 8));
-        payload.setByte(offset++, (byte)value);
+        payload.setShort(offset, value);
+        offset += 2;
     }
 
     public void writeShortAdd(int value) {
         this.trueLength += 2;
-        payload.setByte(offset++, (byte)(value + 128));
-        payload.setByte(offset++, (byte)(value >> 8));
+        setShortLE(offset, (value & 0xFF00) | ((value + 128) & 0xFF));
+        offset += 2;
     }
 
     public void writeShortLE(int value) {
         this.trueLength += 2;
-        payload.setByte(offset++, (byte)value);
-        payload.setByte(offset++, (byte)(value >> 8));
+        setShortLE(offset, value);
+        offset += 2;
     }
 
     public void writeShortAddLE(int value) {
         this.trueLength += 2;
-        payload.setByte(offset++, (byte)(value >> 8));
-        payload.setByte(offset++, (byte)(value + 128));
+        payload.setShort(offset, (value & 0xFF00) | ((value + 128) & 0xFF));
+        offset += 2;
     }
 
     public void writeLengthShort(int var1) {
@@ -432,46 +548,39 @@ public class PacketBuffer {
         if (var1 < 0 || var1 > 65535) {
             return;
         }
-        payload.setByte(offset - var1 - 2, (byte)(var1 >> 8));
-        payload.setByte(offset - var1 - 1, (byte)var1);
+        payload.setShort(offset - var1 - 2, var1);
     }
 
     public void writeMedium(int value) {
-        writeByte((byte) (value >> 16));
-        writeByte((byte) (value >> 8));
-        writeByte((byte) value);
+        this.trueLength += 3;
+        payload.setMedium(offset, value);
+        offset += 3;
     }
 
     public void writeInt(int value) {
         this.trueLength += 4;
-        payload.setByte(offset++, (byte)(value >> 24));
-        payload.setByte(offset++, (byte)(value >> 16));
-        payload.setByte(offset++, (byte)(value >> 8));
-        payload.setByte(offset++, (byte)value);
+        payload.setInt(offset, value);
+        offset += 4;
     }
 
     public void writeIntME(int value) {
         this.trueLength += 4;
-        payload.setByte(offset++, (byte)(value >> 8));
-        payload.setByte(offset++, (byte) value);
-        payload.setByte(offset++, (byte)(value >> 24));
-        payload.setByte(offset++, (byte)(value >> 16));
+        payload.setShort(offset, value);
+        payload.setShort(offset + 2, value >> 16);
+        offset += 4;
     }
 
     public void writeIntLE(int value) {
         this.trueLength += 4;
-        payload.setByte(offset++, (byte)value);
-        payload.setByte(offset++, (byte)(value >> 8));
-        payload.setByte(offset++, (byte)(value >> 16));
-        payload.setByte(offset++, (byte)(value >> 24));
+        payload.setInt(offset, Integer.reverseBytes(value));
+        offset += 4;
     }
 
     public void writeIntIME(int value) {
         this.trueLength += 4;
-        payload.setByte(offset++, (byte) (value >> 16));
-        payload.setByte(offset++, (byte) (value >> 24));
-        payload.setByte(offset++, (byte) value);
-        payload.setByte(offset++, (byte) (value >> 8));
+        setShortLE(offset, value >> 16);
+        setShortLE(offset + 2, value);
+        offset += 4;
     }
 
     public void writeVarInt(int value) {
@@ -495,16 +604,13 @@ public class PacketBuffer {
         if (var1 < 0) {
             return;
         }
-        payload.setByte(offset - var1 - 4, (byte)(var1 >> 24));
-        payload.setByte(offset - var1 - 3, (byte)(var1 >> 16));
-        payload.setByte(offset - var1 - 2, (byte)(var1 >> 8));
-        payload.setByte(offset - var1 - 1, (byte)var1);
+        payload.setInt(offset - var1 - 4, var1);
     }
 
     public void writeLong(long value) {
-        // Write the two int values of the long value in big-endian order
-        writeInt((int) (value >> 32));
-        writeInt((int) value);
+        this.trueLength += 8;
+        payload.setLong(offset, value);
+        offset += 8;
     }
 
     public void writeFloat(float value) {
@@ -559,10 +665,13 @@ public class PacketBuffer {
 
     @Override
     public String toString() {
+        byte[] bytes = new byte[trueLength];
+        payload.getBytes(0, bytes, 0, trueLength);
         StringBuilder hex = new StringBuilder(trueLength * 2);
-        for(int i = 0; i < trueLength; i += 2)
-            hex.append(String.format("%02x", payload.getByte(i)));
-        return hex.toString().toUpperCase();
+        for(byte b : bytes) {
+            hex.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+        }
+        return hex.toString();
     }
 
     /**
@@ -0,0 +1,124 @@
+package net.runelite.client.plugins.tscripts.util.packets;
+
+import io.netty.buffer.Unpooled;
+import net.runelite.api.Client;
+import net.runelite.api.packets.ClientPacket;
+import net.runelite.api.packets.PacketBufferNode;
+import net.unethicalite.client.Static;
+
+/**
+ * Sends a packet from int arguments without building an argument map.
+ * <p>
+ * The argument names are bound to the packet's fields once, the first time the builder is used. Sending writes
+ * the fields straight into the client's packet buffer on the client thread, so there is nothing to copy or release.
+ */
+public class PacketBuilder
+{
+    private final String packet;
+    private final String[] args;
+    private volatile PacketCodec codec;
+    private int[] slots;
+
+    private PacketBuilder(String packet, String... args)
+    {
+        this.packet = packet;
+        this.args = args;
+    }
+
+    /**
+     * Creates a builder for a packet.
+     *
+     * @param packet The packet name.
+     * @param args The argument names, in the order their values are passed to {@link #send(ClientPacket, int...)}.
+     * @return The builder.
+     */
+    public static PacketBuilder of(String packet, String... args)
+    {
+        return new PacketBuilder(packet, args);
+    }
+
+    /**
+     * Creates builders for a numbered family of packets, such as OP_NPC_ACTION_0 to OP_NPC_ACTION_4.
+     *
+     * @param prefix The packet name without its number.
+     * @param count The number of packets.
+     * @param args The argument names.
+     * @return The builders, indexed by number.
+     */
+    public static PacketBuilder[] family(String prefix, int count, String... args)
+    {
+        PacketBuilder[] builders = new PacketBuilder[count];
+        for(int i = 0; i < count; i++)
+        {
+            builders[i] = new PacketBuilder(prefix + i, args);
+        }
+        return builders;
+    }
+
+    /**
+     * Checks if the packet has a definition.
+     *
+     * @return Whether the packet can be sent.
+     */
+    public boolean exists()
+    {
+        return resolve() != null;
+    }
+
+    /**
+     * Builds the packet into a pooled buffer, for callers that send or inspect it themselves.
+     *
+     * @param values The argument values.
+     * @return The buffer, or null if the packet has no definition.
+     */
+    public PacketBuffer build(int... values)
+    {
+        PacketCodec codec = resolve();
+        if(codec == null)
+            return null;
+
+        PacketBuffer buffer = new PacketBuffer(codec.getEntry().getPacket().getId(), codec.getEntry().getPacket().getLength());
+        codec.encode(buffer, slots, values);
+        return buffer;
+    }
+
+    /**
+     * Sends the packet.
+     *
+     * @param clientPacket The client packet.
+     * @param values The argument values.
+     */
+    public void send(ClientPacket clientPacket, int... values)
+    {
+        PacketCodec codec = resolve();
+        if(codec == null || clientPacket == null)
+            return;
+
+        int[] slots = this.slots;
+        int packetId = codec.getEntry().getPacket().getId();
+        Static.getClientThread().invoke(() -> {
+            Client client = Static.getClient();
+            PacketBufferNode packetBufferNode = client.preparePacket(clientPacket, client.getPacketWriter().getIsaacCipher());
+            net.runelite.api.packets.PacketBuffer destination = packetBufferNode.getPacketBuffer();
+            PacketBuffer buffer = new PacketBuffer(packetId, Unpooled.wrappedBuffer(destination.getPayload()), destination.getOffset());
+            codec.encode(buffer, slots, values);
+            destination.setOffset(buffer.getOffset());
+            packetBufferNode.send();
+        });
+    }
+
+    private PacketCodec resolve()
+    {
+        PacketCodec codec = this.codec;
+        if(codec == null)
+        {
+            codec = PacketMapReader.getCodec(packet);
+            if(codec != null)
+            {
+                slots = codec.bind(args);
+                this.codec = codec;
+            }
+        }
+        return codec;
+    }
+}
@@ -0,0 +1,240 @@
+package net.runelite.client.plugins.tscripts.util.packets;
+
+import com.google.common.collect.ImmutableMap;
+import lombok.Getter;
+import net.runelite.client.plugins.tscripts.types.MapEntry;
+import net.runelite.client.plugins.tscripts.types.PacketDefinition;
+
+import java.util.Map;
+
+/**
+ * A packet definition compiled into an ordered array of field readers and writers, so encoding and decoding a
+ * packet does not look up read or write methods by name.
+ */
+public class PacketCodec
+{
+    private static final FieldReader UNKNOWN_READER = buffer -> -1;
+    private static final IntWriter UNKNOWN_WRITER = (buffer, value) -> {};
+    private static final StringWriter UNKNOWN_STRING_WRITER = (buffer, value) -> {};
+
+    private static final Map<String, FieldReader> READERS = ImmutableMap.<String, FieldReader>builder()
+            .put("readByte", PacketBuffer::readByte)
+            .put("readByteAdd", PacketBuffer::readByteAdd)
+            .put("readByteNeg", PacketBuffer::readByteNeg)
+            .put("readByteSub", PacketBuffer::readByteSub)
+            .put("readLengthByte", PacketBuffer::readLengthByte)
+            .put("readBoolean", buffer -> buffer.readBoolean() ? 1 : 0)
+            .put("readBooleanAdd", buffer -> buffer.readBooleanAdd() ? 1 : 0)
+            .put("readBooleanNeg", buffer -> buffer.readBooleanNeg() ? 1 : 0)
+            .put("readBooleanSub", buffer -> buffer.readBooleanSub() ? 1 : 0)
+            .put("readShort", PacketBuffer::readUnsignedShort)
+            .put("readShortAdd", PacketBuffer::readUnsignedShortAdd)
+            .put("readShortLE", PacketBuffer::readUnsignedShortLE)
+            .put("readShortAddLE", PacketBuffer::readUnsignedShortAddLE)
+            .put("readLengthShort", PacketBuffer::readLengthShort)
+            .put("readMedium", PacketBuffer::readMedium)
+            .put("readInt", PacketBuffer::readInt)
+            .put("readIntME", PacketBuffer::readIntME)
+            .put("readIntLE", PacketBuffer::readIntLE)
+            .put("readIntIME", PacketBuffer::readIntIME)
+            .put("readVarInt", PacketBuffer::readVarInt)
+            .put("readLengthInt", PacketBuffer::readLengthInt)
+            .put("readLong", PacketBuffer::readLong)
+            .put("readFloat", buffer -> (int) buffer.readFloat())
+            .build();
+
+    private static final Map<String, IntWriter> WRITERS = ImmutableMap.<String, IntWriter>builder()
+            .put("writeByte", PacketBuffer::writeByte)
+            .put("writeByteAdd", PacketBuffer::writeByteAdd)
+            .put("writeByteNeg", PacketBuffer::writeByteNeg)
+            .put("writeByteSub", PacketBuffer::writeByteSub)
+            .put("writeLengthByte", PacketBuffer::writeLengthByte)
+            .put("writeShort", PacketBuffer::writeShort)
+            .put("writeShortAdd", PacketBuffer::writeShortAdd)
+            .put("writeShortLE", PacketBuffer::writeShortLE)
+            .put("writeShortAddLE", PacketBuffer::writeShortAddLE)
+            .put("writeLengthShort", PacketBuffer::writeLengthShort)
+            .put("writeMedium", PacketBuffer::writeMedium)
+            .put("writeInt", PacketBuffer::writeInt)
+            .put("writeIntME", PacketBuffer::writeIntME)
+            .put("writeIntLE", PacketBuffer::writeIntLE)
+            .put("writeIntIME", PacketBuffer::writeIntIME)
+            .put("writeVarInt", PacketBuffer::writeVarInt)
+            .put("writeLengthInt", PacketBuffer::writeLengthInt)
+            .put("writeLong", PacketBuffer::writeLong)
+            .put("writeFloat", PacketBuffer::writeFloat)
+            .build();
+
+    private static final Map<String, StringWriter> STRING_WRITERS = ImmutableMap.<String, StringWriter>builder()
+            .put("writeStringCp1252NullTerminated", PacketBuffer::writeStringCp1252NullTerminated)
+            .put("writeStringCp1252NullCircumfixed", PacketBuffer::writeStringCp1252NullCircumfixed)
+            .put("writeCESU8", PacketBuffer::writeCESU8)
+            .build();
+
+    @Getter
+    private final MapEntry entry;
+    private final Field[] fields;
+
+    /**
+     * Compiles a packet definition.
+     *
+     * @param entry The packet definition.
+     */
+    public PacketCodec(MapEntry entry)
+    {
+        this.entry = entry;
+        this.fields = new Field[entry.getArgs().size()];
+        for(int i = 0; i < fields.length; i++)
+        {
+            fields[i] = new Field(
+                    entry.getArgs().get(i),
+                    READERS.getOrDefault(entry.getReads().get(i), UNKNOWN_READER),
+                    WRITERS.getOrDefault(entry.getWrites().get(i), UNKNOWN_WRITER),
+                    STRING_WRITERS.getOrDefault(entry.getWrites().get(i), UNKNOWN_STRING_WRITER)
+            );
+        }
+    }
+
+    /**
+     * Reads the named fields of a packet. Fields whose argument is a number are read and skipped.
+     *
+     * @param buffer The packet buffer, read from the start and rewound afterwards.
+     * @return The packet definition.
+     */
+    public PacketDefinition decode(PacketBuffer buffer)
+    {
+        PacketDefinition definition = new PacketDefinition(entry.getName(), buffer);
+        for(Field field : fields)
+        {
+            long value = field.reader.read(buffer);
+            if(!field.numeric)
+                definition.getMap().put(field.arg, value);
+        }
+        buffer.setOffset(0);
+        return definition;
+    }
+
+    /**
+     * Creates a packet buffer from the given arguments. Fields without an argument are written from the
+     * definition if their argument name is a number or a boolean.
+     *
+     * @param args The arguments by name.
+     * @return The packet buffer.
+     */
+    public PacketBuffer encode(Map<String,Object> args)
+    {
+        PacketBuffer buffer = new PacketBuffer(entry.getPacket().getId(), entry.getPacket().getLength());
+        for(Field field : fields)
+        {
+            Object object = args.get(field.arg);
+            if(object != null)
+            {
+                if(object instanceof Integer)
+                {
+                    field.writer.write(buffer, (int) object);
+                }
+                else if(object instanceof String)
+                {
+                    field.stringWriter.write(buffer, (String) object);
+                }
+            }
+            else if(field.constant != null)
+            {
+                field.writer.write(buffer, field.constant);
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Works out which of the given arguments each field is written from.
+     *
+     * @param args The argument names, in the order their values will be passed to
+     *             {@link #encode(PacketBuffer, int[], int[])}.
+     * @return For each field, the position of its argument, or -1 if it has none.
+     */
+    public int[] bind(String... args)
+    {
+        int[] slots = new int[fields.length];
+        for(int i = 0; i < fields.length; i++)
+        {
+            slots[i] = -1;
+            for(int j = 0; j < args.length; j++)
+            {
+                if(fields[i].arg.equals(args[j]))
+                {
+                    slots[i] = j;
+                    break;
+                }
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Writes a packet into a buffer from int arguments bound with {@link #bind(String...)}. Fields without an
+     * argument are written from the definition, as in {@link #encode(Map)}.
+     *
+     * @param buffer The buffer to write into, from its current offset.
+     * @param slots The bound argument positions.
+     * @param values The argument values.
+     */
+    public void encode(PacketBuffer buffer, int[] slots, int[] values)
+    {
+        for(int i = 0; i < fields.length; i++)
+        {
+            Field field = fields[i];
+            if(slots[i] != -1)
+            {
+                field.writer.write(buffer, values[slots[i]]);
+            }
+            else if(field.constant != null)
+            {
+                field.writer.write(buffer, field.constant);
+            }
+        }
+    }
+
+    private static final class Field
+    {
+        private final String arg;
+        private final Integer constant;
+        private final boolean numeric;
+        private final FieldReader reader;
+        private final IntWriter writer;
+        private final StringWriter stringWriter;
+
+        private Field(String arg, FieldReader reader, IntWriter writer, StringWriter stringWriter)
+        {
+            this.arg = arg;
+            this.reader = reader;
+            this.writer = writer;
+            this.stringWriter = stringWriter;
+            this.numeric = PacketMapReader.isParsableAsNumber(arg);
+            if(numeric)
+                constant = Integer.parseInt(arg);
+            else if(arg.equals("true") || arg.equals("false"))
+                constant = arg.equals("true") ? 1 : 0;
+            else
+                constant = null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface FieldReader
+    {
+        long read(PacketBuffer buffer);
+    }
+
+    @FunctionalInterface
+    private interface IntWriter
+    {
+        void write(PacketBuffer buffer, int value);
+    }
+
+    @FunctionalInterface
+    private interface StringWriter
+    {
+        void write(PacketBuffer buffer, String value);
+    }
+}
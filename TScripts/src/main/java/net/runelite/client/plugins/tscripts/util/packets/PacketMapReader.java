@@ -12,16 +12,24 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
  * Reads and writes packet definitions from a JSON file
+ * <p>
+ * Definitions are indexed by name and by packet id when loaded, and each one is compiled into a {@link PacketCodec}
+ * once. Where several definitions share a name or id, the first one in the file is used.
  */
 public class PacketMapReader
 {
-    private static List<MapEntry> defs;
+    private static volatile List<MapEntry> defs;
+    private static Map<String, PacketCodec> byName;
+    private static PacketCodec[] byId;
+    private static Map<MapEntry, PacketCodec> byEntry;
     private static final Gson gson = new GsonBuilder().create();
 
     /**
@@ -43,14 +51,37 @@ public class PacketMapReader
      * @return packet definition
      */
     public static MapEntry get(String packet)
+    {
+        PacketCodec codec = getCodec(packet);
+        return codec == null ? null : codec.getEntry();
+    }
+
+    /**
+     * Get the compiled codec of a packet definition by name
+     * @param packet packet name
+     * @return packet codec
+     */
+    public static PacketCodec getCodec(String packet)
     {
         if(defs == null)
         {
             fillMaps();
         }
-        return defs.stream()
-                .filter(e -> e.getName().equals(packet))
-                .findFirst().orElse(null);
+        return byName.get(packet);
+    }
+
+    /**
+     * Get the compiled codec of a packet definition by packet id
+     * @param id packet id
+     * @return packet codec
+     */
+    public static PacketCodec getCodec(int id)
+    {
+        if(defs == null)
+        {
+            fillMaps();
+        }
+        return id >= 0 && id < byId.length ? byId[id] : null;
     }
 
     /**
@@ -61,28 +92,12 @@ public class PacketMapReader
      */
     public static PacketDefinition analyze(PacketBuffer buffer)
     {
-        MapEntry entry = get().stream()
-                .filter(e -> e.getPacket().getId() == buffer.getPacketId())
-                .findFirst().orElse(null);
-
-        if(entry == null)
+        PacketCodec codec = getCodec(buffer.getPacketId());
+        if(codec == null)
         {
             return null;
         }
-
-        PacketDefinition definition = new PacketDefinition(entry.getName(), buffer);
-
-        for(int i = 0; i < entry.getReads().size(); i++)
-        {
-            if(isParsableAsNumber(entry.getArgs().get(i)))
-            {
-                doRead(buffer, entry.getReads().get(i)); //shit to ignore
-                continue;
-            }
-            definition.getMap().put(entry.getArgs().get(i), doRead(buffer, entry.getReads().get(i)));
-        }
-        buffer.setOffset(0);
-        return definition;
+        return codec.decode(buffer);
     }
 
     /**
@@ -93,88 +108,31 @@ public class PacketMapReader
      */
     public static String prettify(PacketBuffer buffer)
     {
-        MapEntry entry = get().stream()
-                .filter(e -> e.getPacket().getId() == buffer.getPacketId())
-                .findFirst().orElse(null);
-        if(entry == null)
+        return prettify(buffer, analyze(buffer));
+    }
+
+    /**
+     * Formats a pretty String representing the buffer from a packet definition that was already analyzed.
+     *
+     * @param buffer The packet buffer.
+     * @param definition The packet definition from {@link #analyze(PacketBuffer)}, or null if it is unknown.
+     * @return A string representation of the packet buffer.
+     */
+    public static String prettify(PacketBuffer buffer, PacketDefinition definition)
+    {
+        if(definition == null)
         {
             return "[UNKNOWN(" + buffer.getPacketId() + ")] " + buffer;
         }
 
-        StringBuilder out = new StringBuilder("[" + entry.getName() + "(" + entry.getPacket().getId() + ")] ");
-        for(int i = 0; i < entry.getReads().size(); i++)
+        StringBuilder out = new StringBuilder("[" + definition.getName() + "(" + buffer.getPacketId() + ")] ");
+        for(Map.Entry<String, Long> field : definition.getMap().entrySet())
         {
-            if(isParsableAsNumber(entry.getArgs().get(i)))
-            {
-                doRead(buffer, entry.getReads().get(i)); //shit to ignore
-                continue;
-            }
-            out.append(entry.getArgs().get(i)).append("=").append(doRead(buffer, entry.getReads().get(i))).append(", ");
+            out.append(field.getKey()).append("=").append(field.getValue()).append(", ");
         }
-        buffer.setOffset(0);
         return out.toString();
     }
 
-    /**
-     * Performs a read operation on the packet buffer based on the provided method.
-     *
-     * @param buffer The packet buffer to read from.
-     * @param method The read method to use.
-     * @return The read value as a long.
-     */
-    private static long doRead(PacketBuffer buffer, String method) {
-        switch (method) {
-            case "readByte":
-                return buffer.readByte();
-            case "readByteAdd":
-                return buffer.readByteAdd();
-            case "readByteNeg":
-                return buffer.readByteNeg();
-            case "readByteSub":
-                return buffer.readByteSub();
-            case "readLengthByte":
-                return buffer.readLengthByte();
-            case "readBoolean":
-                return buffer.readBoolean() ? 1 : 0;
-            case "readBooleanAdd":
-                return buffer.readBooleanAdd() ? 1 : 0;
-            case "readBooleanNeg":
-                return buffer.readBooleanNeg() ? 1 : 0;
-            case "readBooleanSub":
-                return buffer.readBooleanSub() ? 1 : 0;
-            case "readShort":
-                return buffer.readUnsignedShort();
-            case "readShortAdd":
-                return buffer.readUnsignedShortAdd();
-            case "readShortLE":
-                return buffer.readUnsignedShortLE();
-            case "readShortAddLE":
-                return buffer.readUnsignedShortAddLE();
-            case "readLengthShort":
-                return buffer.readLengthShort();
-            case "readMedium":
-                return buffer.readMedium();
-            case "readInt":
-                return buffer.readInt();
-            case "readIntME":
-                return buffer.readIntME();
-            case "readIntLE":
-                return buffer.readIntLE();
-            case "readIntIME":
-                return buffer.readIntIME();
-            case "readVarInt":
-                return buffer.readVarInt();
-            case "readLengthInt":
-                return buffer.readLengthInt();
-            case "readLong":
-                return buffer.readLong();
-            case "readFloat":
-                return (int) buffer.readFloat();
-            default:
-                return -1;
-        }
-    }
-
     /**
      * Creates a packet buffer from a map entry and a map of arguments.
      *
@@ -184,124 +142,16 @@ public class PacketMapReader
      */
     public static PacketBuffer createBuffer(MapEntry entry, Map<String,Object> args)
     {
-        PacketBuffer buffer = new PacketBuffer(entry.getPacket().getId(), entry.getPacket().getLength());
-        for(int i = 0; i < entry.getWrites().size(); i++)
+        if(defs == null)
         {
-            if (args.get(entry.getArgs().get(i)) != null)
-            {
-                Object object = args.get(entry.getArgs().get(i));
-                if(object instanceof Integer)
-                {
-                    doWrite(buffer, entry.getWrites().get(i), (int) object);
-                }
-                else if(object instanceof String)
-                {
-                    doWriteStr(buffer, entry.getWrites().get(i), (String) object);
-                }
-
-            }
-            else if(isParsableAsNumber(entry.getArgs().get(i)))
-            {
-                doWrite(buffer, entry.getWrites().get(i), Integer.parseInt(entry.getArgs().get(i)));
-            }
-            else if(entry.getArgs().get(i).equals("true") || entry.getArgs().get(i).equals("false"))
-            {
-                doWrite(buffer, entry.getWrites().get(i), (entry.getArgs().get(i).equals("true") ? 1 : 0));
-            }
+            fillMaps();
         }
-        return buffer;
-    }
-
-    /**
-     * Writes a string to the packet buffer based on the provided method and value.
-     *
-     * @param buffer The packet buffer to write to.
-     * @param method The write method to use.
-     * @param value The string value to write.
-     */
-    private static void doWriteStr(PacketBuffer buffer, String method, String value)
-    {
-        switch (method)
+        PacketCodec codec = byEntry.get(entry);
+        if(codec == null)
         {
-            case "writeStringCp1252NullTerminated":
-                buffer.writeStringCp1252NullTerminated(value);
-                break;
-            case "writeStringCp1252NullCircumfixed":
-                buffer.writeStringCp1252NullCircumfixed(value);
-                break;
-            case "writeCESU8":
-                buffer.writeCESU8(value);
-                break;
-        }
-    }
-
-    /**
-     * Performs a write operation on the packet buffer based on the provided method and value.
-     *
-     * @param buffer The packet buffer to write to.
-     * @param method The write method to use.
-     * @param value The value to write.
-     */
-    private static void doWrite(PacketBuffer buffer, String method, int value) {
-        switch (method) {
-            case "writeByte":
-                buffer.writeByte(value);
-                break;
-            case "writeByteAdd":
-                buffer.writeByteAdd(value);
-                break;
-            case "writeByteNeg":
-                buffer.writeByteNeg(value);
-                break;
-            case "writeByteSub":
-                buffer.writeByteSub(value);
-                break;
-            case "writeLengthByte":
-                buffer.writeLengthByte(value);
-                break;
-            case "writeShort":
-                buffer.writeShort(value);
-                break;
-            case "writeShortAdd":
-                buffer.writeShortAdd(value);
-                break;
-            case "writeShortLE":
-                buffer.writeShortLE(value);
-                break;
-            case "writeShortAddLE":
-                buffer.writeShortAddLE(value);
-                break;
-            case "writeLengthShort":
-                buffer.writeLengthShort(value);
-                break;
-            case "writeMedium":
-                buffer.writeMedium(value);
-                break;
-            case "writeInt":
-                buffer.writeInt(value);
-                break;
-            case "writeIntME":
-                buffer.writeIntME(value);
-                break;
-            case "writeIntLE":
-                buffer.writeIntLE(value);
-                break;
-            case "writeIntIME":
-                buffer.writeIntIME(value);
-                break;
-            case "writeVarInt":
-                buffer.writeVarInt(value);
-                break;
-            case "writeLengthInt":
-                buffer.writeLengthInt(value);
-                break;
-            case "writeLong":
-                buffer.writeLong(value);
-                break;
-            case "writeFloat":
-                buffer.writeFloat(value);
-                break;
+            codec = new PacketCodec(entry);
         }
+        return codec.encode(args);
     }
 
     /**
@@ -320,18 +170,44 @@ public class PacketMapReader
     }
 
     /**
-     * Fills the list of map entries with packet definitions from a JSON file.
+     * Fills the list of map entries with packet definitions from a JSON file, and indexes their codecs.
      */
-    public static void fillMaps()
+    public static synchronized void fillMaps()
     {
+        List<MapEntry> entries;
         try {
             InputStream inputStream = TScriptsPlugin.class.getResourceAsStream("packets.json");
             BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
             String fileContent = bufferedReader.lines().collect(Collectors.joining(System.lineSeparator()));
-            defs = gson.fromJson(fileContent, new TypeToken<ArrayList<MapEntry>>(){}.getType());
+            entries = gson.fromJson(fileContent, new TypeToken<ArrayList<MapEntry>>(){}.getType());
         } catch (Exception ex) {
             Logging.errorLog(ex);
-            defs = new ArrayList<>();
+            entries = new ArrayList<>();
         }
+
+        Map<String, PacketCodec> names = new HashMap<>();
+        Map<MapEntry, PacketCodec> compiled = new IdentityHashMap<>();
+        int maxId = -1;
+        for(MapEntry entry : entries)
+        {
+            maxId = Math.max(maxId, entry.getPacket().getId());
+        }
+        PacketCodec[] ids = new PacketCodec[maxId + 1];
+        for(MapEntry entry : entries)
+        {
+            PacketCodec codec = new PacketCodec(entry);
+            compiled.put(entry, codec);
+            names.putIfAbsent(entry.getName(), codec);
+            int id = entry.getPacket().getId();
+            if(id >= 0 && ids[id] == null)
+            {
+                ids[id] = codec;
+            }
+        }
+
+        byName = names;
+        byId = ids;
+        byEntry = compiled;
+        defs = entries;
     }
 }
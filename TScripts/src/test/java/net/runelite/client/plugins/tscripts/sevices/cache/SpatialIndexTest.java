@@ -0,0 +1,102 @@
+package net.runelite.client.plugins.tscripts.sevices.cache;
+
+import net.runelite.api.coords.WorldPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Checks grid queries against a full scan of every entity, sorted by squared distance with ties going to the entity
+ * that comes first, on random scenes with several planes, result counts, radii and filters.
+ */
+public class SpatialIndexTest
+{
+    private static final int SCENES = 20000;
+
+    @Test
+    public void queriesMatchFullScan()
+    {
+        Random random = new Random(1);
+        for(int scene = 0; scene < SCENES; scene++)
+        {
+            int spread = 8 + random.nextInt(200);
+            List<Entity> entities = new ArrayList<>();
+            int count = random.nextInt(60);
+            for(int i = 0; i < count; i++)
+            {
+                WorldPoint point = random.nextInt(10) == 0 ? null
+                        : new WorldPoint(3200 + random.nextInt(spread), 3200 + random.nextInt(spread), random.nextInt(2));
+                entities.add(new Entity(i, point));
+            }
+            SpatialIndex<Entity> index = SpatialIndex.of(entities, Entity::getPoint);
+
+            int x = 3200 - 20 + random.nextInt(spread + 40);
+            int y = 3200 - 20 + random.nextInt(spread + 40);
+            int plane = random.nextInt(3) - 1;
+            int k = 1 + random.nextInt(6);
+            int maxDistance = random.nextInt(4) == 0 ? Integer.MAX_VALUE : random.nextInt(spread);
+            int modulo = 1 + random.nextInt(3);
+            Predicate<Entity> filter = entity -> entity.id % modulo == 0;
+
+            List<Entity> expected = scan(entities, x, y, plane, maxDistance, filter);
+            String context = "scene " + scene;
+            assertEquals(ids(expected.subList(0, Math.min(k, expected.size()))),
+                    ids(index.nearest(x, y, plane, k, maxDistance, filter)), context);
+
+            if(plane != -1)
+            {
+                WorldPoint origin = new WorldPoint(x, y, plane);
+                assertSame(expected.isEmpty() ? null : expected.get(0), index.nearest(origin, maxDistance, filter), context);
+                assertEquals(ids(expected), ids(index.within(origin, maxDistance, filter)), context);
+            }
+        }
+    }
+
+    private static List<Entity> scan(List<Entity> entities, int x, int y, int plane, int maxDistance, Predicate<Entity> filter)
+    {
+        return entities.stream()
+                .filter(entity -> entity.point != null)
+                .filter(entity -> plane == -1 || entity.point.getPlane() == plane)
+                .filter(entity -> Math.max(Math.abs(entity.point.getX() - x), Math.abs(entity.point.getY() - y)) <= maxDistance)
+                .filter(filter)
+                .sorted(Comparator.comparingLong((Entity entity) -> squaredDistance(entity, x, y)))
+                .collect(Collectors.toList());
+    }
+
+    private static long squaredDistance(Entity entity, int x, int y)
+    {
+        long dx = entity.point.getX() - x;
+        long dy = entity.point.getY() - y;
+        return dx * dx + dy * dy;
+    }
+
+    private static List<Integer> ids(List<Entity> entities)
+    {
+        return entities.stream().map(entity -> entity.id).collect(Collectors.toList());
+    }
+
+    private static final class Entity
+    {
+        private final int id;
+        private final WorldPoint point;
+
+        private Entity(int id, WorldPoint point)
+        {
+            this.id = id;
+            this.point = point;
+        }
+
+        private WorldPoint getPoint()
+        {
+            return point;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package net.runelite.client.plugins.tscripts.sevices.localpathfinder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that A* and jump point search find paths with as few steps as BFS on random grids, and that every path
+ * only takes legal steps.
+ */
+public class LocalPathfinderTest
+{
+    private static final int GRIDS = 5000;
+
+    @Test
+    public void searchModesFindEquallyShortPaths()
+    {
+        Random random = new Random(1);
+        LocalPathfinder pathfinder = LocalPathfinder.get();
+        for(int i = 0; i < GRIDS; i++)
+        {
+            int size = i % 50 == 0 ? 150 + random.nextInt(60) : 20 + random.nextInt(30);
+            CollisionUtil grid = SyntheticGrids.grid(random, size, random.nextDouble() * 0.4);
+            int start = SyntheticGrids.tile(random, size);
+            int end = SyntheticGrids.tile(random, size);
+
+            int expected = steps(grid, pathfinder.findPath(grid, start, end, SearchMode.BFS), start, end);
+            for(SearchMode mode : new SearchMode[]{SearchMode.A_STAR, SearchMode.JUMP_POINT})
+            {
+                int actual = steps(grid, pathfinder.findPath(grid, start, end, mode), start, end);
+                assertEquals(expected, actual, "grid " + i + ", " + mode);
+            }
+        }
+    }
+
+    /**
+     * @return The number of steps in a path, or -1 if it is empty.
+     */
+    private static int steps(CollisionUtil grid, List<Step> path, int start, int end)
+    {
+        if(path.isEmpty())
+            return -1;
+        assertEquals(start, path.get(0).getPacked());
+        assertEquals(end, path.get(path.size() - 1).getPacked());
+        for(int i = 1; i < path.size(); i++)
+        {
+            int from = path.get(i - 1).getPacked();
+            int to = path.get(i).getPacked();
+            int dx = WorldPointUtil.getX(to) - WorldPointUtil.getX(from);
+            int dy = WorldPointUtil.getY(to) - WorldPointUtil.getY(from);
+            assertTrue(Math.abs(dx) <= 1 && Math.abs(dy) <= 1 && (dx != 0 || dy != 0), "not a single step");
+            assertTrue(grid.canMove(WorldPointUtil.getX(from), WorldPointUtil.getY(from), dx, dy), "blocked step");
+        }
+        return path.size() - 1;
+    }
+}
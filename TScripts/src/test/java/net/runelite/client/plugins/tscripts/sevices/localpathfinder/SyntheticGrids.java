@@ -0,0 +1,65 @@
+package net.runelite.client.plugins.tscripts.sevices.localpathfinder;
+
+import net.runelite.api.CollisionDataFlag;
+
+import java.util.Random;
+
+/**
+ * Random collision grids for checking and benchmarking the pathfinder without a client.
+ * <p>
+ * Tiles are either open, fully blocked, or carry a single wall on one edge, so walls between tiles and the
+ * corner rules for diagonal steps are exercised as well as blocked tiles.
+ */
+public class SyntheticGrids
+{
+    public static final int BASE_X = 3200;
+    public static final int BASE_Y = 3200;
+    private static final int[] WALLS = {
+            CollisionDataFlag.BLOCK_MOVEMENT_NORTH,
+            CollisionDataFlag.BLOCK_MOVEMENT_EAST,
+            CollisionDataFlag.BLOCK_MOVEMENT_SOUTH,
+            CollisionDataFlag.BLOCK_MOVEMENT_WEST
+    };
+
+    /**
+     * Builds the scene collision flags of a grid.
+     *
+     * @param random The random source.
+     * @param size The width and height in tiles.
+     * @param density The chance of a tile being blocked, and separately of it carrying a wall.
+     * @return The flags, indexed [x][y].
+     */
+    public static int[][] flags(Random random, int size, double density)
+    {
+        int[][] flags = new int[size][size];
+        for(int x = 0; x < size; x++)
+        {
+            for(int y = 0; y < size; y++)
+            {
+                if(random.nextDouble() < density)
+                    flags[x][y] = CollisionDataFlag.BLOCK_MOVEMENT_FULL;
+                else if(random.nextDouble() < density)
+                    flags[x][y] = WALLS[random.nextInt(WALLS.length)];
+            }
+        }
+        return flags;
+    }
+
+    /**
+     * Builds a grid at {@link #BASE_X}, {@link #BASE_Y}.
+     */
+    public static CollisionUtil grid(Random random, int size, double density)
+    {
+        return new CollisionUtil(flags(random, size, density), BASE_X, BASE_Y, 0);
+    }
+
+    /**
+     * Picks a random tile of a grid.
+     *
+     * @return The tile, packed by {@link WorldPointUtil#fromCord(int, int)}.
+     */
+    public static int tile(Random random, int size)
+    {
+        return WorldPointUtil.fromCord(BASE_X + random.nextInt(size), BASE_Y + random.nextInt(size));
+    }
+}